@@ -16,18 +16,24 @@
 
 package com.hazelcast.qasonar;
 
+import com.hazelcast.qasonar.codecoverage.MultiRepositoryPullRequests;
 import com.hazelcast.qasonar.codecoverage.PullRequests;
 import com.hazelcast.qasonar.csvmerge.CsvMerge;
+import com.hazelcast.qasonar.daemon.Daemon;
 import com.hazelcast.qasonar.ideaconverter.IdeaConverter;
+import com.hazelcast.qasonar.jacococonverter.JacocoConverter;
 import com.hazelcast.qasonar.listprojects.ListProjects;
 import com.hazelcast.qasonar.listpullrequests.ListPullRequests;
 import com.hazelcast.qasonar.outputMerge.OutputMerge;
+import com.hazelcast.qasonar.utils.CommandLineAction;
 import com.hazelcast.qasonar.utils.CommandLineOptions;
 import com.hazelcast.utils.PropertyReader;
 import com.hazelcast.utils.PropertyReaderBuilder;
+import com.hazelcast.utils.RestClient;
 
 import java.io.IOException;
 
+import static com.hazelcast.qasonar.daemon.DaemonClient.runOnDaemon;
 import static com.hazelcast.utils.DebugUtils.setDebug;
 
 public final class QaSonar {
@@ -41,6 +47,9 @@ public final class QaSonar {
         CommandLineOptions commandLineOptions = new CommandLineOptions(args, propertyReader);
         setDebug(commandLineOptions.isVerbose());
 
+        // a single REST client limits the concurrent SonarQube requests of the whole process
+        RestClient restClient = RestClient.fromPropertyReader(propertyReader);
+
         switch (commandLineOptions.getAction()) {
             case PRINT_HELP:
                 commandLineOptions.printHelp();
@@ -51,8 +60,13 @@ public final class QaSonar {
                 converter.run();
                 break;
 
+            case JACOCO_CONVERTER:
+                JacocoConverter jacocoConverter = new JacocoConverter(propertyReader);
+                jacocoConverter.run();
+                break;
+
             case CSV_MERGE:
-                CsvMerge csvMerge = new CsvMerge();
+                CsvMerge csvMerge = new CsvMerge(propertyReader);
                 csvMerge.run();
                 break;
 
@@ -62,7 +76,7 @@ public final class QaSonar {
                 break;
 
             case LIST_PROJECTS:
-                ListProjects listProjects = new ListProjects(propertyReader);
+                ListProjects listProjects = new ListProjects(propertyReader, restClient);
                 listProjects.run();
                 break;
 
@@ -71,13 +85,33 @@ public final class QaSonar {
                 listPullRequests.run();
                 break;
 
+            case DAEMON:
+                Daemon daemon = new Daemon(propertyReader, restClient);
+                daemon.run();
+                break;
+
             case PULL_REQUESTS:
-                PullRequests pullRequests = new PullRequests(propertyReader, commandLineOptions);
-                pullRequests.run();
+            case MULTI_REPOSITORY:
+                runPullRequests(propertyReader, restClient, commandLineOptions, args);
                 break;
 
             default:
                 throw new IllegalStateException("Unwanted command line action: " + commandLineOptions.getAction());
         }
     }
+
+    private static void runPullRequests(PropertyReader propertyReader, RestClient restClient,
+                                        CommandLineOptions commandLineOptions, String[] args) throws IOException {
+        if (runOnDaemon(propertyReader, args)) {
+            return;
+        }
+        if (commandLineOptions.getAction() == CommandLineAction.MULTI_REPOSITORY) {
+            MultiRepositoryPullRequests multiRepositoryPullRequests = new MultiRepositoryPullRequests(propertyReader,
+                    commandLineOptions);
+            multiRepositoryPullRequests.run(restClient);
+        } else {
+            PullRequests pullRequests = new PullRequests(propertyReader, commandLineOptions);
+            pullRequests.run(restClient);
+        }
+    }
 }
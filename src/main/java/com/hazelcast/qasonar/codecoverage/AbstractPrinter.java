@@ -20,9 +20,12 @@ import com.hazelcast.qasonar.utils.CommandLineOptions;
 import com.hazelcast.utils.GitHubStatus;
 import com.hazelcast.utils.PropertyReader;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
-import java.util.SortedSet;
-import java.util.TreeSet;
+import java.util.SortedMap;
 
 import static com.hazelcast.utils.DebugUtils.debug;
 import static com.hazelcast.utils.Utils.formatCoverage;
@@ -41,7 +44,7 @@ abstract class AbstractPrinter {
     static final int COMMENT_WIDTH = 25;
 
     private final Map<Integer, PullRequestStatus> pullRequests;
-    private final Map<String, FileContainer> files;
+    private final SortedMap<String, FileContainer> files;
     private final PropertyReader props;
     private final CommandLineOptions commandLineOptions;
 
@@ -49,19 +52,10 @@ abstract class AbstractPrinter {
     private final String separator;
     private final boolean isPlainOutput;
 
-    private double addedCoverageMin;
-    private double addedCoverageMax;
-    private double addedCoverageSum;
-    private int addedCoverageFileCount;
-    private int addedCoveragePassedFileCount;
+    private final CoverageStatistics addedCoverage = new CoverageStatistics();
+    private final CoverageStatistics modifiedCoverage = new CoverageStatistics();
 
-    private double modifiedCoverageMin;
-    private double modifiedCoverageMax;
-    private double modifiedCoverageSum;
-    private int modifiedCoverageFileCount;
-    private int modifiedCoveragePassedFileCount;
-
-    AbstractPrinter(Map<Integer, PullRequestStatus> pullRequests, Map<String, FileContainer> files, PropertyReader props,
+    AbstractPrinter(Map<Integer, PullRequestStatus> pullRequests, SortedMap<String, FileContainer> files, PropertyReader props,
                     CommandLineOptions commandLineOptions, String spacer, String separator, boolean isPlainOutput) {
         this.pullRequests = pullRequests;
         this.files = files;
@@ -70,43 +64,35 @@ abstract class AbstractPrinter {
         this.spacer = spacer;
         this.separator = separator;
         this.isPlainOutput = isPlainOutput;
-
-        this.addedCoverageMin = Double.MAX_VALUE;
-        this.addedCoverageMax = Double.MIN_VALUE;
-
-        this.modifiedCoverageMin = Double.MAX_VALUE;
-        this.modifiedCoverageMax = Double.MIN_VALUE;
     }
 
-    StringBuilder run() {
-        StringBuilder sb = new StringBuilder();
-        addHeader(sb);
+    // the rows are streamed to the writer, so the report is never kept in memory
+    void run(Writer out) throws IOException {
+        addHeader(out);
 
-        int qaCheckPassCount = appendFileContainer(sb);
-        addFooter(sb);
-        appendSummary(sb, qaCheckPassCount);
-
-        return sb;
+        int qaCheckPassCount = appendFileContainer(out);
+        addFooter(out);
+        appendSummary(out, qaCheckPassCount);
+        out.flush();
     }
 
-    abstract void addHeader(StringBuilder sb);
+    abstract void addHeader(Writer out) throws IOException;
 
-    abstract void addFooter(StringBuilder sb);
+    abstract void addFooter(Writer out) throws IOException;
 
     PropertyReader getProps() {
         return props;
     }
 
-    CommandLineOptions getCommandLineOptions() {
-        return commandLineOptions;
+    // the PRs are in the order of the analysis, which is the order of the command line
+    List<Integer> getPullRequests() {
+        return new ArrayList<>(pullRequests.keySet());
     }
 
-    private int appendFileContainer(StringBuilder sb) {
+    private int appendFileContainer(Writer out) throws IOException {
         boolean printFailsOnly = commandLineOptions.printFailsOnly();
         int qaCheckPassCount = 0;
-        SortedSet<String> keys = new TreeSet<>(files.keySet());
-        for (String key : keys) {
-            FileContainer fileContainer = files.get(key);
+        for (FileContainer fileContainer : files.values()) {
             if (fileContainer.qaCheck) {
                 qaCheckPassCount++;
             }
@@ -116,25 +102,28 @@ abstract class AbstractPrinter {
             if (printFailsOnly && fileContainer.qaCheck) {
                 continue;
             }
-
-            sb.append("|").append(spacer);
-            sb.append(formatSonarQubeLink(props, fileContainer.resourceId, isPlainOutput));
-            sb.append(separator).append(formatPullRequestLinks(props, fileContainer.pullRequests, isPlainOutput));
-            sb.append(separator).append(fileContainer.author);
-            sb.append(separator).append(formatFileName(fileContainer.fileName, isPlainOutput, FILE_NAME_WIDTH));
-            sb.append(separator).append(formatGitHubStatus(fileContainer.status, isPlainOutput));
-            sb.append(separator).append(formatGitHubChanges(fileContainer.gitHubAdditions, "+", isPlainOutput));
-            sb.append(separator).append(formatGitHubChanges(fileContainer.gitHubDeletions, "-", isPlainOutput));
-            sb.append(separator).append(formatCoverage(fileContainer.coverage, isPlainOutput));
-            sb.append(separator).append(formatCoverage(fileContainer.lineCoverage, isPlainOutput));
-            sb.append(separator).append(formatCoverage(fileContainer.branchCoverage, isPlainOutput));
-            sb.append(separator).append(formatNullable(fileContainer.comment, " ", isPlainOutput, COMMENT_WIDTH));
-            sb.append(separator).append(fileContainer.qaCheck ? " OK " : "FAIL");
-            sb.append(spacer).append("|\n");
+            appendRow(out, fileContainer);
         }
         return qaCheckPassCount;
     }
 
+    private void appendRow(Writer out, FileContainer fileContainer) throws IOException {
+        out.append("|").append(spacer);
+        out.append(formatSonarQubeLink(props, fileContainer.resourceId, isPlainOutput));
+        out.append(separator).append(formatPullRequestLinks(props, fileContainer.pullRequests, isPlainOutput));
+        out.append(separator).append(fileContainer.author);
+        out.append(separator).append(formatFileName(fileContainer.fileName, isPlainOutput, FILE_NAME_WIDTH));
+        out.append(separator).append(formatGitHubStatus(fileContainer.status, isPlainOutput));
+        out.append(separator).append(formatGitHubChanges(fileContainer.gitHubAdditions, "+", isPlainOutput));
+        out.append(separator).append(formatGitHubChanges(fileContainer.gitHubDeletions, "-", isPlainOutput));
+        out.append(separator).append(formatCoverage(fileContainer.coverage, isPlainOutput));
+        out.append(separator).append(formatCoverage(fileContainer.lineCoverage, isPlainOutput));
+        out.append(separator).append(formatCoverage(fileContainer.branchCoverage, isPlainOutput));
+        out.append(separator).append(formatNullable(fileContainer.comment, " ", isPlainOutput, COMMENT_WIDTH));
+        out.append(separator).append(fileContainer.qaCheck ? " OK " : "FAIL");
+        out.append(spacer).append("|\n");
+    }
+
     private void calculateCoverage(FileContainer fileContainer) {
         if (!fileContainer.isForCoverageCalculation()) {
             return;
@@ -142,33 +131,13 @@ abstract class AbstractPrinter {
 
         double fileCoverage = fileContainer.getCoverageForCalculation();
         if (fileContainer.status == GitHubStatus.ADDED) {
-            if (fileCoverage < addedCoverageMin) {
-                addedCoverageMin = fileCoverage;
-            }
-            if (fileCoverage > addedCoverageMax) {
-                addedCoverageMax = fileCoverage;
-            }
-            addedCoverageSum += fileCoverage;
-            addedCoverageFileCount++;
-            if (fileContainer.qaCheck) {
-                addedCoveragePassedFileCount++;
-            }
+            addedCoverage.add(fileCoverage, fileContainer.qaCheck);
         } else {
-            if (fileCoverage < modifiedCoverageMin) {
-                modifiedCoverageMin = fileCoverage;
-            }
-            if (fileCoverage > modifiedCoverageMax) {
-                modifiedCoverageMax = fileCoverage;
-            }
-            modifiedCoverageSum += fileCoverage;
-            modifiedCoverageFileCount++;
-            if (fileContainer.qaCheck) {
-                modifiedCoveragePassedFileCount++;
-            }
+            modifiedCoverage.add(fileCoverage, fileContainer.qaCheck);
         }
     }
 
-    private void appendSummary(StringBuilder sb, int qaCheckPassCount) {
+    private void appendSummary(Writer out, int qaCheckPassCount) throws IOException {
         int totalCount = files.size();
         double minCodeCoverage = props.getMinCodeCoverage(GitHubStatus.ADDED);
         StringBuilder summary = new StringBuilder();
@@ -181,21 +150,21 @@ abstract class AbstractPrinter {
             summary.append(" (").append(minCodeCoverageModified).append("% for modified files)");
         }
 
-        if (addedCoverageFileCount > 0) {
-            double addedCoverage = addedCoverageSum / addedCoverageFileCount;
-            summary.append(format("%nCoverage on added files: %.1f%% avg, %.1f%% min, %.1f%% max (%d/%d files)",
-                    addedCoverage, addedCoverageMin, addedCoverageMax, addedCoveragePassedFileCount, addedCoverageFileCount));
-        }
-        if (modifiedCoverageFileCount > 0) {
-            double modifiedCoverage = modifiedCoverageSum / modifiedCoverageFileCount;
-            summary.append(format("%nCoverage on modified files: %.1f%% avg, %.1f%% min, %.1f%% max (%d/%d files)",
-                    modifiedCoverage, modifiedCoverageMin, modifiedCoverageMax, modifiedCoveragePassedFileCount,
-                    modifiedCoverageFileCount));
-        }
+        appendCoverage(summary, "added", addedCoverage);
+        appendCoverage(summary, "modified", modifiedCoverage);
         appendUnmergedPRs(summary);
 
-        debug(summary.toString());
-        sb.append(summary);
+        String summaryString = summary.toString();
+        debug(summaryString);
+        out.write(summaryString);
+    }
+
+    private static void appendCoverage(StringBuilder summary, String type, CoverageStatistics statistics) {
+        if (statistics.getFileCount() > 0) {
+            summary.append(format("%nCoverage on %s files: %.1f%% avg, %.1f%% min, %.1f%% max (%d/%d files)", type,
+                    statistics.getAverage(), statistics.getMin(), statistics.getMax(), statistics.getPassedFileCount(),
+                    statistics.getFileCount()));
+        }
     }
 
     private void appendUnmergedPRs(StringBuilder summary) {
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.qasonar.codecoverage;
+
+import org.eclipse.jgit.diff.Edit;
+
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static java.lang.Integer.parseInt;
+import static java.util.Arrays.copyOf;
+
+// the edits are stored as flat array of [oldStart, oldEnd, newStart, newEnd) with 1-based line numbers
+final class ChangedLines {
+
+    private static final Pattern HUNK_HEADER = Pattern.compile("^@@ -(\\d+)(?:,\\d+)? \\+(\\d+)(?:,\\d+)? @@");
+
+    private static final int EDIT_SIZE = 4;
+    private static final int OLD_START = 0;
+    private static final int OLD_END = 1;
+    private static final int NEW_START = 2;
+    private static final int NEW_END = 3;
+
+    private ChangedLines() {
+    }
+
+    static int[] fromPatch(String patch) {
+        EditBuilder builder = new EditBuilder();
+        for (String line : patch.split("\n")) {
+            Matcher matcher = HUNK_HEADER.matcher(line);
+            if (matcher.find()) {
+                builder.closeEdit();
+                builder.oldLine = parseInt(matcher.group(1));
+                builder.newLine = parseInt(matcher.group(2));
+            } else if (line.startsWith("-")) {
+                builder.openEdit();
+                builder.oldLine++;
+            } else if (line.startsWith("+")) {
+                builder.openEdit();
+                builder.newLine++;
+            } else if (!line.startsWith("\\")) {
+                builder.closeEdit();
+                builder.oldLine++;
+                builder.newLine++;
+            }
+        }
+        builder.closeEdit();
+        return builder.toArray();
+    }
+
+    static int[] fromEdits(List<Edit> edits) {
+        int[] result = new int[edits.size() * EDIT_SIZE];
+        int index = 0;
+        for (Edit edit : edits) {
+            result[index++] = edit.getBeginA() + 1;
+            result[index++] = edit.getEndA() + 1;
+            result[index++] = edit.getBeginB() + 1;
+            result[index++] = edit.getEndB() + 1;
+        }
+        return result;
+    }
+
+    // moves the changed lines of former PRs to the line numbers after the given edits and adds the new lines
+    static SortedSet<Integer> apply(SortedSet<Integer> changedLines, int[] edits) {
+        SortedSet<Integer> result = new TreeSet<>();
+        for (int line : changedLines) {
+            int newLine = moveLine(line, edits);
+            if (newLine > 0) {
+                result.add(newLine);
+            }
+        }
+        for (int index = 0; index < edits.length; index += EDIT_SIZE) {
+            for (int line = edits[index + NEW_START]; line < edits[index + NEW_END]; line++) {
+                result.add(line);
+            }
+        }
+        return result;
+    }
+
+    private static int moveLine(int line, int[] edits) {
+        int shift = 0;
+        for (int index = 0; index < edits.length; index += EDIT_SIZE) {
+            if (line < edits[index + OLD_START]) {
+                break;
+            }
+            if (line < edits[index + OLD_END]) {
+                // the line was replaced, so it's part of the new lines if it's still there
+                return 0;
+            }
+            shift += (edits[index + NEW_END] - edits[index + NEW_START]) - (edits[index + OLD_END] - edits[index + OLD_START]);
+        }
+        return line + shift;
+    }
+
+    private static final class EditBuilder {
+
+        private int[] edits = new int[EDIT_SIZE];
+        private int size;
+
+        private int oldLine;
+        private int newLine;
+        private int oldStart = -1;
+        private int newStart;
+
+        private void openEdit() {
+            if (oldStart == -1) {
+                oldStart = oldLine;
+                newStart = newLine;
+            }
+        }
+
+        private void closeEdit() {
+            if (oldStart == -1) {
+                return;
+            }
+            if (size == edits.length) {
+                edits = copyOf(edits, size * 2);
+            }
+            edits[size + OLD_START] = oldStart;
+            edits[size + OLD_END] = oldLine;
+            edits[size + NEW_START] = newStart;
+            edits[size + NEW_END] = newLine;
+            size += EDIT_SIZE;
+            oldStart = -1;
+        }
+
+        private int[] toArray() {
+            return copyOf(edits, size);
+        }
+    }
+}
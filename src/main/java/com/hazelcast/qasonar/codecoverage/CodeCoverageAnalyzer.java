@@ -19,27 +19,44 @@ package com.hazelcast.qasonar.codecoverage;
 import com.hazelcast.qasonar.utils.WhiteList;
 import com.hazelcast.qasonar.utils.WhiteListResult;
 import com.hazelcast.utils.GitHubStatus;
+import com.hazelcast.utils.JavaType;
 import com.hazelcast.utils.PropertyReader;
 import com.hazelcast.utils.Repository;
+import org.eclipse.jgit.errors.MissingObjectException;
 import org.kohsuke.github.GHRepository;
 
+import java.io.BufferedReader;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
+import static com.hazelcast.qasonar.codecoverage.FileContainer.CoverageType.DIFF;
 import static com.hazelcast.qasonar.codecoverage.FileContainer.CoverageType.IDEA;
 import static com.hazelcast.qasonar.codecoverage.FileContainer.CoverageType.SONAR;
+import static com.hazelcast.qasonar.codecoverage.PullRequestReader.getResult;
 import static com.hazelcast.utils.DebugUtils.debug;
 import static com.hazelcast.utils.DebugUtils.debugGreen;
 import static com.hazelcast.utils.DebugUtils.debugRed;
 import static com.hazelcast.utils.DebugUtils.debugYellow;
 import static com.hazelcast.utils.GitHubStatus.ADDED;
 import static com.hazelcast.utils.GitHubUtils.getFileContentsFromGitHub;
+import static com.hazelcast.utils.JavaTypeClassifier.classify;
 import static com.hazelcast.utils.Repository.fromRepositoryName;
-import static com.hazelcast.utils.Utils.readFromFile;
 import static java.lang.String.format;
-import static java.util.Collections.unmodifiableMap;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.unmodifiableSortedMap;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.Executors.newFixedThreadPool;
 import static org.apache.commons.io.FilenameUtils.getBaseName;
 
 class CodeCoverageAnalyzer {
@@ -47,18 +64,26 @@ class CodeCoverageAnalyzer {
     private static final double MIN_IDEA_COVERAGE_DIFF = 0.5;
     private static final double COVERAGE_MARGIN = 0.01;
 
-    private final Map<String, FileContainer> files;
+    private final SortedMap<String, FileContainer> files;
     private final PropertyReader props;
     private final GHRepository repo;
     private final WhiteList whiteList;
     private final String localGitRoot;
+    private final GitBlobReader gitBlobReader;
+    private final PullRequestStore pullRequestStore;
 
-    CodeCoverageAnalyzer(Map<String, FileContainer> files, PropertyReader props, GHRepository repo, WhiteList whiteList) {
+    private final Map<String, Map<String, JavaType>> storedJavaTypes = new HashMap<>();
+    private final Set<String> updatedMergeCommits = new HashSet<>();
+
+    CodeCoverageAnalyzer(SortedMap<String, FileContainer> files, PropertyReader props, GHRepository repo, WhiteList whiteList)
+            throws IOException {
         this.files = files;
         this.props = props;
         this.repo = repo;
         this.whiteList = whiteList;
         this.localGitRoot = getLocalGitRoot(props, repo);
+        this.gitBlobReader = (localGitRoot == null) ? null : getGitBlobReader(props, repo);
+        this.pullRequestStore = getPullRequestStore(props, repo);
     }
 
     private String getLocalGitRoot(PropertyReader props, GHRepository repo) {
@@ -75,31 +100,117 @@ class CodeCoverageAnalyzer {
         return localGitRoot.getAbsolutePath() + File.separatorChar;
     }
 
-    Map<String, FileContainer> getFiles() {
-        return unmodifiableMap(files);
+    private static GitBlobReader getGitBlobReader(PropertyReader props, GHRepository repo) {
+        try {
+            return GitBlobReader.fromPropertyReader(props, fromRepositoryName(repo.getName()));
+        } catch (IOException e) {
+            debugRed("Could not open local Git repository: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static PullRequestStore getPullRequestStore(PropertyReader props, GHRepository repo) throws IOException {
+        if (props.getPullRequestStoreDirectory() == null || props.getPullRequestStoreDirectory().isEmpty()) {
+            return null;
+        }
+        return PullRequestStore.fromPropertyReader(props, fromRepositoryName(repo.getName()));
+    }
+
+    SortedMap<String, FileContainer> getFiles() {
+        return unmodifiableSortedMap(files);
     }
 
     void run() throws IOException {
-        for (FileContainer fileContainer : files.values()) {
-            String gitFileName = fileContainer.fileName;
+        int parallelism = props.getParallelism();
+        ExecutorService executor = (parallelism > 1) ? newFixedThreadPool(parallelism) : null;
+        try {
+            Map<String, Future<JavaType>> javaTypes = prefetchJavaTypes(executor);
 
-            checkEntryStatus(fileContainer);
-            if (fileContainer.isQaCheckSet()) {
-                continue;
+            // the classification is done in the order of the files, so the QA results equal a sequential run
+            // (the debug output of the prefetched files is logged by the pool threads, so it can be in a different order)
+            for (FileContainer fileContainer : files.values()) {
+                if (fileContainer.isQaCheckSet()) {
+                    continue;
+                }
+
+                checkFileWithoutCoverage(fileContainer, fileContainer.fileName, javaTypes.get(fileContainer.fileName));
+                if (fileContainer.isQaCheckSet()) {
+                    continue;
+                }
+
+                if (props.isDiffCoverage() && fileContainer.diffCoverageLines >= 0) {
+                    checkDiffCoverage(fileContainer);
+                } else {
+                    checkCodeCoverage(fileContainer);
+                }
             }
+            storeJavaTypes();
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+        }
+    }
 
-            checkFileName(fileContainer, gitFileName);
+    private Map<String, Future<JavaType>> prefetchJavaTypes(ExecutorService executor) {
+        Map<String, Future<JavaType>> javaTypes = new HashMap<>();
+        int storedCount = 0;
+        for (FileContainer fileContainer : files.values()) {
+            checkEntryStatus(fileContainer);
             if (fileContainer.isQaCheckSet()) {
                 continue;
             }
 
-            checkFileWithoutCoverage(fileContainer, gitFileName);
-            if (fileContainer.isQaCheckSet()) {
+            checkFileName(fileContainer, fileContainer.fileName);
+            if (fileContainer.isQaCheckSet() || !isWithoutCoverage(fileContainer)) {
                 continue;
             }
+            // the Java type of files, which were not changed by new PRs, is reused from the former run
+            JavaType storedJavaType = getStoredJavaType(fileContainer);
+            if (storedJavaType != null) {
+                javaTypes.put(fileContainer.fileName, completedFuture(storedJavaType));
+                storedCount++;
+            } else if (executor != null) {
+                javaTypes.put(fileContainer.fileName, executor.submit(() -> getJavaType(fileContainer)));
+            }
+        }
+        if (storedCount > 0) {
+            debug("Reusing stored Java types of %d files...", storedCount);
+        }
+        if (javaTypes.size() > storedCount) {
+            debug("Prefetching contents of %d files with a parallelism of %d...", javaTypes.size() - storedCount,
+                    props.getParallelism());
+        }
+        return javaTypes;
+    }
+
+    // just merged PRs are immutable, so the Java types are keyed by their merge commit (which is null for all other PRs)
+    private synchronized JavaType getStoredJavaType(FileContainer fileContainer) {
+        if (pullRequestStore == null || fileContainer.mergeCommitSha == null) {
+            return null;
+        }
+        return storedJavaTypes.computeIfAbsent(fileContainer.mergeCommitSha, pullRequestStore::getJavaTypes)
+                .get(fileContainer.fileName);
+    }
 
-            checkCodeCoverage(fileContainer);
+    private synchronized void addStoredJavaType(FileContainer fileContainer, JavaType javaType) {
+        if (pullRequestStore == null || fileContainer.mergeCommitSha == null) {
+            return;
         }
+        storedJavaTypes.computeIfAbsent(fileContainer.mergeCommitSha, pullRequestStore::getJavaTypes)
+                .put(fileContainer.fileName, javaType);
+        updatedMergeCommits.add(fileContainer.mergeCommitSha);
+    }
+
+    private synchronized void storeJavaTypes() {
+        for (String mergeCommitSha : updatedMergeCommits) {
+            try {
+                pullRequestStore.putJavaTypes(mergeCommitSha, storedJavaTypes.get(mergeCommitSha));
+            } catch (IOException e) {
+                debugRed("Could not store Java types of merge commit %s: %s", mergeCommitSha, e.getMessage());
+            }
+        }
+        updatedMergeCommits.clear();
     }
 
     private void checkEntryStatus(FileContainer fileContainer) {
@@ -144,18 +255,14 @@ class CodeCoverageAnalyzer {
     }
 
     @SuppressWarnings("checkstyle:npathcomplexity")
-    private void checkFileWithoutCoverage(FileContainer fileContainer, String gitFileName) {
-        if (fileContainer.coverage != null || fileContainer.ideaCoverage > COVERAGE_MARGIN) {
+    private void checkFileWithoutCoverage(FileContainer fileContainer, String gitFileName, Future<JavaType> future) {
+        if (!isWithoutCoverage(fileContainer)) {
             return;
         }
 
-        String fileContents;
+        JavaType javaType;
         try {
-            if (localGitRoot == null) {
-                fileContents = getFileContentsFromGitHub(repo, gitFileName);
-            } else {
-                fileContents = readFromFile(localGitRoot + gitFileName);
-            }
+            javaType = (future == null) ? getJavaType(fileContainer) : getResult(future);
         } catch (FileNotFoundException ignored) {
             fileContainer.pass("deleted in newer PR");
             return;
@@ -165,18 +272,18 @@ class CodeCoverageAnalyzer {
             return;
         }
 
-        String baseName = getBaseName(gitFileName);
-        if (fileContents.contains("@interface " + baseName)) {
-            fileContainer.pass("Annotation");
-            return;
-        }
-        if (fileContents.contains("interface " + baseName)) {
-            fileContainer.pass("Interface");
-            return;
-        }
-        if (fileContents.contains("enum " + baseName)) {
-            fileContainer.pass("Enum");
-            return;
+        switch (javaType) {
+            case ANNOTATION:
+                fileContainer.pass("Annotation");
+                return;
+            case INTERFACE:
+                fileContainer.pass("Interface");
+                return;
+            case ENUM:
+                fileContainer.pass("Enum");
+                return;
+            default:
+                break;
         }
 
         if (isBelowMinThresholdModified(fileContainer)) {
@@ -190,6 +297,30 @@ class CodeCoverageAnalyzer {
         debugRed("Failed with code coverage not found %s", gitFileName);
     }
 
+    private JavaType getJavaType(FileContainer fileContainer) throws IOException {
+        String gitFileName = fileContainer.fileName;
+        String baseName = getBaseName(gitFileName);
+        if (localGitRoot == null) {
+            return classify(getFileContentsFromGitHub(repo, gitFileName), baseName);
+        }
+        // the blob at the merge commit of the PR is independent from the checked out working tree
+        if (gitBlobReader != null && fileContainer.mergeCommitSha != null) {
+            try {
+                JavaType javaType = classify(gitBlobReader.readFileContents(fileContainer.mergeCommitSha, gitFileName), baseName);
+                // just the type at the merge commit belongs to the PR, so the GitHub HEAD and working tree are not stored
+                addStoredJavaType(fileContainer, javaType);
+                return javaType;
+            } catch (MissingObjectException e) {
+                debugYellow("Merge commit %s is not in the local Git repository (using working tree)!",
+                        fileContainer.mergeCommitSha);
+            }
+        }
+        // the classifier stops reading as soon as the type declaration is found
+        try (Reader reader = new BufferedReader(new InputStreamReader(new FileInputStream(localGitRoot + gitFileName), UTF_8))) {
+            return classify(reader, baseName);
+        }
+    }
+
     @SuppressWarnings("checkstyle:npathcomplexity")
     private void checkCodeCoverage(FileContainer fileContainer) {
         double minCodeCoverage = props.getMinCodeCoverage(fileContainer.status);
@@ -227,6 +358,40 @@ class CodeCoverageAnalyzer {
                 fileContainer.fileName);
     }
 
+    private void checkDiffCoverage(FileContainer fileContainer) {
+        if (fileContainer.diffCoverageLines == 0) {
+            fileContainer.pass("no executable changed lines");
+            return;
+        }
+
+        double minCodeCoverage = props.getMinCodeCoverage(fileContainer.status);
+        double diffCoverage = fileContainer.numericDiffCoverage;
+        int lines = fileContainer.diffCoverageLines;
+        fileContainer.useForCoverageCalculation(DIFF);
+        if (diffCoverage >= minCodeCoverage) {
+            fileContainer.pass(format("diff coverage: %.1f%% of %d lines", diffCoverage, lines));
+            debugGreen("Passed with code coverage %5.1f%% (Diff ) %s (%d changed lines)", diffCoverage, fileContainer.fileName,
+                    lines);
+            return;
+        }
+
+        double diff = diffCoverage - minCodeCoverage;
+        if (isBelowMinThresholdModified(fileContainer)) {
+            fileContainer.pass(format("under threshold with %d changed lines\ncode coverage %.1f%% (%.1f%%) (Diff)",
+                    fileContainer.gitHubChanges, diffCoverage, diff));
+            debugGreen("Passed with code coverage %5.1f%% (%6.1f%%) (Diff ) %s (%d lines changed below threshold)", diffCoverage,
+                    diff, fileContainer.fileName, fileContainer.gitHubChanges);
+            return;
+        }
+
+        fileContainer.fail(format("code coverage %.1f%% (%.1f%%) (Diff) of %d changed lines", diffCoverage, diff, lines));
+        debugYellow("Failed with code coverage %5.1f%% (%6.1f%%) (Diff ) %s", diffCoverage, diff, fileContainer.fileName);
+    }
+
+    private boolean isWithoutCoverage(FileContainer fileContainer) {
+        return (fileContainer.coverage == null && fileContainer.ideaCoverage <= COVERAGE_MARGIN);
+    }
+
     private boolean isIdeaCoverageSignificantlyHigher(FileContainer fileContainer) {
         return (fileContainer.ideaCoverage > fileContainer.numericLineCoverage + MIN_IDEA_COVERAGE_DIFF);
     }
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.qasonar.codecoverage;
+
+import com.hazelcast.qasonar.utils.WhiteList;
+import com.hazelcast.utils.GitHubUtils;
+import com.hazelcast.utils.PropertyReader;
+import com.hazelcast.utils.RestClient;
+import org.kohsuke.github.GHRepository;
+import org.kohsuke.github.GitHub;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static com.hazelcast.qasonar.utils.WhiteListBuilder.fromJsonFile;
+import static com.hazelcast.qasonar.utils.WhiteListBuilder.getLastModified;
+import static com.hazelcast.utils.DebugUtils.debug;
+import static com.hazelcast.utils.GitHubUtils.getGitHub;
+
+// keeps the state which can be shared by multiple code coverage runs, e.g. of multiple repositories or in the daemon
+public class CodeCoverageContext {
+
+    private final ConcurrentMap<String, GHRepository> repositories = new ConcurrentHashMap<>();
+
+    private final GitHub gitHub;
+    private final JsonDownloader jsonDownloader;
+
+    private WhiteList whiteList;
+    private long whiteListLastModified;
+
+    private CodeCoverageReader resourceReader;
+    private boolean resourceReaderBulkMetrics;
+    private long resourcesPopulatedMillis;
+
+    public CodeCoverageContext(PropertyReader propertyReader, RestClient restClient) throws IOException {
+        getWhiteList();
+
+        debug("Connecting to GitHub...");
+        this.gitHub = getGitHub(propertyReader);
+
+        this.jsonDownloader = new JsonDownloader(propertyReader, restClient);
+    }
+
+    // the whitelist is parsed again when it was changed, so the daemon uses the same entries as a run without it
+    synchronized WhiteList getWhiteList() {
+        long lastModified = getLastModified();
+        if (whiteList == null || lastModified != whiteListLastModified) {
+            debug("Parsing whitelist...");
+            whiteList = fromJsonFile();
+            whiteListLastModified = lastModified;
+        }
+        return whiteList;
+    }
+
+    JsonDownloader getJsonDownloader() {
+        return jsonDownloader;
+    }
+
+    GHRepository getGitHubRepository(String repositoryName) {
+        return repositories.computeIfAbsent(repositoryName, name -> GitHubUtils.getGitHubRepository(gitHub, name));
+    }
+
+    // the resources contain all configured projects, so they are read once and shared until they expire
+    synchronized void populateResources(CodeCoverageReader reader, PropertyReader props) throws IOException {
+        if (resourceReader != null && !isExpired(props)) {
+            reader.shareResources(resourceReader);
+            return;
+        }
+        debug("Reading SonarQube resources...");
+        reader.populateResources();
+        resourceReader = reader;
+        resourceReaderBulkMetrics = props.isBulkMetrics();
+        resourcesPopulatedMillis = System.currentTimeMillis();
+    }
+
+    synchronized void invalidateResources() {
+        resourceReader = null;
+    }
+
+    private boolean isExpired(PropertyReader props) {
+        return props.isBulkMetrics() != resourceReaderBulkMetrics
+                || System.currentTimeMillis() - resourcesPopulatedMillis > props.getResourceIndexTtlMillis();
+    }
+}
@@ -20,17 +20,26 @@ import com.hazelcast.qasonar.utils.CommandLineOptions;
 import com.hazelcast.utils.PropertyReader;
 
 import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Paths;
 import java.util.Map;
+import java.util.SortedMap;
 
-import static com.hazelcast.utils.DebugUtils.print;
-import static com.hazelcast.utils.Utils.writeToFile;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.Files.newBufferedWriter;
 
 class CodeCoveragePrinter {
 
+    private final Map<Integer, PullRequestStatus> pullRequests;
+    private final SortedMap<String, FileContainer> files;
+    private final PropertyReader props;
     private final AbstractPrinter printer;
 
-    CodeCoveragePrinter(Map<Integer, PullRequestStatus> pullRequests, Map<String, FileContainer> files,
+    CodeCoveragePrinter(Map<Integer, PullRequestStatus> pullRequests, SortedMap<String, FileContainer> files,
                                PropertyReader props, CommandLineOptions cliOptions) {
+        this.pullRequests = pullRequests;
+        this.files = files;
+        this.props = props;
         if (cliOptions.isPlainOutput()) {
             printer = new PlainPrinter(pullRequests, files, props, cliOptions);
         } else {
@@ -38,12 +47,31 @@ class CodeCoveragePrinter {
         }
     }
 
-    void run() throws IOException {
-        String outputFile = printer.getProps().getOutputFile();
+    // the report is written to the output file or to the given writer
+    void run(Writer stdout) throws IOException {
+        try (StructuredOutputWriter structuredOutputWriter = StructuredOutputWriter.fromPropertyReader(props)) {
+            if (structuredOutputWriter != null) {
+                print(structuredOutputWriter);
+            }
+        }
+
+        String outputFile = props.getOutputFile();
         if (outputFile != null) {
-            writeToFile(outputFile, printer.run());
+            try (Writer writer = newBufferedWriter(Paths.get(outputFile), UTF_8)) {
+                print(writer);
+            }
         } else {
-            print(printer.run().toString());
+            print(stdout);
+            stdout.write(System.lineSeparator());
+            stdout.flush();
         }
     }
+
+    void print(Writer writer) throws IOException {
+        printer.run(writer);
+    }
+
+    void print(StructuredOutputWriter structuredOutputWriter) throws IOException {
+        structuredOutputWriter.write(props, pullRequests, files);
+    }
 }
@@ -19,68 +19,80 @@ package com.hazelcast.qasonar.codecoverage;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.hazelcast.qasonar.ideaconverter.IdeaCoverageIndex;
 import com.hazelcast.utils.GitHubStatus;
 import com.hazelcast.utils.PropertyReader;
 import com.hazelcast.utils.Repository;
 import com.hazelcast.utils.TimeTrackerLabel;
-import org.kohsuke.github.GHPullRequest;
-import org.kohsuke.github.GHPullRequestFileDetail;
 import org.kohsuke.github.GHRepository;
 
 import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import static com.hazelcast.qasonar.codecoverage.PullRequestReader.getResult;
 import static com.hazelcast.qasonar.ideaconverter.IdeaConverter.OUTPUT_FILENAME;
+import static com.hazelcast.qasonar.ideaconverter.IdeaCoverageIndex.INDEX_FILENAME;
 import static com.hazelcast.utils.DebugUtils.debug;
 import static com.hazelcast.utils.DebugUtils.debugRed;
 import static com.hazelcast.utils.DebugUtils.debugYellow;
 import static com.hazelcast.utils.DebugUtils.printRed;
 import static com.hazelcast.utils.GitHubStatus.ADDED_RENAMED;
 import static com.hazelcast.utils.GitHubStatus.RENAMED;
-import static com.hazelcast.utils.GitHubUtils.getAuthor;
-import static com.hazelcast.utils.GitHubUtils.getPullRequest;
-import static com.hazelcast.utils.GitHubUtils.getPullRequestFiles;
-import static com.hazelcast.utils.GitHubUtils.isClosed;
-import static com.hazelcast.utils.GitHubUtils.isMerged;
 import static com.hazelcast.utils.Repository.fromRepositoryName;
-import static com.hazelcast.utils.Utils.findModuleName;
+import static java.lang.Integer.parseInt;
 import static java.lang.String.format;
 import static java.nio.file.Files.exists;
 import static java.nio.file.Files.readAllLines;
+import static java.nio.file.Files.readAttributes;
 import static java.util.Collections.unmodifiableMap;
+import static java.util.Collections.unmodifiableSortedMap;
+import static java.util.concurrent.Executors.newFixedThreadPool;
 import static java.util.regex.Pattern.compile;
 import static org.apache.commons.io.FilenameUtils.getBaseName;
 
 class CodeCoverageReader {
 
     private static final String METRICS_LIST = "coverage,line_coverage,branch_coverage";
+    private static final String LINE_HITS_METRIC = "coverage_line_hits_data";
     private static final Pattern CLASS_PATTERN = compile(".* class ([^< ]+) .*");
 
-    private final Map<String, Map<String, String>> resources = new HashMap<>();
     private final Map<String, Double> ideaCoverage = new HashMap<>();
-    private final Map<String, FileContainer> files = new HashMap<>();
-    private final Map<Integer, PullRequestStatus> pullRequests = new HashMap<>();
+    private IdeaCoverageIndex ideaCoverageIndex;
+    // the files are sorted by name for the report
+    private final SortedMap<String, FileContainer> files = new TreeMap<>();
+    private final Map<Integer, PullRequestStatus> pullRequests = new LinkedHashMap<>();
+    private final Map<String, JsonArray> prefetchedMetrics = new HashMap<>();
+    private Map<String, JsonArray> bulkMetrics = new HashMap<>();
 
     private final PropertyReader props;
-    private final GHRepository repo;
     private final Repository repository;
     private final JsonDownloader jsonDownloader;
+    private final PullRequestReader pullRequestReader;
 
-    CodeCoverageReader(PropertyReader propertyReader, GHRepository repo, JsonDownloader jsonDownloader) {
+    private ResourceIndex resources = new ResourceIndex();
+    private boolean resourcesPopulated;
+
+    CodeCoverageReader(PropertyReader propertyReader, GHRepository repo, JsonDownloader jsonDownloader) throws IOException {
         this.props = propertyReader;
-        this.repo = repo;
         this.repository = fromRepositoryName(repo.getName());
         this.jsonDownloader = jsonDownloader;
+        this.pullRequestReader = new PullRequestReader(propertyReader, repo, repository);
     }
 
-    Map<String, FileContainer> getFiles() {
-        return unmodifiableMap(files);
+    SortedMap<String, FileContainer> getFiles() {
+        return unmodifiableSortedMap(files);
     }
 
     Map<Integer, PullRequestStatus> getPullRequests() {
@@ -88,12 +100,31 @@ class CodeCoverageReader {
     }
 
     void run(List<Integer> pullRequests) throws IOException {
-        populateResourcesMap();
+        populateResources();
         populateIdeaCoverage();
 
-        for (Integer pullRequest : pullRequests) {
-            debug("Adding pull request %d...", pullRequest);
-            addPullRequest(pullRequest);
+        int parallelism = props.getParallelism();
+        List<PullRequestData> pullRequestDataList;
+        if (parallelism > 1) {
+            debug("Reading %d pull requests with a parallelism of %d...", pullRequests.size(), parallelism);
+            ExecutorService executor = newFixedThreadPool(parallelism);
+            try {
+                pullRequestDataList = pullRequestReader.readPullRequests(pullRequests, executor);
+                prefetchResourceMetrics(executor, pullRequestDataList);
+            } finally {
+                executor.shutdownNow();
+            }
+        } else {
+            pullRequestDataList = pullRequestReader.readPullRequests(pullRequests, null);
+        }
+
+        // the merge is done in the order of the given pull requests, so the result equals a sequential run
+        for (PullRequestData pullRequestData : pullRequestDataList) {
+            debug("Adding pull request %d...", pullRequestData.getGitPullRequest());
+            addPullRequest(pullRequestData);
+        }
+        if (props.isDiffCoverage()) {
+            files.values().forEach(FileContainer::calculateDiffCoverage);
         }
 
         checkOldFilenames();
@@ -104,26 +135,66 @@ class CodeCoverageReader {
         ideaCoverage.put(fileName, coverage);
     }
 
+    // the resources contain all configured projects, so the readers of multiple repositories can share them
+    void shareResources(CodeCoverageReader reader) {
+        resources = reader.resources;
+        bulkMetrics = reader.bulkMetrics;
+        resourcesPopulated = true;
+    }
+
+    void populateResources() throws IOException {
+        if (!resourcesPopulated) {
+            populateResourcesMap();
+            resourcesPopulated = true;
+        }
+    }
+
     private void populateResourcesMap() throws IOException {
+        boolean isBulkMetrics = props.isBulkMetrics();
+        // the bulk metrics are read with the resource tree, so there is nothing to gain from a snapshot
+        Path snapshotPath = isBulkMetrics ? null : ResourceIndex.getSnapshotPathOrNull(props);
+        if (snapshotPath != null && !props.isFullRun()) {
+            ResourceIndex snapshot = ResourceIndex.readSnapshotOrNull(snapshotPath, props.getResourceIndexTtlMillis());
+            if (snapshot != null) {
+                resources = snapshot;
+                debug("Loaded %d file resources from %s...", resources.size(), snapshotPath);
+                return;
+            }
+        }
+
         for (String resourceId : props.getProjectResourceIds()) {
-            String query = format("https://%s/api/resources?format=json&resource=%s&depth=-1", props.getHost(), resourceId);
-            JsonArray array = jsonDownloader.getJsonArrayFromQuery(TimeTrackerLabel.GET_RESOURCES, query);
-            for (JsonElement jsonElement : array) {
-                JsonObject resource = jsonElement.getAsJsonObject();
-                if (!"FIL".equals(resource.get("scope").getAsString())) {
-                    continue;
-                }
+            int fileResources;
+            if (isBulkMetrics) {
+                String query = format("https://%s/api/resources?format=json&resource=%s&depth=-1&metrics=%s", props.getHost(),
+                        resourceId, METRICS_LIST);
+                fileResources = jsonDownloader.readFileResources(TimeTrackerLabel.GET_RESOURCES_WITH_METRICS, query,
+                        this::addFileResourceWithMetrics);
+            } else {
+                String query = format("https://%s/api/resources?format=json&resource=%s&depth=-1", props.getHost(), resourceId);
+                fileResources = jsonDownloader.readFileResources(TimeTrackerLabel.GET_RESOURCES, query, this::addFileResource);
+            }
+            debug("Added %d file resources of project %s...", fileResources, resourceId);
+        }
+        if (snapshotPath != null) {
+            resources.writeSnapshot(snapshotPath);
+        }
+    }
 
-                String module = findModuleName(resource.get("key").getAsString(), ":");
-                String mapKey = resource.get("lname").getAsString();
-                mapKey = mapKey.substring(mapKey.indexOf("src/"));
+    private void addFileResource(FileResource fileResource) {
+        resources.put(fileResource.getModule(), fileResource.getPath(), Integer.parseInt(fileResource.getId()));
+    }
 
-                if (!resources.containsKey(module)) {
-                    resources.put(module, new HashMap<>());
-                }
-                resources.get(module).put(mapKey, resource.get("id").getAsString());
-            }
+    private void addFileResourceWithMetrics(FileResource fileResource) {
+        addFileResource(fileResource);
+
+        // we just keep the metrics, so the per-file lookup returns the same data as a GET_RESOURCE_METRICS query
+        JsonObject metricsResource = new JsonObject();
+        if (fileResource.getMetrics() != null) {
+            metricsResource.add("msr", fileResource.getMetrics());
         }
+        JsonArray array = new JsonArray();
+        array.add(metricsResource);
+        bulkMetrics.put(fileResource.getId(), array);
     }
 
     private void populateIdeaCoverage() throws IOException {
@@ -132,6 +203,24 @@ class CodeCoverageReader {
             return;
         }
 
+        // the binary index is just used if it was written from this CSV file, which is the source of truth
+        Path indexPath = Paths.get(INDEX_FILENAME);
+        if (exists(indexPath)) {
+            try {
+                IdeaCoverageIndex index = IdeaCoverageIndex.open(indexPath, repository.getRepositoryName());
+                BasicFileAttributes csvAttributes = readAttributes(path, BasicFileAttributes.class);
+                if (index.getCsvSize() == csvAttributes.size()
+                        && index.getCsvLastModified() == csvAttributes.lastModifiedTime().toMillis()) {
+                    ideaCoverageIndex = index;
+                    debug("Using %d classes from IDEA coverage index...", ideaCoverageIndex.size());
+                    return;
+                }
+                debugYellow("IDEA coverage index %s was not written from %s (using CSV file)", indexPath, path);
+            } catch (IOException e) {
+                debugRed("Could not read IDEA coverage index %s: %s", indexPath, e.getMessage());
+            }
+        }
+
         List<String> lines = readAllLines(path);
         for (String line : lines) {
             String[] lineArray = line.split(";");
@@ -146,15 +235,31 @@ class CodeCoverageReader {
         debug("Added %d/%d classes from IDEA coverage report...", ideaCoverage.size(), lines.size());
     }
 
-    private void addPullRequest(int gitPullRequest) throws IOException {
-        String author = getAuthor(repo, gitPullRequest);
+    private void prefetchResourceMetrics(ExecutorService executor, List<PullRequestData> pullRequestDataList)
+            throws IOException {
+        Map<String, Future<JsonArray>> metricsFutures = new LinkedHashMap<>();
+        for (PullRequestData pullRequestData : pullRequestDataList) {
+            for (PullRequestFile pullRequestFile : pullRequestData.getPullRequestFiles()) {
+                String resourceId = getResourceIdOrNull(getFileNameWithDefaultModule(pullRequestFile.getFilename()));
+                if (resourceId != null && isDownloadNeeded(resourceId) && !metricsFutures.containsKey(resourceId)) {
+                    metricsFutures.put(resourceId, executor.submit(() -> downloadResourceMetrics(resourceId)));
+                }
+            }
+        }
+        debug("Reading metrics of %d resources...", metricsFutures.size());
+        for (Map.Entry<String, Future<JsonArray>> entry : metricsFutures.entrySet()) {
+            prefetchedMetrics.put(entry.getKey(), getResult(entry.getValue()));
+        }
+    }
 
-        GHPullRequest pullRequest = getPullRequest(repo, gitPullRequest);
-        if (!checkPullRequestState(gitPullRequest, pullRequest)) {
+    private void addPullRequest(PullRequestData pullRequestData) throws IOException {
+        int gitPullRequest = pullRequestData.getGitPullRequest();
+        String author = pullRequestData.getAuthor();
+        if (!checkPullRequestState(gitPullRequest, pullRequestData.getStatus())) {
             return;
         }
 
-        for (GHPullRequestFileDetail pullRequestFile : getPullRequestFiles(pullRequest)) {
+        for (PullRequestFile pullRequestFile : pullRequestData.getPullRequestFiles()) {
             String gitFileName = getFileNameWithDefaultModule(pullRequestFile.getFilename());
             String resourceId = getResourceIdOrNull(gitFileName);
             GitHubStatus status;
@@ -169,11 +274,13 @@ class CodeCoverageReader {
             FileContainer candidate = files.get(gitFileName);
             if (candidate != null) {
                 updateFileContainer(candidate, gitPullRequest, author, pullRequestFile, status);
+                updateLatestChange(candidate, pullRequestData, pullRequestFile);
                 continue;
             }
 
             FileContainer fileContainer = createFileContainer(gitPullRequest, author, pullRequestFile, gitFileName, resourceId,
                     status);
+            updateLatestChange(fileContainer, pullRequestData, pullRequestFile);
             saveOldFileName(fileContainer, pullRequestFile);
 
             if (resourceId == null) {
@@ -181,8 +288,7 @@ class CodeCoverageReader {
                 continue;
             }
 
-            String query = format("https://%s/api/resources?resource=%s&metrics=%s", props.getHost(), resourceId, METRICS_LIST);
-            JsonArray array = jsonDownloader.getJsonArrayFromQuery(TimeTrackerLabel.GET_RESOURCE_METRICS, query);
+            JsonArray array = getResourceMetrics(resourceId);
             for (JsonElement jsonElement : array) {
                 JsonObject resource = jsonElement.getAsJsonObject();
 
@@ -195,19 +301,59 @@ class CodeCoverageReader {
         }
     }
 
-    private boolean checkPullRequestState(int gitPullRequest, GHPullRequest pullRequest) {
-        if (isMerged(pullRequest)) {
-            pullRequests.put(gitPullRequest, PullRequestStatus.MERGED);
-            return true;
+    private void updateLatestChange(FileContainer fileContainer, PullRequestData pullRequestData,
+                                    PullRequestFile pullRequestFile) {
+        fileContainer.mergeCommitSha = pullRequestData.getMergeCommitSha();
+        fileContainer.lastPullRequest = pullRequestData.getGitPullRequest();
+        if (props.isDiffCoverage()) {
+            fileContainer.addChangedLines(pullRequestFile.getEdits());
         }
-        if (isClosed(pullRequest)) {
-            debugRed("PR %d is closed (skipping)!", gitPullRequest);
-            pullRequests.put(gitPullRequest, PullRequestStatus.CLOSED);
-            return false;
+    }
+
+    private JsonArray getResourceMetrics(String resourceId) throws IOException {
+        JsonArray array = bulkMetrics.get(resourceId);
+        if (!isDownloadNeeded(resourceId)) {
+            return array;
+        }
+        JsonArray downloadedArray = prefetchedMetrics.remove(resourceId);
+        if (downloadedArray == null) {
+            downloadedArray = downloadResourceMetrics(resourceId);
+        }
+        if (array == null) {
+            return downloadedArray;
+        }
+        // the line hits are not part of the bulk metrics, since they would be read for all files of the project
+        JsonArray mergedArray = new JsonArray();
+        mergedArray.addAll(array);
+        mergedArray.addAll(downloadedArray);
+        return mergedArray;
+    }
+
+    private boolean isDownloadNeeded(String resourceId) {
+        return props.isDiffCoverage() || !bulkMetrics.containsKey(resourceId);
+    }
+
+    private JsonArray downloadResourceMetrics(String resourceId) throws IOException {
+        String metrics = bulkMetrics.containsKey(resourceId) ? LINE_HITS_METRIC : METRICS_LIST;
+        if (props.isDiffCoverage() && !bulkMetrics.containsKey(resourceId)) {
+            metrics += "," + LINE_HITS_METRIC;
+        }
+        String query = format("https://%s/api/resources?resource=%s&metrics=%s", props.getHost(), resourceId, metrics);
+        return jsonDownloader.getJsonArrayFromQuery(TimeTrackerLabel.GET_RESOURCE_METRICS, query);
+    }
+
+    private boolean checkPullRequestState(int gitPullRequest, PullRequestStatus status) {
+        pullRequests.put(gitPullRequest, status);
+        switch (status) {
+            case MERGED:
+                return true;
+            case CLOSED:
+                debugRed("PR %d is closed (skipping)!", gitPullRequest);
+                return false;
+            default:
+                debugYellow("PR %d is not merged yet (skipping)!", gitPullRequest);
+                return false;
         }
-        debugYellow("PR %d is not merged yet (skipping)!", gitPullRequest);
-        pullRequests.put(gitPullRequest, PullRequestStatus.OPEN);
-        return false;
     }
 
     private String getFileNameWithDefaultModule(String fileName) {
@@ -229,7 +375,7 @@ class CodeCoverageReader {
     }
 
     @SuppressWarnings("checkstyle:npathcomplexity")
-    private void saveOldFileName(FileContainer fileContainer, GHPullRequestFileDetail pullRequestFile) {
+    private void saveOldFileName(FileContainer fileContainer, PullRequestFile pullRequestFile) {
         if (fileContainer.status != GitHubStatus.RENAMED) {
             return;
         }
@@ -266,18 +412,12 @@ class CodeCoverageReader {
             return null;
         }
 
-        String module = findModuleName(fileName, "/");
-        String mapKey = fileName.substring(fileName.indexOf("src/"));
-
-        Map<String, String> entryMap = resources.get(module);
-        if (entryMap == null) {
-            return null;
-        }
-        return entryMap.get(mapKey);
+        int resourceId = resources.getResourceId(fileName);
+        return (resourceId == ResourceIndex.NO_RESOURCE) ? null : String.valueOf(resourceId);
     }
 
     private void updateFileContainer(FileContainer candidate, int gitPullRequest, String author,
-                                     GHPullRequestFileDetail pullRequestFile, GitHubStatus status) {
+                                     PullRequestFile pullRequestFile, GitHubStatus status) {
         candidate.pullRequests += ", " + gitPullRequest;
         if (!candidate.author.contains(author)) {
             candidate.author += ", " + author;
@@ -301,7 +441,7 @@ class CodeCoverageReader {
         return newStatus;
     }
 
-    private FileContainer createFileContainer(int gitPullRequest, String author, GHPullRequestFileDetail pullRequestFile,
+    private FileContainer createFileContainer(int gitPullRequest, String author, PullRequestFile pullRequestFile,
                                               String gitFileName, String resourceId, GitHubStatus status) {
         FileContainer fileContainer = new FileContainer();
         fileContainer.resourceId = resourceId;
@@ -324,7 +464,7 @@ class CodeCoverageReader {
         }
 
         String module = gitFileName.substring(0, firstSlashIndex);
-        return (resources.get(module) == null);
+        return !resources.containsModule(module);
     }
 
     private double getIdeaCoverage(String fileName, GitHubStatus status) {
@@ -342,7 +482,11 @@ class CodeCoverageReader {
         String fullyQualifiedClassName = fileName.substring(beginIndex).replace('/', '.');
 
         Double coverage = ideaCoverage.get(fullyQualifiedClassName);
-        return (coverage == null) ? 0 : coverage;
+        if (coverage != null) {
+            return coverage;
+        }
+        double indexCoverage = (ideaCoverageIndex == null) ? Double.NaN : ideaCoverageIndex.getCoverage(fullyQualifiedClassName);
+        return Double.isNaN(indexCoverage) ? 0 : indexCoverage;
     }
 
     private int getIndexOfFullyQualifiedClassName(String fileName, GitHubStatus status) {
@@ -379,6 +523,10 @@ class CodeCoverageReader {
         for (JsonElement metricElement : resource.get("msr").getAsJsonArray()) {
             JsonObject metric = metricElement.getAsJsonObject();
             String key = metric.get("key").getAsString();
+            if (LINE_HITS_METRIC.equals(key)) {
+                fileContainer.lineHits = parseLineHits(metric.get("data").getAsString());
+                continue;
+            }
             String value = metric.get("frmt_val").getAsString();
             if ("coverage".equals(key)) {
                 fileContainer.coverage = value;
@@ -395,6 +543,18 @@ class CodeCoverageReader {
         }
     }
 
+    private static Map<Integer, Integer> parseLineHits(String data) {
+        // the data has the format "line=hits;line=hits" and contains just the executable lines
+        Map<Integer, Integer> lineHits = new HashMap<>();
+        for (String entry : data.split(";")) {
+            int separatorIndex = entry.indexOf('=');
+            if (separatorIndex > 0) {
+                lineHits.put(parseInt(entry.substring(0, separatorIndex)), parseInt(entry.substring(separatorIndex + 1)));
+            }
+        }
+        return lineHits;
+    }
+
     private void checkOldFilenames() {
         for (FileContainer fileContainer : files.values()) {
             if (fileContainer.status == RENAMED && fileContainer.oldFileName != null) {
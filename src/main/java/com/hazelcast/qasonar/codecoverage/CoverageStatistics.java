@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.qasonar.codecoverage;
+
+class CoverageStatistics {
+
+    private double min = Double.MAX_VALUE;
+    private double max = -Double.MAX_VALUE;
+    private double sum;
+    private int fileCount;
+    private int passedFileCount;
+
+    void add(double coverage, boolean qaCheck) {
+        if (coverage < min) {
+            min = coverage;
+        }
+        if (coverage > max) {
+            max = coverage;
+        }
+        sum += coverage;
+        fileCount++;
+        if (qaCheck) {
+            passedFileCount++;
+        }
+    }
+
+    double getMin() {
+        return min;
+    }
+
+    double getMax() {
+        return max;
+    }
+
+    double getAverage() {
+        return sum / fileCount;
+    }
+
+    int getFileCount() {
+        return fileCount;
+    }
+
+    int getPassedFileCount() {
+        return passedFileCount;
+    }
+}
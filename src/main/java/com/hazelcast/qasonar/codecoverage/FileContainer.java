@@ -18,12 +18,21 @@ package com.hazelcast.qasonar.codecoverage;
 
 import com.hazelcast.utils.GitHubStatus;
 
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import static java.lang.String.format;
+
 class FileContainer {
 
+    private static final double PERCENT = 100.0;
+
     enum CoverageType {
         NONE,
         SONAR,
-        IDEA
+        IDEA,
+        DIFF
     }
 
     String resourceId;
@@ -32,6 +41,8 @@ class FileContainer {
     String pullRequests;
     String fileName;
     String oldFileName;
+    String mergeCommitSha;
+    int lastPullRequest;
     GitHubStatus status;
 
     boolean isModuleDeleted;
@@ -46,6 +57,12 @@ class FileContainer {
 
     double ideaCoverage;
 
+    SortedSet<Integer> changedLines = new TreeSet<>();
+    Map<Integer, Integer> lineHits;
+    String diffCoverage;
+    double numericDiffCoverage;
+    int diffCoverageLines = -1;
+
     int gitHubChanges;
     int gitHubAdditions;
     int gitHubDeletions;
@@ -73,11 +90,43 @@ class FileContainer {
                 return numericCoverage;
             case IDEA:
                 return ideaCoverage;
+            case DIFF:
+                return numericDiffCoverage;
             default:
                 throw new IllegalStateException("CoverageType has not been set!");
         }
     }
 
+    void addChangedLines(int[] edits) {
+        // once a PR with unknown changes is added, the changed lines of the file stay unknown
+        if (edits == null || changedLines == null) {
+            changedLines = null;
+            return;
+        }
+        changedLines = ChangedLines.apply(changedLines, edits);
+    }
+
+    void calculateDiffCoverage() {
+        if (changedLines == null || lineHits == null) {
+            return;
+        }
+        int coveredLines = 0;
+        diffCoverageLines = 0;
+        for (Integer line : changedLines) {
+            Integer hits = lineHits.get(line);
+            if (hits != null) {
+                diffCoverageLines++;
+                if (hits > 0) {
+                    coveredLines++;
+                }
+            }
+        }
+        if (diffCoverageLines > 0) {
+            numericDiffCoverage = PERCENT * coveredLines / diffCoverageLines;
+            diffCoverage = format("%.1f%%", numericDiffCoverage);
+        }
+    }
+
     boolean isQaCheckSet() {
         return qaCheckSet;
     }
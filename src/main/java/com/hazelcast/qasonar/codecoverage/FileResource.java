@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.qasonar.codecoverage;
+
+import com.google.gson.JsonArray;
+
+class FileResource {
+
+    private final String module;
+    private final String path;
+    private final String id;
+    private final JsonArray metrics;
+
+    FileResource(String module, String path, String id, JsonArray metrics) {
+        this.module = module;
+        this.path = path;
+        this.id = id;
+        this.metrics = metrics;
+    }
+
+    String getModule() {
+        return module;
+    }
+
+    String getPath() {
+        return path;
+    }
+
+    String getId() {
+        return id;
+    }
+
+    JsonArray getMetrics() {
+        return metrics;
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.qasonar.codecoverage;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.function.Consumer;
+
+import static com.hazelcast.utils.Utils.findModuleName;
+
+final class FileResourceParser {
+
+    private FileResourceParser() {
+    }
+
+    static int parseFileResources(Reader reader, Consumer<FileResource> consumer) throws IOException {
+        JsonParser jsonParser = new JsonParser();
+        JsonReader jsonReader = new JsonReader(reader);
+        int fileResources = 0;
+
+        jsonReader.beginArray();
+        while (jsonReader.hasNext()) {
+            FileResource fileResource = parseResourceOrNull(jsonReader, jsonParser);
+            if (fileResource != null) {
+                consumer.accept(fileResource);
+                fileResources++;
+            }
+        }
+        jsonReader.endArray();
+
+        return fileResources;
+    }
+
+    @SuppressWarnings("checkstyle:cyclomaticcomplexity")
+    private static FileResource parseResourceOrNull(JsonReader jsonReader, JsonParser jsonParser) throws IOException {
+        String scope = null;
+        String key = null;
+        String lname = null;
+        String id = null;
+        JsonArray metrics = null;
+
+        jsonReader.beginObject();
+        while (jsonReader.hasNext()) {
+            String name = jsonReader.nextName();
+            if (jsonReader.peek() == JsonToken.NULL) {
+                jsonReader.skipValue();
+                continue;
+            }
+            switch (name) {
+                case "scope":
+                    scope = jsonReader.nextString();
+                    break;
+                case "key":
+                    key = jsonReader.nextString();
+                    break;
+                case "lname":
+                    lname = jsonReader.nextString();
+                    break;
+                case "id":
+                    id = jsonReader.nextString();
+                    break;
+                case "msr":
+                    metrics = jsonParser.parse(jsonReader).getAsJsonArray();
+                    break;
+                default:
+                    jsonReader.skipValue();
+            }
+        }
+        jsonReader.endObject();
+
+        if (!"FIL".equals(scope)) {
+            return null;
+        }
+        String module = findModuleName(key, ":");
+        String path = lname.substring(lname.indexOf("src/"));
+        return new FileResource(module, path, id, metrics);
+    }
+}
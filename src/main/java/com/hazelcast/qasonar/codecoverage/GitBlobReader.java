@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.qasonar.codecoverage;
+
+import com.hazelcast.utils.PropertyReader;
+import com.hazelcast.utils.TimeTrackerLabel;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.treewalk.TreeWalk;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static com.hazelcast.utils.GitUtils.getSharedRepository;
+import static com.hazelcast.utils.TimeTracker.count;
+import static com.hazelcast.utils.TimeTracker.record;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.eclipse.jgit.lib.Constants.OBJ_BLOB;
+
+class GitBlobReader {
+
+    // the readers are kept per repository, so their caches stay warm for later runs in the same JVM
+    private static final ConcurrentMap<Repository, GitBlobReader> READERS = new ConcurrentHashMap<>();
+
+    // the caches are bounded, so a long running daemon doesn't keep all files and commits of a release in memory
+    private static final long MAX_CACHED_CHARS = 16 * 1024 * 1024;
+    private static final int MAX_CACHED_TREE_IDS = 10000;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private final Map<String, ObjectId> treeIds = new LinkedHashMap<String, ObjectId>(INITIAL_CAPACITY, LOAD_FACTOR, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, ObjectId> eldest) {
+            return size() > MAX_CACHED_TREE_IDS;
+        }
+    };
+    // the blobs are evicted in LRU order when their total length exceeds the limit
+    private final Map<ObjectId, String> blobs = new LinkedHashMap<>(INITIAL_CAPACITY, LOAD_FACTOR, true);
+    private long cachedChars;
+
+    private final Repository repository;
+    private final long maxCachedChars;
+
+    GitBlobReader(Repository repository) {
+        this(repository, MAX_CACHED_CHARS);
+    }
+
+    GitBlobReader(Repository repository, long maxCachedChars) {
+        this.repository = repository;
+        this.maxCachedChars = maxCachedChars;
+    }
+
+    static GitBlobReader fromPropertyReader(PropertyReader props, com.hazelcast.utils.Repository repository)
+            throws IOException {
+        if (props.getLocalGitRoot() == null || props.getLocalGitRoot().isEmpty()) {
+            return null;
+        }
+        return READERS.computeIfAbsent(getSharedRepository(props, repository.getRepositoryName()), GitBlobReader::new);
+    }
+
+    String readFileContents(String commitSha, String path) throws IOException {
+        long started = System.nanoTime();
+        // an ObjectReader is not thread-safe, so each call uses its own
+        try (ObjectReader objectReader = repository.newObjectReader()) {
+            ObjectId treeId = getTreeId(objectReader, commitSha);
+            try (TreeWalk treeWalk = TreeWalk.forPath(objectReader, path, treeId)) {
+                if (treeWalk == null) {
+                    throw new FileNotFoundException(path + " not found in commit " + commitSha);
+                }
+                return getBlob(objectReader, treeWalk.getObjectId(0));
+            }
+        } finally {
+            record(TimeTrackerLabel.GET_FILE_CONTENTS_LOCAL_GIT, System.nanoTime() - started);
+        }
+    }
+
+    // just for testing
+    synchronized int getCachedBlobCount() {
+        return blobs.size();
+    }
+
+    // just for testing
+    synchronized long getCachedChars() {
+        return cachedChars;
+    }
+
+    private ObjectId getTreeId(ObjectReader objectReader, String commitSha) throws IOException {
+        ObjectId treeId;
+        synchronized (this) {
+            treeId = treeIds.get(commitSha);
+        }
+        if (treeId == null) {
+            try (RevWalk revWalk = new RevWalk(objectReader)) {
+                treeId = revWalk.parseCommit(ObjectId.fromString(commitSha)).getTree().copy();
+            }
+            synchronized (this) {
+                treeIds.put(commitSha, treeId);
+            }
+        }
+        return treeId;
+    }
+
+    private String getBlob(ObjectReader objectReader, ObjectId blobId) throws IOException {
+        String contents;
+        synchronized (this) {
+            contents = blobs.get(blobId);
+        }
+        if (contents != null) {
+            count(TimeTrackerLabel.GIT_BLOB_CACHE_HIT);
+            return contents;
+        }
+        contents = new String(objectReader.open(blobId, OBJ_BLOB).getBytes(), UTF_8);
+        cacheBlob(blobId, contents);
+        count(TimeTrackerLabel.GIT_BLOB_CACHE_MISS);
+        return contents;
+    }
+
+    private synchronized void cacheBlob(ObjectId blobId, String contents) {
+        if (contents.length() > maxCachedChars) {
+            return;
+        }
+        String oldContents = blobs.put(blobId.copy(), contents);
+        cachedChars += contents.length() - (oldContents == null ? 0 : oldContents.length());
+
+        Iterator<String> iterator = blobs.values().iterator();
+        while (cachedChars > maxCachedChars && iterator.hasNext()) {
+            cachedChars -= iterator.next().length();
+            iterator.remove();
+        }
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.qasonar.codecoverage;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.hazelcast.utils.PropertyReader;
+import com.hazelcast.utils.RestClient;
+import com.hazelcast.utils.TimeTrackerLabel;
+import org.kohsuke.github.GHRepository;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static com.hazelcast.utils.DebugUtils.debug;
+import static com.hazelcast.utils.TimeTracker.record;
+import static java.lang.Math.min;
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.emptyList;
+
+class GitHubGraphQLReader {
+
+    static final String GITHUB_GRAPHQL_ENDPOINT = "https://api.github.com/graphql";
+
+    private static final int BATCH_SIZE = 25;
+    private static final int FILES_PER_PAGE = 100;
+
+    private static final String FILES_FIELDS = "pageInfo { hasNextPage endCursor } nodes { path additions deletions changeType }";
+    private static final String PULL_REQUEST_FIELDS = "number state mergeCommit { oid } author { login ... on User { name } } "
+            + "files(first: " + FILES_PER_PAGE + ") { " + FILES_FIELDS + " }";
+
+    private static final String FILES_PAGE_QUERY = "query($owner: String!, $name: String!, $number: Int!, $cursor: String!) { "
+            + "repository(owner: $owner, name: $name) { pullRequest(number: $number) { "
+            + "files(first: " + FILES_PER_PAGE + ", after: $cursor) { " + FILES_FIELDS + " } } } }";
+
+    private final RestClient restClient;
+    private final String endpoint;
+    private final String owner;
+    private final String name;
+
+    GitHubGraphQLReader(RestClient restClient, String endpoint, String repositoryFullName) {
+        String[] repositoryParts = repositoryFullName.split("/");
+        this.restClient = restClient;
+        this.endpoint = endpoint;
+        this.owner = repositoryParts[0];
+        this.name = repositoryParts[1];
+    }
+
+    static GitHubGraphQLReader fromPropertyReader(PropertyReader props, GHRepository repo) {
+        if (!props.isGitHubGraphQL()) {
+            return null;
+        }
+        RestClient restClient = new RestClient("bearer " + props.getGitHubToken(), props.getHttpConnectTimeoutMillis(),
+                props.getHttpReadTimeoutMillis(), props.getHttpMaxConnections());
+        return new GitHubGraphQLReader(restClient, GITHUB_GRAPHQL_ENDPOINT, repo.getFullName());
+    }
+
+    Map<Integer, PullRequestData> readPullRequests(List<Integer> pullRequests) throws IOException {
+        Map<Integer, PullRequestData> pullRequestDataMap = new HashMap<>();
+        for (int fromIndex = 0; fromIndex < pullRequests.size(); fromIndex += BATCH_SIZE) {
+            List<Integer> batch = pullRequests.subList(fromIndex, min(fromIndex + BATCH_SIZE, pullRequests.size()));
+            readBatch(batch, pullRequestDataMap);
+        }
+        return pullRequestDataMap;
+    }
+
+    private void readBatch(List<Integer> batch, Map<Integer, PullRequestData> pullRequestDataMap) throws IOException {
+        StringBuilder query = new StringBuilder("query($owner: String!, $name: String!) { ")
+                .append("rateLimit { cost remaining } repository(owner: $owner, name: $name) {");
+        for (Integer pullRequest : batch) {
+            query.append(format(" pr%d: pullRequest(number: %d) { %s }", pullRequest, pullRequest, PULL_REQUEST_FIELDS));
+        }
+        query.append(" } }");
+
+        JsonObject data = execute(TimeTrackerLabel.GET_PULL_REQUESTS_GRAPHQL, query.toString(), new JsonObject());
+        JsonObject rateLimit = data.getAsJsonObject("rateLimit");
+        debug("Read %d pull requests via GraphQL (cost: %s, remaining: %s)...", batch.size(), rateLimit.get("cost"),
+                rateLimit.get("remaining"));
+
+        JsonObject repository = data.getAsJsonObject("repository");
+        for (Integer pullRequest : batch) {
+            JsonElement pullRequestElement = repository.get("pr" + pullRequest);
+            if (pullRequestElement == null || pullRequestElement.isJsonNull()) {
+                throw new IOException("Could not find PR " + pullRequest + " via GraphQL");
+            }
+            pullRequestDataMap.put(pullRequest, toPullRequestData(pullRequest, pullRequestElement.getAsJsonObject()));
+        }
+    }
+
+    private PullRequestData toPullRequestData(int gitPullRequest, JsonObject pullRequest) throws IOException {
+        String author = getAuthor(pullRequest.get("author"));
+        PullRequestStatus status = PullRequestStatus.valueOf(pullRequest.get("state").getAsString());
+        if (status != PullRequestStatus.MERGED) {
+            return new PullRequestData(gitPullRequest, author, status, emptyList());
+        }
+
+        List<PullRequestFile> pullRequestFiles = new ArrayList<>();
+        JsonObject files = pullRequest.getAsJsonObject("files");
+        while (files != null) {
+            for (JsonElement fileElement : files.getAsJsonArray("nodes")) {
+                pullRequestFiles.add(toPullRequestFile(fileElement.getAsJsonObject()));
+            }
+            JsonObject pageInfo = files.getAsJsonObject("pageInfo");
+            files = pageInfo.get("hasNextPage").getAsBoolean()
+                    ? readFilesPage(gitPullRequest, pageInfo.get("endCursor").getAsString())
+                    : null;
+        }
+        JsonElement mergeCommit = pullRequest.get("mergeCommit");
+        String mergeCommitSha = (mergeCommit == null || mergeCommit.isJsonNull())
+                ? null
+                : mergeCommit.getAsJsonObject().get("oid").getAsString();
+        return new PullRequestData(gitPullRequest, author, status, pullRequestFiles, mergeCommitSha, false);
+    }
+
+    private JsonObject readFilesPage(int gitPullRequest, String cursor) throws IOException {
+        JsonObject variables = new JsonObject();
+        variables.addProperty("number", gitPullRequest);
+        variables.addProperty("cursor", cursor);
+
+        JsonObject data = execute(TimeTrackerLabel.GET_PULL_REQUEST_FILES_GRAPHQL, FILES_PAGE_QUERY, variables);
+        return data.getAsJsonObject("repository").getAsJsonObject("pullRequest").getAsJsonObject("files");
+    }
+
+    private JsonObject execute(TimeTrackerLabel label, String query, JsonObject variables) throws IOException {
+        variables.addProperty("owner", owner);
+        variables.addProperty("name", name);
+        JsonObject request = new JsonObject();
+        request.addProperty("query", query);
+        request.add("variables", variables);
+
+        long started = System.nanoTime();
+        JsonObject response;
+        try (Reader reader = new InputStreamReader(restClient.post(endpoint, "application/json", request.toString())
+                .getInputStream(), UTF_8)) {
+            response = new JsonParser().parse(reader).getAsJsonObject();
+        } finally {
+            record(label, System.nanoTime() - started);
+        }
+
+        JsonElement errors = response.get("errors");
+        if (errors != null && errors.isJsonArray() && ((JsonArray) errors).size() > 0) {
+            throw new IOException("GraphQL query failed: " + errors);
+        }
+        return response.getAsJsonObject("data");
+    }
+
+    private static String getAuthor(JsonElement authorElement) {
+        if (authorElement == null || authorElement.isJsonNull()) {
+            // GitHub replaces deleted accounts with the ghost user
+            return "ghost";
+        }
+        JsonObject author = authorElement.getAsJsonObject();
+        JsonElement authorName = author.get("name");
+        if (authorName != null && !authorName.isJsonNull() && !authorName.getAsString().isEmpty()) {
+            return authorName.getAsString();
+        }
+        return author.get("login").getAsString();
+    }
+
+    private static PullRequestFile toPullRequestFile(JsonObject file) {
+        int additions = file.get("additions").getAsInt();
+        int deletions = file.get("deletions").getAsInt();
+        // GraphQL doesn't expose the diff patch, so renamed files need the REST fallback of the caller
+        return new PullRequestFile(file.get("path").getAsString(), toRestStatus(file.get("changeType").getAsString()),
+                additions, deletions, additions + deletions, null);
+    }
+
+    private static String toRestStatus(String changeType) {
+        switch (changeType) {
+            case "DELETED":
+                return "removed";
+            // a copied file is new in this PR (like a Git COPY in the LocalGitDiffReader)
+            case "COPIED":
+                return "added";
+            default:
+                return changeType.toLowerCase(Locale.ENGLISH);
+        }
+    }
+}
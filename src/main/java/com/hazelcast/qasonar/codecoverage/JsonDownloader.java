@@ -17,28 +17,44 @@
 package com.hazelcast.qasonar.codecoverage;
 
 import com.google.gson.JsonArray;
+import com.hazelcast.utils.HttpCache;
 import com.hazelcast.utils.PropertyReader;
+import com.hazelcast.utils.RestClient;
 import com.hazelcast.utils.TimeTrackerLabel;
 
 import java.io.IOException;
+import java.io.Reader;
+import java.util.function.Consumer;
 
+import static com.hazelcast.qasonar.codecoverage.FileResourceParser.parseFileResources;
 import static com.hazelcast.utils.TimeTracker.record;
-import static com.hazelcast.utils.Utils.getBasicAuthString;
 import static com.hazelcast.utils.Utils.getJsonElementsFromQuery;
+import static com.hazelcast.utils.Utils.getReaderFromQuery;
 
 class JsonDownloader {
 
-    private final String basicAuthString;
+    private final RestClient restClient;
+    private final HttpCache httpCache;
 
-    JsonDownloader(PropertyReader props) {
-        this.basicAuthString = getBasicAuthString(props.getUsername(), props.getPassword());
+    JsonDownloader(PropertyReader props, RestClient restClient) throws IOException {
+        this.restClient = restClient;
+        this.httpCache = HttpCache.fromPropertyReader(props);
     }
 
     JsonArray getJsonArrayFromQuery(TimeTrackerLabel label, String query) throws IOException {
         long started = System.nanoTime();
-        JsonArray jsonArray = getJsonElementsFromQuery(basicAuthString, query);
+        JsonArray jsonArray = getJsonElementsFromQuery(restClient, query, httpCache);
         record(label, System.nanoTime() - started);
 
         return jsonArray;
     }
+
+    int readFileResources(TimeTrackerLabel label, String query, Consumer<FileResource> consumer) throws IOException {
+        long started = System.nanoTime();
+        try (Reader reader = getReaderFromQuery(restClient, query, httpCache)) {
+            return parseFileResources(reader, consumer);
+        } finally {
+            record(label, System.nanoTime() - started);
+        }
+    }
 }
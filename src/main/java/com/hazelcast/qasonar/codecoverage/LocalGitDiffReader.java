@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.qasonar.codecoverage;
+
+import com.hazelcast.utils.PropertyReader;
+import com.hazelcast.utils.TimeTrackerLabel;
+import org.eclipse.jgit.diff.DiffEntry;
+import org.eclipse.jgit.diff.DiffFormatter;
+import org.eclipse.jgit.diff.Edit;
+import org.eclipse.jgit.diff.EditList;
+import org.eclipse.jgit.diff.RawTextComparator;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.util.io.DisabledOutputStream;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.hazelcast.utils.GitUtils.getSharedRepository;
+import static com.hazelcast.utils.TimeTracker.record;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+class LocalGitDiffReader {
+
+    // GitHub detects renames with a similarity of 50%, JGit defaults to 60%
+    private static final int GITHUB_RENAME_SCORE = 50;
+
+    private final Repository repository;
+
+    LocalGitDiffReader(Repository repository) {
+        this.repository = repository;
+    }
+
+    static LocalGitDiffReader fromPropertyReader(PropertyReader props, com.hazelcast.utils.Repository repository)
+            throws IOException {
+        if (!props.isLocalGitDiff()) {
+            return null;
+        }
+        if (props.getLocalGitRoot() == null || props.getLocalGitRoot().isEmpty()) {
+            throw new IllegalArgumentException("The local Git diff needs a configured localGitRoot!");
+        }
+        return new LocalGitDiffReader(getSharedRepository(props, repository.getRepositoryName()));
+    }
+
+    // returns null if the merge commit doesn't contain all changes of the PR
+    List<PullRequestFile> readPullRequestFiles(String mergeCommitSha, int commitCount) throws IOException {
+        long started = System.nanoTime();
+        try (RevWalk revWalk = new RevWalk(repository);
+             DiffFormatter diffFormatter = new DiffFormatter(DisabledOutputStream.INSTANCE)) {
+            RevCommit mergeCommit = revWalk.parseCommit(ObjectId.fromString(mergeCommitSha));
+            if (mergeCommit.getParentCount() == 0) {
+                throw new IOException("Merge commit " + mergeCommitSha + " has no parent");
+            }
+            if (mergeCommit.getParentCount() == 1 && commitCount > 1) {
+                // a rebase merge replays each commit of the PR, so the last one just contains its own changes
+                // (a squash merge can't be told apart, so both are read from GitHub)
+                return null;
+            }
+            RevCommit firstParent = revWalk.parseCommit(mergeCommit.getParent(0));
+
+            configure(diffFormatter);
+            List<PullRequestFile> pullRequestFiles = new ArrayList<>();
+            for (DiffEntry diffEntry : diffFormatter.scan(firstParent.getTree(), mergeCommit.getTree())) {
+                pullRequestFiles.add(toPullRequestFile(diffFormatter, diffEntry));
+            }
+            return pullRequestFiles;
+        } finally {
+            record(TimeTrackerLabel.GET_PULL_REQUEST_FILES_LOCAL_GIT, System.nanoTime() - started);
+        }
+    }
+
+    private void configure(DiffFormatter diffFormatter) {
+        diffFormatter.setRepository(repository);
+        diffFormatter.setDiffComparator(RawTextComparator.DEFAULT);
+        diffFormatter.setDetectRenames(true);
+        diffFormatter.getRenameDetector().setRenameScore(GITHUB_RENAME_SCORE);
+    }
+
+    private PullRequestFile toPullRequestFile(DiffFormatter diffFormatter, DiffEntry diffEntry) throws IOException {
+        int additions = 0;
+        int deletions = 0;
+        EditList editList = diffFormatter.toFileHeader(diffEntry).toEditList();
+        for (Edit edit : editList) {
+            deletions += edit.getLengthA();
+            additions += edit.getLengthB();
+        }
+
+        DiffEntry.ChangeType changeType = diffEntry.getChangeType();
+        String filename = (changeType == DiffEntry.ChangeType.DELETE) ? diffEntry.getOldPath() : diffEntry.getNewPath();
+        // the patch is just needed to find the old filename of renamed classes
+        String patch = (changeType == DiffEntry.ChangeType.RENAME) ? formatPatch(diffEntry) : null;
+        return new PullRequestFile(filename, toGitHubStatus(changeType), additions, deletions, additions + deletions, patch,
+                ChangedLines.fromEdits(editList));
+    }
+
+    private String formatPatch(DiffEntry diffEntry) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (DiffFormatter patchFormatter = new DiffFormatter(outputStream)) {
+            configure(patchFormatter);
+            patchFormatter.format(diffEntry);
+        }
+        return new String(outputStream.toByteArray(), UTF_8);
+    }
+
+    private static String toGitHubStatus(DiffEntry.ChangeType changeType) {
+        switch (changeType) {
+            case ADD:
+            case COPY:
+                return "added";
+            case DELETE:
+                return "removed";
+            case RENAME:
+                return "renamed";
+            default:
+                return "modified";
+        }
+    }
+}
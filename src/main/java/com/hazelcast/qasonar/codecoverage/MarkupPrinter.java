@@ -19,24 +19,28 @@ package com.hazelcast.qasonar.codecoverage;
 import com.hazelcast.qasonar.utils.CommandLineOptions;
 import com.hazelcast.utils.PropertyReader;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.Map;
+import java.util.SortedMap;
 
 import static com.hazelcast.utils.Utils.appendCommandLine;
 
 class MarkupPrinter extends AbstractPrinter {
 
-    MarkupPrinter(Map<Integer, PullRequestStatus> pullRequests, Map<String, FileContainer> files, PropertyReader props,
+    MarkupPrinter(Map<Integer, PullRequestStatus> pullRequests, SortedMap<String, FileContainer> files, PropertyReader props,
                   CommandLineOptions commandLineOptions) {
         super(pullRequests, files, props, commandLineOptions, "", "|", false);
     }
 
     @Override
-    void addHeader(StringBuilder sb) {
-        appendCommandLine(getProps(), sb, getCommandLineOptions().getPullRequests(), false);
-        sb.append("||Sonar||PRs||Authors||File||Status||Add||Del||Coverage||Line||Branch||Comment||QA||\n");
+    void addHeader(Writer out) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        appendCommandLine(getProps(), sb, getPullRequests(), false);
+        out.append(sb).append("||Sonar||PRs||Authors||File||Status||Add||Del||Coverage||Line||Branch||Comment||QA||\n");
     }
 
     @Override
-    void addFooter(StringBuilder sb) {
+    void addFooter(Writer out) {
     }
 }
@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.qasonar.codecoverage;
+
+import com.hazelcast.qasonar.utils.CommandLineOptions;
+import com.hazelcast.qasonar.utils.WhiteList;
+import com.hazelcast.utils.PropertyReader;
+import com.hazelcast.utils.RestClient;
+import com.hazelcast.utils.Repository;
+import org.kohsuke.github.GHRepository;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import static com.hazelcast.qasonar.codecoverage.PullRequestReader.getResult;
+import static com.hazelcast.utils.DebugUtils.debug;
+import static com.hazelcast.utils.DebugUtils.debugGreen;
+import static com.hazelcast.utils.TimeTracker.printTimeTracks;
+import static com.hazelcast.utils.Utils.TABLE_OF_CONTENTS;
+import static com.hazelcast.utils.Utils.formatRepositoryHeadline;
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.Files.newBufferedWriter;
+import static java.util.concurrent.Executors.newFixedThreadPool;
+
+public class MultiRepositoryPullRequests {
+
+    private static final String DEFAULT_GITHUB_OWNER = "hazelcast";
+
+    private final PropertyReader propertyReader;
+    private final CommandLineOptions commandLineOptions;
+
+    public MultiRepositoryPullRequests(PropertyReader propertyReader, CommandLineOptions commandLineOptions) {
+        this.propertyReader = propertyReader;
+        this.commandLineOptions = commandLineOptions;
+    }
+
+    public void run(RestClient restClient) throws IOException {
+        // System.out must not be closed
+        run(new CodeCoverageContext(propertyReader, restClient), new BufferedWriter(new OutputStreamWriter(System.out)));
+    }
+
+    public void run(CodeCoverageContext context, Writer stdout) throws IOException {
+        if (propertyReader.isFullRun()) {
+            context.invalidateResources();
+        }
+        String owner = getGitHubOwner(propertyReader.getGitHubRepository());
+
+        List<RepositoryRun> runs = new ArrayList<>();
+        for (Map.Entry<Repository, List<Integer>> entry : commandLineOptions.getRepositoryPullRequests().entrySet()) {
+            PropertyReader props = propertyReader.copy();
+            props.setGitHubRepository(owner + "/" + entry.getKey().getRepositoryName());
+            GHRepository repo = context.getGitHubRepository(props.getGitHubRepository());
+            // the HTTP client, the HTTP cache and the SonarQube resources are shared by all repositories
+            CodeCoverageReader reader = new CodeCoverageReader(props, repo, context.getJsonDownloader());
+            context.populateResources(reader, props);
+            runs.add(new RepositoryRun(entry.getKey(), entry.getValue(), props, repo, reader));
+        }
+
+        debug("Analyzing %d repositories...", runs.size());
+        WhiteList whiteList = context.getWhiteList();
+        List<Future<CodeCoverageAnalyzer>> futures = new ArrayList<>(runs.size());
+        ExecutorService executor = newFixedThreadPool(runs.size());
+        try {
+            for (RepositoryRun run : runs) {
+                futures.add(executor.submit(() -> analyze(run, whiteList)));
+            }
+            for (int i = 0; i < runs.size(); i++) {
+                runs.get(i).analyzer = getResult(futures.get(i));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        debug("Printing code coverage data...");
+        printMerged(runs, stdout);
+        try (StructuredOutputWriter structuredOutputWriter = StructuredOutputWriter.fromPropertyReader(propertyReader)) {
+            if (structuredOutputWriter != null) {
+                for (RepositoryRun run : runs) {
+                    createPrinter(run).print(structuredOutputWriter);
+                }
+            }
+        }
+
+        printTimeTracks();
+        debugGreen("Done!\n");
+    }
+
+    private CodeCoverageAnalyzer analyze(RepositoryRun run, WhiteList whiteList) throws IOException {
+        debug("Reading code coverage data for %d PRs of %s...", run.pullRequests.size(), run.repository);
+        run.reader.run(run.pullRequests);
+
+        debug("Analyzing code coverage data of %d files of %s...", run.reader.getFiles().size(), run.repository);
+        CodeCoverageAnalyzer analyzer = new CodeCoverageAnalyzer(run.reader.getFiles(), run.props, run.repo, whiteList);
+        analyzer.run();
+        return analyzer;
+    }
+
+    private void printMerged(List<RepositoryRun> runs, Writer stdout) throws IOException {
+        String outputFile = propertyReader.getOutputFile();
+        if (outputFile != null) {
+            try (Writer writer = newBufferedWriter(Paths.get(outputFile), UTF_8)) {
+                printMerged(writer, runs);
+            }
+        } else {
+            printMerged(stdout, runs);
+            stdout.flush();
+        }
+    }
+
+    private void printMerged(Writer writer, List<RepositoryRun> runs) throws IOException {
+        boolean isPlainOutput = commandLineOptions.isPlainOutput();
+        if (!isPlainOutput) {
+            writer.write(TABLE_OF_CONTENTS);
+        }
+        for (RepositoryRun run : runs) {
+            if (isPlainOutput) {
+                writer.write(format("Code Coverage (%s)%n", run.repository));
+            } else {
+                writer.write(formatRepositoryHeadline(run.repository));
+            }
+            createPrinter(run).print(writer);
+            writer.write("\n\n");
+        }
+    }
+
+    private CodeCoveragePrinter createPrinter(RepositoryRun run) {
+        return new CodeCoveragePrinter(run.reader.getPullRequests(), run.analyzer.getFiles(), run.props, commandLineOptions);
+    }
+
+    private static String getGitHubOwner(String gitHubRepository) {
+        if (gitHubRepository == null || gitHubRepository.indexOf('/') == -1) {
+            return DEFAULT_GITHUB_OWNER;
+        }
+        return gitHubRepository.substring(0, gitHubRepository.indexOf('/'));
+    }
+
+    private static final class RepositoryRun {
+
+        private final Repository repository;
+        private final List<Integer> pullRequests;
+        private final PropertyReader props;
+        private final GHRepository repo;
+        private final CodeCoverageReader reader;
+
+        private CodeCoverageAnalyzer analyzer;
+
+        private RepositoryRun(Repository repository, List<Integer> pullRequests, PropertyReader props, GHRepository repo,
+                              CodeCoverageReader reader) {
+            this.repository = repository;
+            this.pullRequests = pullRequests;
+            this.props = props;
+            this.repo = repo;
+            this.reader = reader;
+        }
+    }
+}
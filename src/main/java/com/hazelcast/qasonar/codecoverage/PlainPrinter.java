@@ -19,7 +19,10 @@ package com.hazelcast.qasonar.codecoverage;
 import com.hazelcast.qasonar.utils.CommandLineOptions;
 import com.hazelcast.utils.PropertyReader;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.Map;
+import java.util.SortedMap;
 
 import static com.hazelcast.utils.Utils.fillString;
 import static com.hazelcast.utils.Utils.formatMinWidth;
@@ -28,15 +31,15 @@ class PlainPrinter extends AbstractPrinter {
 
     private final String tableSeparator;
 
-    PlainPrinter(Map<Integer, PullRequestStatus> pullRequests, Map<String, FileContainer> files, PropertyReader props,
+    PlainPrinter(Map<Integer, PullRequestStatus> pullRequests, SortedMap<String, FileContainer> files, PropertyReader props,
                  CommandLineOptions commandLineOptions) {
         super(pullRequests, files, props, commandLineOptions, " ", " | ", true);
         tableSeparator = createTableSeparator();
     }
 
     @Override
-    void addHeader(StringBuilder sb) {
-        sb.append("| Sonar | PRs  | Authors    |")
+    void addHeader(Writer out) throws IOException {
+        out.append("| Sonar | PRs  | Authors    |")
                 .append(formatMinWidth("File", FILE_NAME_WIDTH))
                 .append(" | Status   | Add  | Del  | Cover  | Line   | Branch | ")
                 .append(formatMinWidth("Comment", COMMENT_WIDTH))
@@ -45,8 +48,8 @@ class PlainPrinter extends AbstractPrinter {
     }
 
     @Override
-    void addFooter(StringBuilder sb) {
-        sb.append(tableSeparator);
+    void addFooter(Writer out) throws IOException {
+        out.write(tableSeparator);
     }
 
     @SuppressWarnings("checkstyle:magicnumber")
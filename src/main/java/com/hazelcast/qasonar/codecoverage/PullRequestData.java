@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.qasonar.codecoverage;
+
+import java.util.List;
+
+class PullRequestData {
+
+    private final int gitPullRequest;
+    private final String author;
+    private final PullRequestStatus status;
+    private final List<PullRequestFile> pullRequestFiles;
+    private final String mergeCommitSha;
+    // GraphQL doesn't deliver the diff patches, so the changed lines of such PRs are unknown
+    private final boolean hasPatches;
+
+    PullRequestData(int gitPullRequest, String author, PullRequestStatus status, List<PullRequestFile> pullRequestFiles) {
+        this(gitPullRequest, author, status, pullRequestFiles, null);
+    }
+
+    PullRequestData(int gitPullRequest, String author, PullRequestStatus status, List<PullRequestFile> pullRequestFiles,
+                    String mergeCommitSha) {
+        this(gitPullRequest, author, status, pullRequestFiles, mergeCommitSha, true);
+    }
+
+    PullRequestData(int gitPullRequest, String author, PullRequestStatus status, List<PullRequestFile> pullRequestFiles,
+                    String mergeCommitSha, boolean hasPatches) {
+        this.gitPullRequest = gitPullRequest;
+        this.author = author;
+        this.status = status;
+        this.pullRequestFiles = pullRequestFiles;
+        this.mergeCommitSha = mergeCommitSha;
+        this.hasPatches = hasPatches;
+    }
+
+    int getGitPullRequest() {
+        return gitPullRequest;
+    }
+
+    String getAuthor() {
+        return author;
+    }
+
+    PullRequestStatus getStatus() {
+        return status;
+    }
+
+    List<PullRequestFile> getPullRequestFiles() {
+        return pullRequestFiles;
+    }
+
+    String getMergeCommitSha() {
+        return mergeCommitSha;
+    }
+
+    boolean hasPatches() {
+        return hasPatches;
+    }
+}
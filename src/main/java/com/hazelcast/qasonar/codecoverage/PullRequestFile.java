@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.qasonar.codecoverage;
+
+import org.kohsuke.github.GHPullRequestFileDetail;
+
+class PullRequestFile {
+
+    private final String filename;
+    private final String status;
+    private final int additions;
+    private final int deletions;
+    private final int changes;
+    private final String patch;
+    private final int[] edits;
+
+    PullRequestFile(String filename, String status, int additions, int deletions, int changes, String patch) {
+        this(filename, status, additions, deletions, changes, patch, null);
+    }
+
+    PullRequestFile(String filename, String status, int additions, int deletions, int changes, String patch, int[] edits) {
+        this.filename = filename;
+        this.status = status;
+        this.additions = additions;
+        this.deletions = deletions;
+        this.changes = changes;
+        this.patch = patch;
+        this.edits = edits;
+    }
+
+    static PullRequestFile fromFileDetail(GHPullRequestFileDetail fileDetail) {
+        return new PullRequestFile(fileDetail.getFilename(), fileDetail.getStatus(), fileDetail.getAdditions(),
+                fileDetail.getDeletions(), fileDetail.getChanges(), fileDetail.getPatch());
+    }
+
+    String getFilename() {
+        return filename;
+    }
+
+    String getStatus() {
+        return status;
+    }
+
+    int getAdditions() {
+        return additions;
+    }
+
+    int getDeletions() {
+        return deletions;
+    }
+
+    int getChanges() {
+        return changes;
+    }
+
+    String getPatch() {
+        return patch;
+    }
+
+    // returns null if the changed lines are unknown, e.g. GitHub omits the patch of very large diffs
+    int[] getEdits() {
+        if (edits != null) {
+            return edits;
+        }
+        if (patch != null) {
+            return ChangedLines.fromPatch(patch);
+        }
+        return (changes == 0) ? new int[0] : null;
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.qasonar.codecoverage;
+
+import com.hazelcast.utils.GitHubStatus;
+import com.hazelcast.utils.PropertyReader;
+import com.hazelcast.utils.Repository;
+import org.eclipse.jgit.errors.MissingObjectException;
+import org.kohsuke.github.GHPullRequest;
+import org.kohsuke.github.GHPullRequestFileDetail;
+import org.kohsuke.github.GHRepository;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import static com.hazelcast.utils.DebugUtils.debug;
+import static com.hazelcast.utils.DebugUtils.debugYellow;
+import static com.hazelcast.utils.GitHubUtils.getAuthor;
+import static com.hazelcast.utils.GitHubUtils.getCommitCount;
+import static com.hazelcast.utils.GitHubUtils.getMergeCommitSha;
+import static com.hazelcast.utils.GitHubUtils.getPullRequest;
+import static com.hazelcast.utils.GitHubUtils.getPullRequestFiles;
+import static com.hazelcast.utils.GitHubUtils.isClosed;
+import static com.hazelcast.utils.GitHubUtils.isMerged;
+import static java.util.Collections.emptyList;
+
+class PullRequestReader {
+
+    private final GHRepository repo;
+    private final PullRequestStore pullRequestStore;
+    private final GitHubGraphQLReader gitHubGraphQLReader;
+    private final LocalGitDiffReader localGitDiffReader;
+
+    PullRequestReader(PropertyReader propertyReader, GHRepository repo, Repository repository) throws IOException {
+        this.repo = repo;
+        this.pullRequestStore = PullRequestStore.fromPropertyReader(propertyReader, repository);
+        this.gitHubGraphQLReader = GitHubGraphQLReader.fromPropertyReader(propertyReader, repo);
+        this.localGitDiffReader = LocalGitDiffReader.fromPropertyReader(propertyReader, repository);
+    }
+
+    // the result is in the order of the given pull requests, the executor is optional for a concurrent read
+    List<PullRequestData> readPullRequests(List<Integer> pullRequests, ExecutorService executor) throws IOException {
+        if (gitHubGraphQLReader != null) {
+            return readPullRequestsWithGraphQL(pullRequests);
+        }
+
+        List<PullRequestData> pullRequestDataList = new ArrayList<>(pullRequests.size());
+        if (executor == null) {
+            for (Integer pullRequest : pullRequests) {
+                debug("Reading pull request %d...", pullRequest);
+                pullRequestDataList.add(readPullRequest(pullRequest));
+            }
+            return pullRequestDataList;
+        }
+
+        List<Future<PullRequestData>> pullRequestFutures = new ArrayList<>(pullRequests.size());
+        for (Integer pullRequest : pullRequests) {
+            pullRequestFutures.add(executor.submit(() -> readPullRequest(pullRequest)));
+        }
+        for (Future<PullRequestData> future : pullRequestFutures) {
+            pullRequestDataList.add(getResult(future));
+        }
+        return pullRequestDataList;
+    }
+
+    private List<PullRequestData> readPullRequestsWithGraphQL(List<Integer> pullRequests) throws IOException {
+        Map<Integer, PullRequestData> storedPullRequests = new HashMap<>();
+        List<Integer> missingPullRequests = new ArrayList<>();
+        for (Integer pullRequest : pullRequests) {
+            PullRequestData pullRequestData = (pullRequestStore == null) ? null : pullRequestStore.getOrNull(pullRequest);
+            if (pullRequestData == null) {
+                missingPullRequests.add(pullRequest);
+            } else {
+                storedPullRequests.put(pullRequest, pullRequestData);
+            }
+        }
+
+        debug("Reading %d pull requests via GitHub GraphQL...", missingPullRequests.size());
+        Map<Integer, PullRequestData> readPullRequests = gitHubGraphQLReader.readPullRequests(missingPullRequests);
+
+        List<PullRequestData> pullRequestDataList = new ArrayList<>(pullRequests.size());
+        for (Integer pullRequest : pullRequests) {
+            PullRequestData pullRequestData = storedPullRequests.get(pullRequest);
+            if (pullRequestData == null) {
+                pullRequestData = readRenamedFilesWithRest(readPullRequests.get(pullRequest));
+                if (pullRequestStore != null) {
+                    pullRequestStore.put(pullRequestData);
+                }
+            }
+            pullRequestDataList.add(pullRequestData);
+        }
+        return pullRequestDataList;
+    }
+
+    private PullRequestData readRenamedFilesWithRest(PullRequestData pullRequestData) {
+        for (PullRequestFile pullRequestFile : pullRequestData.getPullRequestFiles()) {
+            if (GitHubStatus.fromString(pullRequestFile.getStatus()) == GitHubStatus.RENAMED) {
+                // the old filename is parsed from the diff patch, which is not available via GraphQL
+                int gitPullRequest = pullRequestData.getGitPullRequest();
+                List<PullRequestFile> pullRequestFiles = readPullRequestFiles(getPullRequest(repo, gitPullRequest));
+                return new PullRequestData(gitPullRequest, pullRequestData.getAuthor(), pullRequestData.getStatus(),
+                        pullRequestFiles, pullRequestData.getMergeCommitSha());
+            }
+        }
+        return pullRequestData;
+    }
+
+    private PullRequestData readPullRequest(int gitPullRequest) throws IOException {
+        if (pullRequestStore != null) {
+            PullRequestData pullRequestData = pullRequestStore.getOrNull(gitPullRequest);
+            // a PR stored by a GraphQL run is read again, since the changed lines are parsed from the diff patches
+            if (pullRequestData != null && pullRequestData.hasPatches()) {
+                return pullRequestData;
+            }
+        }
+
+        String author = getAuthor(repo, gitPullRequest);
+
+        GHPullRequest pullRequest = getPullRequest(repo, gitPullRequest);
+        PullRequestStatus status = getPullRequestStatus(pullRequest);
+        if (status != PullRequestStatus.MERGED) {
+            return new PullRequestData(gitPullRequest, author, status, emptyList());
+        }
+
+        String mergeCommitSha = getMergeCommitSha(pullRequest);
+        List<PullRequestFile> pullRequestFiles = (localGitDiffReader == null)
+                ? readPullRequestFiles(pullRequest)
+                : readPullRequestFilesFromLocalGit(pullRequest, mergeCommitSha);
+        PullRequestData pullRequestData = new PullRequestData(gitPullRequest, author, status, pullRequestFiles, mergeCommitSha);
+        if (pullRequestStore != null) {
+            pullRequestStore.put(pullRequestData);
+        }
+        return pullRequestData;
+    }
+
+    private List<PullRequestFile> readPullRequestFilesFromLocalGit(GHPullRequest pullRequest, String mergeCommitSha)
+            throws IOException {
+        try {
+            List<PullRequestFile> pullRequestFiles = localGitDiffReader.readPullRequestFiles(mergeCommitSha,
+                    getCommitCount(pullRequest));
+            if (pullRequestFiles == null) {
+                debugYellow("PR %d was merged with multiple commits via rebase (using GitHub)!", pullRequest.getNumber());
+                return readPullRequestFiles(pullRequest);
+            }
+            return pullRequestFiles;
+        } catch (MissingObjectException e) {
+            debugYellow("Merge commit %s of PR %d is not in the local Git repository (using GitHub)!", mergeCommitSha,
+                    pullRequest.getNumber());
+            return readPullRequestFiles(pullRequest);
+        }
+    }
+
+    private static List<PullRequestFile> readPullRequestFiles(GHPullRequest pullRequest) {
+        List<PullRequestFile> pullRequestFiles = new ArrayList<>();
+        for (GHPullRequestFileDetail fileDetail : getPullRequestFiles(pullRequest)) {
+            pullRequestFiles.add(PullRequestFile.fromFileDetail(fileDetail));
+        }
+        return pullRequestFiles;
+    }
+
+    private static PullRequestStatus getPullRequestStatus(GHPullRequest pullRequest) {
+        if (isMerged(pullRequest)) {
+            return PullRequestStatus.MERGED;
+        }
+        if (isClosed(pullRequest)) {
+            return PullRequestStatus.CLOSED;
+        }
+        return PullRequestStatus.OPEN;
+    }
+
+    static <T> T getResult(Future<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for a result", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.qasonar.codecoverage;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.reflect.TypeToken;
+import com.hazelcast.utils.JavaType;
+import com.hazelcast.utils.PropertyReader;
+import com.hazelcast.utils.Repository;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.hazelcast.utils.DebugUtils.debug;
+import static com.hazelcast.utils.DebugUtils.debugRed;
+import static com.hazelcast.utils.TimeTracker.count;
+import static com.hazelcast.utils.TimeTrackerLabel.PULL_REQUEST_STORE_HIT;
+import static com.hazelcast.utils.TimeTrackerLabel.PULL_REQUEST_STORE_MISS;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.Files.createDirectories;
+import static java.nio.file.Files.createTempFile;
+import static java.nio.file.Files.deleteIfExists;
+import static java.nio.file.Files.move;
+import static java.nio.file.Files.newBufferedReader;
+import static java.nio.file.Files.newBufferedWriter;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+class PullRequestStore {
+
+    // has to be increased on incompatible changes of the stored classes, so the outdated entries are read again
+    static final int SCHEMA_VERSION = 2;
+
+    private static final String SCHEMA_VERSION_PROPERTY = "schemaVersion";
+    private static final String DATA_PROPERTY = "data";
+
+    private static final Type JAVA_TYPES_TYPE = new TypeToken<Map<String, JavaType>>() { }.getType();
+
+    private final Gson gson = new Gson();
+
+    private final Path directory;
+    private final boolean isFullRun;
+
+    PullRequestStore(String directory, Repository repository) throws IOException {
+        this(directory, repository, false);
+    }
+
+    PullRequestStore(String directory, Repository repository, boolean isFullRun) throws IOException {
+        this.directory = Paths.get(directory, repository.getRepositoryName()).toAbsolutePath();
+        this.isFullRun = isFullRun;
+        createDirectories(this.directory);
+        debug("Using pull request store at %s%s", this.directory, isFullRun ? " (full run)" : "");
+    }
+
+    static PullRequestStore fromPropertyReader(PropertyReader props, Repository repository) throws IOException {
+        String directory = props.getPullRequestStoreDirectory();
+        if (directory == null || directory.isEmpty()) {
+            return null;
+        }
+        return new PullRequestStore(directory, repository, props.isFullRun());
+    }
+
+    PullRequestData getOrNull(int gitPullRequest) {
+        if (isFullRun) {
+            count(PULL_REQUEST_STORE_MISS);
+            return null;
+        }
+        try {
+            PullRequestData pullRequestData = read(getPath(gitPullRequest), PullRequestData.class);
+            if (pullRequestData == null) {
+                debug("Stored PR %d was written with another schema version", gitPullRequest);
+                count(PULL_REQUEST_STORE_MISS);
+                return null;
+            }
+            count(PULL_REQUEST_STORE_HIT);
+            return pullRequestData;
+        } catch (NoSuchFileException e) {
+            count(PULL_REQUEST_STORE_MISS);
+            return null;
+        } catch (IOException | JsonParseException e) {
+            debugRed("Could not read PR %d from pull request store: %s", gitPullRequest, e.getMessage());
+            count(PULL_REQUEST_STORE_MISS);
+            return null;
+        }
+    }
+
+    void put(PullRequestData pullRequestData) throws IOException {
+        // just merged PRs are immutable, so all other states have to be fetched again on the next run
+        if (pullRequestData.getStatus() != PullRequestStatus.MERGED) {
+            return;
+        }
+        write(getPath(pullRequestData.getGitPullRequest()), pullRequestData);
+    }
+
+    // the Java types of the files, which were classified at the merge commit of a merged PR
+    Map<String, JavaType> getJavaTypes(String mergeCommitSha) {
+        if (isFullRun) {
+            return new HashMap<>();
+        }
+        try {
+            Map<String, JavaType> javaTypes = read(getJavaTypesPath(mergeCommitSha), JAVA_TYPES_TYPE);
+            return (javaTypes == null) ? new HashMap<>() : javaTypes;
+        } catch (NoSuchFileException e) {
+            return new HashMap<>();
+        } catch (IOException | JsonParseException e) {
+            debugRed("Could not read Java types of merge commit %s from pull request store: %s", mergeCommitSha, e.getMessage());
+            return new HashMap<>();
+        }
+    }
+
+    void putJavaTypes(String mergeCommitSha, Map<String, JavaType> javaTypes) throws IOException {
+        write(getJavaTypesPath(mergeCommitSha), javaTypes);
+    }
+
+    // returns null if the entry was written with another schema version
+    private <T> T read(Path path, Type type) throws IOException {
+        try (Reader reader = newBufferedReader(path, UTF_8)) {
+            JsonElement element = new JsonParser().parse(reader);
+            if (!element.isJsonObject()) {
+                return null;
+            }
+            JsonObject entry = element.getAsJsonObject();
+            JsonElement schemaVersion = entry.get(SCHEMA_VERSION_PROPERTY);
+            if (schemaVersion == null || !schemaVersion.isJsonPrimitive() || !schemaVersion.getAsJsonPrimitive().isNumber()
+                    || schemaVersion.getAsInt() != SCHEMA_VERSION) {
+                return null;
+            }
+            return gson.fromJson(entry.get(DATA_PROPERTY), type);
+        }
+    }
+
+    private void write(Path path, Object value) throws IOException {
+        JsonObject entry = new JsonObject();
+        entry.addProperty(SCHEMA_VERSION_PROPERTY, SCHEMA_VERSION);
+        entry.add(DATA_PROPERTY, gson.toJsonTree(value));
+
+        Path tmpPath = createTempFile(directory, "pr", ".tmp");
+        try {
+            try (Writer writer = newBufferedWriter(tmpPath, UTF_8)) {
+                gson.toJson(entry, writer);
+            }
+            move(tmpPath, path, REPLACE_EXISTING, ATOMIC_MOVE);
+        } finally {
+            deleteIfExists(tmpPath);
+        }
+    }
+
+    private Path getPath(int gitPullRequest) {
+        return directory.resolve(gitPullRequest + ".json");
+    }
+
+    private Path getJavaTypesPath(String mergeCommitSha) {
+        return directory.resolve("types-" + mergeCommitSha + ".json");
+    }
+}
@@ -17,17 +17,18 @@
 package com.hazelcast.qasonar.codecoverage;
 
 import com.hazelcast.qasonar.utils.CommandLineOptions;
-import com.hazelcast.qasonar.utils.WhiteList;
 import com.hazelcast.utils.PropertyReader;
+import com.hazelcast.utils.RestClient;
 import org.kohsuke.github.GHRepository;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 
-import static com.hazelcast.qasonar.utils.WhiteListBuilder.fromJsonFile;
 import static com.hazelcast.utils.DebugUtils.debug;
 import static com.hazelcast.utils.DebugUtils.debugCommandLine;
 import static com.hazelcast.utils.DebugUtils.debugGreen;
-import static com.hazelcast.utils.GitHubUtils.getGitHubRepository;
 import static com.hazelcast.utils.TimeTracker.printTimeTracks;
 
 public class PullRequests {
@@ -40,28 +41,33 @@ public class PullRequests {
         this.commandLineOptions = commandLineOptions;
     }
 
-    public void run() throws IOException {
-        debugCommandLine(propertyReader, commandLineOptions.getPullRequests());
+    public void run(RestClient restClient) throws IOException {
+        // System.out must not be closed
+        run(new CodeCoverageContext(propertyReader, restClient), new BufferedWriter(new OutputStreamWriter(System.out)));
+    }
 
-        debug("Parsing whitelist...");
-        WhiteList whiteList = fromJsonFile();
+    public void run(CodeCoverageContext context, Writer stdout) throws IOException {
+        debugCommandLine(propertyReader, commandLineOptions.getPullRequests());
+        if (propertyReader.isFullRun()) {
+            context.invalidateResources();
+        }
 
-        debug("Connecting to GitHub...");
-        GHRepository repo = getGitHubRepository(propertyReader);
+        GHRepository repo = context.getGitHubRepository(propertyReader.getGitHubRepository());
 
         debug("Reading code coverage data for %d PRs...", commandLineOptions.getPullRequests().size());
-        JsonDownloader jsonDownloader = new JsonDownloader(propertyReader);
-        CodeCoverageReader reader = new CodeCoverageReader(propertyReader, repo, jsonDownloader);
+        CodeCoverageReader reader = new CodeCoverageReader(propertyReader, repo, context.getJsonDownloader());
+        context.populateResources(reader, propertyReader);
         reader.run(commandLineOptions.getPullRequests());
 
         debug("Analyzing code coverage data of %d files...", reader.getFiles().size());
-        CodeCoverageAnalyzer analyzer = new CodeCoverageAnalyzer(reader.getFiles(), propertyReader, repo, whiteList);
+        CodeCoverageAnalyzer analyzer = new CodeCoverageAnalyzer(reader.getFiles(), propertyReader, repo,
+                context.getWhiteList());
         analyzer.run();
 
         debug("Printing code coverage data...");
         CodeCoveragePrinter printer = new CodeCoveragePrinter(reader.getPullRequests(), analyzer.getFiles(),
                 propertyReader, commandLineOptions);
-        printer.run();
+        printer.run(stdout);
 
         printTimeTracks();
         debugGreen("Done!\n");
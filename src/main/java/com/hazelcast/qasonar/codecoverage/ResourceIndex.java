@@ -0,0 +1,369 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.qasonar.codecoverage;
+
+import com.hazelcast.utils.PropertyReader;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+import static com.hazelcast.utils.DebugUtils.debugRed;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.Files.createDirectories;
+import static java.nio.file.Files.createTempFile;
+import static java.nio.file.Files.deleteIfExists;
+import static java.nio.file.Files.exists;
+import static java.nio.file.Files.getLastModifiedTime;
+import static java.nio.file.Files.move;
+import static java.nio.file.Files.newOutputStream;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.READ;
+import static org.apache.commons.codec.digest.DigestUtils.sha1Hex;
+
+// maps module and path of the SonarQube file resources to their resource id, the paths are stored as a trie of
+// interned segments, so common prefixes are stored once and lookups can walk the file name without allocations
+final class ResourceIndex {
+
+    static final int NO_RESOURCE = -1;
+
+    private static final int SNAPSHOT_MAGIC = 0x51415249;
+    private static final int SNAPSHOT_VERSION = 1;
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int ROOT = 0;
+    private static final char SEPARATOR = '/';
+    private static final String SOURCE_SEGMENT = "src";
+    private static final int HASH_PRIME = 31;
+    private static final int HASH_MULTIPLIER = 0x9E3779B9;
+    private static final long INT_MASK = 0xFFFFFFFFL;
+    private static final int INT_BITS = 32;
+    private static final int HALF_INT_BITS = 16;
+
+    // the id of a segment is its index, the slots of the hash table store the id + 1
+    private String[] segments;
+    private int[] segmentSlots;
+    private int segmentCount;
+
+    // the edges of the trie are keyed by parent node and segment id, the slots store the child node + 1
+    private long[] edgeKeys;
+    private int[] edgeChildren;
+    private int edgeCount;
+
+    private int[] resourceIds;
+    private int nodeCount;
+    private int resourceCount;
+
+    ResourceIndex() {
+        segments = new String[INITIAL_CAPACITY];
+        segmentSlots = new int[INITIAL_CAPACITY * 2];
+        edgeKeys = new long[INITIAL_CAPACITY * 2];
+        edgeChildren = new int[INITIAL_CAPACITY * 2];
+        resourceIds = new int[INITIAL_CAPACITY];
+        Arrays.fill(resourceIds, NO_RESOURCE);
+        nodeCount = 1;
+    }
+
+    int size() {
+        return resourceCount;
+    }
+
+    void put(String module, String path, int resourceId) {
+        int node = getOrAddChild(ROOT, internSegment(module, 0, module.length()));
+        int start = 0;
+        while (true) {
+            int end = getSegmentEnd(path, start);
+            node = getOrAddChild(node, internSegment(path, start, end));
+            if (end == path.length()) {
+                break;
+            }
+            start = end + 1;
+        }
+        if (resourceIds[node] == NO_RESOURCE) {
+            resourceCount++;
+        }
+        resourceIds[node] = resourceId;
+    }
+
+    boolean containsModule(String module) {
+        return getChild(ROOT, findSegment(module, 0, module.length())) != NO_RESOURCE;
+    }
+
+    // the module is the segment before the first "src" segment, e.g. hazelcast/src/main/java/Foo.java
+    int getResourceId(String fileName) {
+        int moduleStart = -1;
+        int moduleEnd = -1;
+        int start = 0;
+        while (true) {
+            int end = getSegmentEnd(fileName, start);
+            if (end - start == SOURCE_SEGMENT.length() && fileName.startsWith(SOURCE_SEGMENT, start)) {
+                if (moduleStart == -1) {
+                    return NO_RESOURCE;
+                }
+                int node = getChild(ROOT, findSegment(fileName, moduleStart, moduleEnd));
+                return getResourceId(node, fileName, start);
+            }
+            if (end == fileName.length()) {
+                throw new IllegalArgumentException("Could not find module in file name: " + fileName);
+            }
+            moduleStart = start;
+            moduleEnd = end;
+            start = end + 1;
+        }
+    }
+
+    private int getResourceId(int node, String fileName, int start) {
+        while (node != NO_RESOURCE) {
+            int end = getSegmentEnd(fileName, start);
+            node = getChild(node, findSegment(fileName, start, end));
+            if (end == fileName.length()) {
+                break;
+            }
+            start = end + 1;
+        }
+        return (node == NO_RESOURCE) ? NO_RESOURCE : resourceIds[node];
+    }
+
+    private static int getSegmentEnd(String value, int start) {
+        int end = value.indexOf(SEPARATOR, start);
+        return (end == -1) ? value.length() : end;
+    }
+
+    private int findSegment(String value, int start, int end) {
+        int mask = segmentSlots.length - 1;
+        int slot = hash(value, start, end) & mask;
+        int length = end - start;
+        while (segmentSlots[slot] != 0) {
+            int segmentId = segmentSlots[slot] - 1;
+            String segment = segments[segmentId];
+            if (segment.length() == length && segment.regionMatches(0, value, start, length)) {
+                return segmentId;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return NO_RESOURCE;
+    }
+
+    private int internSegment(String value, int start, int end) {
+        int segmentId = findSegment(value, start, end);
+        if (segmentId != NO_RESOURCE) {
+            return segmentId;
+        }
+        if (segmentCount == segments.length) {
+            segments = Arrays.copyOf(segments, segmentCount * 2);
+            rehashSegments(segmentSlots.length * 2);
+        }
+        segmentId = segmentCount++;
+        segments[segmentId] = value.substring(start, end);
+        insertSegmentSlot(segmentId);
+        return segmentId;
+    }
+
+    private void rehashSegments(int capacity) {
+        segmentSlots = new int[capacity];
+        for (int segmentId = 0; segmentId < segmentCount; segmentId++) {
+            insertSegmentSlot(segmentId);
+        }
+    }
+
+    private void insertSegmentSlot(int segmentId) {
+        String segment = segments[segmentId];
+        int mask = segmentSlots.length - 1;
+        int slot = hash(segment, 0, segment.length()) & mask;
+        while (segmentSlots[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        segmentSlots[slot] = segmentId + 1;
+    }
+
+    private int getChild(int node, int segmentId) {
+        if (node == NO_RESOURCE || segmentId == NO_RESOURCE) {
+            return NO_RESOURCE;
+        }
+        long key = edgeKey(node, segmentId);
+        int mask = edgeKeys.length - 1;
+        int slot = hash(key) & mask;
+        while (edgeChildren[slot] != 0) {
+            if (edgeKeys[slot] == key) {
+                return edgeChildren[slot] - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return NO_RESOURCE;
+    }
+
+    private int getOrAddChild(int node, int segmentId) {
+        int child = getChild(node, segmentId);
+        if (child != NO_RESOURCE) {
+            return child;
+        }
+        if (edgeCount * 2 >= edgeKeys.length) {
+            rehashEdges(edgeKeys.length * 2);
+        }
+        if (nodeCount == resourceIds.length) {
+            resourceIds = Arrays.copyOf(resourceIds, nodeCount * 2);
+            Arrays.fill(resourceIds, nodeCount, resourceIds.length, NO_RESOURCE);
+        }
+        child = nodeCount++;
+        insertEdge(edgeKey(node, segmentId), child);
+        edgeCount++;
+        return child;
+    }
+
+    private void rehashEdges(int capacity) {
+        long[] oldKeys = edgeKeys;
+        int[] oldChildren = edgeChildren;
+        edgeKeys = new long[capacity];
+        edgeChildren = new int[capacity];
+        for (int slot = 0; slot < oldKeys.length; slot++) {
+            if (oldChildren[slot] != 0) {
+                insertEdge(oldKeys[slot], oldChildren[slot] - 1);
+            }
+        }
+    }
+
+    private void insertEdge(long key, int child) {
+        int mask = edgeKeys.length - 1;
+        int slot = hash(key) & mask;
+        while (edgeChildren[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        edgeKeys[slot] = key;
+        edgeChildren[slot] = child + 1;
+    }
+
+    private static long edgeKey(int node, int segmentId) {
+        return ((long) node << INT_BITS) | (segmentId & INT_MASK);
+    }
+
+    private static int hash(String value, int start, int end) {
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = HASH_PRIME * hash + value.charAt(i);
+        }
+        return mix(hash);
+    }
+
+    private static int hash(long key) {
+        return mix((int) (key ^ (key >>> INT_BITS)));
+    }
+
+    private static int mix(int hash) {
+        int mixed = hash * HASH_MULTIPLIER;
+        return mixed ^ (mixed >>> HALF_INT_BITS);
+    }
+
+    void writeSnapshot(Path path) throws IOException {
+        createDirectories(path.toAbsolutePath().getParent());
+        Path tmpPath = createTempFile(path.toAbsolutePath().getParent(), "index", ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(newOutputStream(tmpPath)))) {
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeInt(SNAPSHOT_VERSION);
+                out.writeInt(segmentCount);
+                for (int segmentId = 0; segmentId < segmentCount; segmentId++) {
+                    byte[] bytes = segments[segmentId].getBytes(UTF_8);
+                    out.writeInt(bytes.length);
+                    out.write(bytes);
+                }
+                writeInts(out, segmentSlots, segmentSlots.length);
+                out.writeInt(edgeKeys.length);
+                for (long edgeKey : edgeKeys) {
+                    out.writeLong(edgeKey);
+                }
+                writeInts(out, edgeChildren, edgeChildren.length);
+                out.writeInt(edgeCount);
+                writeInts(out, resourceIds, nodeCount);
+                out.writeInt(resourceCount);
+            }
+            move(tmpPath, path, REPLACE_EXISTING, ATOMIC_MOVE);
+        } finally {
+            deleteIfExists(tmpPath);
+        }
+    }
+
+    static Path getSnapshotPathOrNull(PropertyReader props) {
+        String directory = props.getResourceIndexDirectory();
+        if (directory == null || directory.isEmpty()) {
+            return null;
+        }
+        String key = props.getHost() + "|" + String.join(",", props.getProjectResourceIds());
+        return Paths.get(directory, sha1Hex(key) + ".idx");
+    }
+
+    static ResourceIndex readSnapshotOrNull(Path path, long ttlMillis) {
+        try {
+            if (!exists(path) || System.currentTimeMillis() - getLastModifiedTime(path).toMillis() >= ttlMillis) {
+                return null;
+            }
+            return readSnapshot(path);
+        } catch (IOException | RuntimeException e) {
+            debugRed("Could not read resource index snapshot %s: %s", path, e.getMessage());
+            return null;
+        }
+    }
+
+    static ResourceIndex readSnapshot(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != SNAPSHOT_MAGIC || buffer.getInt() != SNAPSHOT_VERSION) {
+                throw new IOException("Invalid resource index snapshot: " + path);
+            }
+            ResourceIndex index = new ResourceIndex();
+            index.segmentCount = buffer.getInt();
+            index.segments = new String[Math.max(index.segmentCount, INITIAL_CAPACITY)];
+            for (int segmentId = 0; segmentId < index.segmentCount; segmentId++) {
+                byte[] bytes = new byte[buffer.getInt()];
+                buffer.get(bytes);
+                index.segments[segmentId] = new String(bytes, UTF_8);
+            }
+            index.segmentSlots = readInts(buffer);
+            index.edgeKeys = new long[buffer.getInt()];
+            buffer.asLongBuffer().get(index.edgeKeys);
+            buffer.position(buffer.position() + index.edgeKeys.length * Long.BYTES);
+            index.edgeChildren = readInts(buffer);
+            index.edgeCount = buffer.getInt();
+            int[] nodeResourceIds = readInts(buffer);
+            index.nodeCount = nodeResourceIds.length;
+            index.resourceIds = Arrays.copyOf(nodeResourceIds, Math.max(index.nodeCount, INITIAL_CAPACITY));
+            Arrays.fill(index.resourceIds, index.nodeCount, index.resourceIds.length, NO_RESOURCE);
+            index.resourceCount = buffer.getInt();
+            return index;
+        }
+    }
+
+    private static void writeInts(DataOutputStream out, int[] values, int length) throws IOException {
+        out.writeInt(length);
+        for (int i = 0; i < length; i++) {
+            out.writeInt(values[i]);
+        }
+    }
+
+    private static int[] readInts(ByteBuffer buffer) {
+        int[] values = new int[buffer.getInt()];
+        buffer.asIntBuffer().get(values);
+        buffer.position(buffer.position() + values.length * Integer.BYTES);
+        return values;
+    }
+}
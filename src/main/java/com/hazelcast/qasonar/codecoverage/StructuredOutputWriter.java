@@ -0,0 +1,255 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.qasonar.codecoverage;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.hazelcast.utils.GitHubStatus;
+import com.hazelcast.utils.PropertyReader;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.SortedMap;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.Files.newBufferedWriter;
+import static org.apache.commons.io.IOUtils.closeQuietly;
+
+// writes the analyzed files and the summary as JSON Lines and CSV for dashboards and other tools
+class StructuredOutputWriter implements Closeable {
+
+    private static final char CSV_SEPARATOR = ';';
+    private static final String CSV_SUFFIX = ".csv";
+    private static final String CSV_SUMMARY_SUFFIX = "-summary.csv";
+
+    private static final String[] CSV_COLUMNS = {
+            "repository", "fileName", "resourceId", "pullRequests", "author", "status", "additions", "deletions", "changes",
+            "coverage", "lineCoverage", "branchCoverage", "ideaCoverage", "diffCoverage", "diffCoverageLines", "coverageType",
+            "coverageForCalculation", "qaCheck", "comment",
+    };
+    private static final String[] CSV_SUMMARY_COLUMNS = {
+            "repository", "group", "files", "passedFiles", "average", "min", "max", "minCodeCoverage",
+    };
+
+    private final Gson gson = new GsonBuilder().serializeSpecialFloatingPointValues().create();
+
+    private final Writer jsonLinesWriter;
+    private final Writer csvWriter;
+    private final Writer csvSummaryWriter;
+
+    StructuredOutputWriter(Writer jsonLinesWriter, Writer csvWriter, Writer csvSummaryWriter) throws IOException {
+        this.jsonLinesWriter = jsonLinesWriter;
+        this.csvWriter = csvWriter;
+        this.csvSummaryWriter = csvSummaryWriter;
+
+        writeCsvRow(csvWriter, (Object[]) CSV_COLUMNS);
+        writeCsvRow(csvSummaryWriter, (Object[]) CSV_SUMMARY_COLUMNS);
+    }
+
+    static StructuredOutputWriter fromPropertyReader(PropertyReader props) throws IOException {
+        String jsonLinesFile = props.getJsonLinesFile();
+        String csvFile = props.getCsvFile();
+        if (jsonLinesFile == null && csvFile == null) {
+            return null;
+        }
+        return new StructuredOutputWriter(openOrNull(jsonLinesFile), openOrNull(csvFile), openOrNull(getCsvSummaryFile(csvFile)));
+    }
+
+    static String getCsvSummaryFile(String csvFile) {
+        if (csvFile == null) {
+            return null;
+        }
+        String baseName = csvFile.endsWith(CSV_SUFFIX) ? csvFile.substring(0, csvFile.length() - CSV_SUFFIX.length()) : csvFile;
+        return baseName + CSV_SUMMARY_SUFFIX;
+    }
+
+    void write(PropertyReader props, Map<Integer, PullRequestStatus> pullRequests, SortedMap<String, FileContainer> files)
+            throws IOException {
+        String repository = props.getGitHubRepository();
+        CoverageStatistics addedCoverage = new CoverageStatistics();
+        CoverageStatistics modifiedCoverage = new CoverageStatistics();
+        int qaCheckPassCount = 0;
+        for (FileContainer fileContainer : files.values()) {
+            if (fileContainer.qaCheck) {
+                qaCheckPassCount++;
+            }
+            if (fileContainer.isForCoverageCalculation()) {
+                CoverageStatistics statistics = (fileContainer.status == GitHubStatus.ADDED) ? addedCoverage : modifiedCoverage;
+                statistics.add(fileContainer.getCoverageForCalculation(), fileContainer.qaCheck);
+            }
+            if (jsonLinesWriter != null) {
+                writeJsonLine(toJson(repository, fileContainer));
+            }
+            writeCsvRow(csvWriter, repository, fileContainer.fileName, fileContainer.resourceId, fileContainer.pullRequests,
+                    fileContainer.author, getStatus(fileContainer), fileContainer.gitHubAdditions, fileContainer.gitHubDeletions,
+                    fileContainer.gitHubChanges, getCoverage(fileContainer.coverage, fileContainer.numericCoverage),
+                    getCoverage(fileContainer.lineCoverage, fileContainer.numericLineCoverage),
+                    getCoverage(fileContainer.branchCoverage, fileContainer.numericBranchCoverage), fileContainer.ideaCoverage,
+                    getCoverage(fileContainer.diffCoverage, fileContainer.numericDiffCoverage), fileContainer.diffCoverageLines,
+                    fileContainer.coverageType, getCoverageForCalculation(fileContainer), fileContainer.qaCheck,
+                    fileContainer.comment);
+        }
+        writeSummary(props, pullRequests, files.size(), qaCheckPassCount, addedCoverage, modifiedCoverage);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush(jsonLinesWriter);
+            flush(csvWriter);
+            flush(csvSummaryWriter);
+        } finally {
+            closeQuietly(jsonLinesWriter);
+            closeQuietly(csvWriter);
+            closeQuietly(csvSummaryWriter);
+        }
+    }
+
+    private void writeSummary(PropertyReader props, Map<Integer, PullRequestStatus> pullRequests, int fileCount,
+                              int qaCheckPassCount, CoverageStatistics addedCoverage, CoverageStatistics modifiedCoverage)
+            throws IOException {
+        String repository = props.getGitHubRepository();
+        double minCodeCoverage = props.getMinCodeCoverage(GitHubStatus.ADDED);
+        double minCodeCoverageModified = props.getMinCodeCoverage(GitHubStatus.MODIFIED);
+        if (jsonLinesWriter != null) {
+            JsonObject summary = new JsonObject();
+            summary.addProperty("type", "summary");
+            summary.addProperty("repository", repository);
+            summary.addProperty("files", fileCount);
+            summary.addProperty("passedFiles", qaCheckPassCount);
+            summary.addProperty("minCodeCoverage", minCodeCoverage);
+            summary.addProperty("minCodeCoverageModified", minCodeCoverageModified);
+            summary.add("added", toJson(addedCoverage));
+            summary.add("modified", toJson(modifiedCoverage));
+            summary.addProperty("pullRequests", pullRequests.size());
+            JsonObject unmergedPullRequests = new JsonObject();
+            for (Map.Entry<Integer, PullRequestStatus> entry : pullRequests.entrySet()) {
+                if (entry.getValue() != PullRequestStatus.MERGED) {
+                    unmergedPullRequests.addProperty(String.valueOf(entry.getKey()), entry.getValue().name());
+                }
+            }
+            summary.add("unmergedPullRequests", unmergedPullRequests);
+            writeJsonLine(summary);
+        }
+        writeCsvRow(csvSummaryWriter, repository, "all", fileCount, qaCheckPassCount, null, null, null, minCodeCoverage);
+        writeCsvSummaryRow(repository, "added", addedCoverage, minCodeCoverage);
+        writeCsvSummaryRow(repository, "modified", modifiedCoverage, minCodeCoverageModified);
+    }
+
+    private static JsonObject toJson(String repository, FileContainer fileContainer) {
+        JsonObject json = new JsonObject();
+        json.addProperty("type", "file");
+        json.addProperty("repository", repository);
+        json.addProperty("fileName", fileContainer.fileName);
+        json.addProperty("resourceId", fileContainer.resourceId);
+        json.addProperty("pullRequests", fileContainer.pullRequests);
+        json.addProperty("author", fileContainer.author);
+        json.addProperty("status", getStatus(fileContainer));
+        json.addProperty("additions", fileContainer.gitHubAdditions);
+        json.addProperty("deletions", fileContainer.gitHubDeletions);
+        json.addProperty("changes", fileContainer.gitHubChanges);
+        json.addProperty("coverage", getCoverage(fileContainer.coverage, fileContainer.numericCoverage));
+        json.addProperty("lineCoverage", getCoverage(fileContainer.lineCoverage, fileContainer.numericLineCoverage));
+        json.addProperty("branchCoverage", getCoverage(fileContainer.branchCoverage, fileContainer.numericBranchCoverage));
+        json.addProperty("ideaCoverage", fileContainer.ideaCoverage);
+        json.addProperty("diffCoverage", getCoverage(fileContainer.diffCoverage, fileContainer.numericDiffCoverage));
+        json.addProperty("diffCoverageLines", fileContainer.diffCoverageLines);
+        json.addProperty("coverageType", fileContainer.coverageType.name());
+        json.addProperty("coverageForCalculation", getCoverageForCalculation(fileContainer));
+        json.addProperty("qaCheck", fileContainer.qaCheck);
+        json.addProperty("comment", fileContainer.comment);
+        return json;
+    }
+
+    private static JsonObject toJson(CoverageStatistics statistics) {
+        JsonObject json = new JsonObject();
+        json.addProperty("files", statistics.getFileCount());
+        json.addProperty("passedFiles", statistics.getPassedFileCount());
+        if (statistics.getFileCount() > 0) {
+            json.addProperty("average", statistics.getAverage());
+            json.addProperty("min", statistics.getMin());
+            json.addProperty("max", statistics.getMax());
+        }
+        return json;
+    }
+
+    // the numeric value is just valid if SonarQube delivered the metric
+    private static Double getCoverage(String coverage, double numericCoverage) {
+        return (coverage == null) ? null : numericCoverage;
+    }
+
+    private static Double getCoverageForCalculation(FileContainer fileContainer) {
+        if (!fileContainer.isForCoverageCalculation() || fileContainer.coverageType == FileContainer.CoverageType.NONE) {
+            return null;
+        }
+        return fileContainer.getCoverageForCalculation();
+    }
+
+    private void writeCsvSummaryRow(String repository, String group, CoverageStatistics statistics, double minCodeCoverage)
+            throws IOException {
+        boolean hasFiles = statistics.getFileCount() > 0;
+        writeCsvRow(csvSummaryWriter, repository, group, statistics.getFileCount(), statistics.getPassedFileCount(),
+                hasFiles ? statistics.getAverage() : null, hasFiles ? statistics.getMin() : null,
+                hasFiles ? statistics.getMax() : null, minCodeCoverage);
+    }
+
+    private void writeJsonLine(JsonObject json) throws IOException {
+        gson.toJson(json, jsonLinesWriter);
+        jsonLinesWriter.write('\n');
+    }
+
+    private static String getStatus(FileContainer fileContainer) {
+        return (fileContainer.status == null) ? null : fileContainer.status.name();
+    }
+
+    private static void writeCsvRow(Writer writer, Object... values) throws IOException {
+        if (writer == null) {
+            return;
+        }
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(CSV_SEPARATOR);
+            }
+            if (values[i] != null) {
+                writer.write(escapeCsv(values[i].toString()));
+            }
+        }
+        writer.write('\n');
+    }
+
+    static String escapeCsv(String value) {
+        if (value.indexOf(CSV_SEPARATOR) == -1 && value.indexOf('"') == -1 && value.indexOf('\n') == -1
+                && value.indexOf('\r') == -1) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static Writer openOrNull(String fileName) throws IOException {
+        return (fileName == null) ? null : newBufferedWriter(Paths.get(fileName), UTF_8);
+    }
+
+    private static void flush(Writer writer) throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.qasonar.csvmerge;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ObjDoubleConsumer;
+
+import static java.util.Collections.sort;
+
+// open addressing hash map of "repository;filename" keys to their maximum coverage, which doesn't box the values
+class CoverageMap {
+
+    private static final int DEFAULT_CAPACITY = 1024;
+    private static final int HALF_INT_BITS = 16;
+
+    private String[] keys;
+    private double[] values;
+    private int size;
+
+    CoverageMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    CoverageMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(expectedSize, 1) * 2 - 1) << 1;
+        keys = new String[capacity];
+        values = new double[capacity];
+    }
+
+    int size() {
+        return size;
+    }
+
+    double get(String key) {
+        int index = indexOf(keys, key);
+        return (keys[index] == null) ? Double.NaN : values[index];
+    }
+
+    // stores the coverage if it's higher than the current one, returns the former coverage or NaN for a new key
+    double putMax(String key, double coverage) {
+        int index = indexOf(keys, key);
+        if (keys[index] != null) {
+            double oldCoverage = values[index];
+            if (coverage > oldCoverage) {
+                values[index] = coverage;
+            }
+            return oldCoverage;
+        }
+
+        keys[index] = key;
+        values[index] = coverage;
+        // the load factor is kept at 0.5, so the probe sequences stay short
+        if (++size * 2 > keys.length) {
+            resize();
+        }
+        return Double.NaN;
+    }
+
+    void forEach(ObjDoubleConsumer<String> consumer) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                consumer.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    List<String> getSortedKeys() {
+        List<String> sortedKeys = new ArrayList<>(size);
+        for (String key : keys) {
+            if (key != null) {
+                sortedKeys.add(key);
+            }
+        }
+        sort(sortedKeys);
+        return sortedKeys;
+    }
+
+    private void resize() {
+        String[] oldKeys = keys;
+        double[] oldValues = values;
+        keys = new String[oldKeys.length * 2];
+        values = new double[oldValues.length * 2];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                int index = indexOf(keys, oldKeys[i]);
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+    // returns the slot of the key or the empty slot where it has to be inserted
+    private static int indexOf(String[] keys, String key) {
+        int mask = keys.length - 1;
+        int hash = key.hashCode();
+        int index = (hash ^ (hash >>> HALF_INT_BITS)) & mask;
+        while (keys[index] != null && !keys[index].equals(key)) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+}
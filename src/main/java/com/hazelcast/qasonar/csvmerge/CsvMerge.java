@@ -17,83 +17,168 @@
 package com.hazelcast.qasonar.csvmerge;
 
 import com.hazelcast.utils.FileFinder;
+import com.hazelcast.utils.PropertyReader;
 
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.Writer;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.Arrays;
-import java.util.Collection;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import static com.hazelcast.qasonar.ideaconverter.IdeaConverter.OUTPUT_FILENAME;
+import static com.hazelcast.qasonar.ideaconverter.IdeaCoverageIndex.INDEX_FILENAME;
+import static com.hazelcast.qasonar.ideaconverter.IdeaCoverageIndexWriter.writeIndex;
 import static com.hazelcast.utils.DebugUtils.debug;
 import static com.hazelcast.utils.DebugUtils.print;
 import static com.hazelcast.utils.DebugUtils.printGreen;
 import static com.hazelcast.utils.DebugUtils.printYellow;
+import static java.lang.Runtime.getRuntime;
 import static java.lang.String.format;
-import static java.nio.file.Files.readAllLines;
-import static java.nio.file.Files.walkFileTree;
-import static java.nio.file.Files.write;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.Files.newBufferedReader;
+import static java.nio.file.Files.newBufferedWriter;
+import static java.util.Arrays.asList;
+import static java.util.concurrent.Executors.newFixedThreadPool;
 
 public class CsvMerge {
 
-    // repository name -> filename -> idea coverage
-    private final Map<String, Map<String, Double>> coverageMap = new HashMap<>();
+    // the commit mappings of HZ Match and HZ Blame don't contain coverage data
+    private static final List<String> IGNORED_FILENAMES = asList("ee-os.csv", "os-ee.csv");
 
-    public void run() throws IOException {
-        FileFinder finder = new FileFinder("*.csv");
-        walkFileTree(Paths.get("").toAbsolutePath(), finder);
+    private final int parallelism;
 
-        Collection<Path> matchedFiles = finder.getMatchedPaths();
-        print("Merging %d CSV files...", matchedFiles.size());
+    // repository name;filename -> idea coverage
+    private final CoverageMap coverageMap = new CoverageMap();
 
-        for (Path file : matchedFiles) {
-            List<String> lines = readAllLines(file);
-            for (String line : lines) {
-                String[] lineArray = null;
-                try {
-                    lineArray = line.split(";");
-                    String repoName = lineArray[0];
-                    String fileName = lineArray[1];
-                    Double coverage = Double.valueOf(lineArray[2]);
-
-                    Map<String, Double> repoMap = coverageMap.computeIfAbsent(repoName, k -> new HashMap<>());
-
-                    Double oldCoverage = repoMap.get(fileName);
-                    if (oldCoverage == null) {
-                        repoMap.put(fileName, coverage);
-                    } else if (coverage > oldCoverage) {
-                        debug("Replaced coverage %.1f with %.1f for class %s", oldCoverage, coverage, fileName);
-                        repoMap.put(fileName, coverage);
-                    }
-                } catch (Exception e) {
-                    System.err.println("File: " + file);
-                    System.err.println("Line: " + line);
-                    System.err.println("Array: " + Arrays.toString(lineArray));
-                    throw e;
-                }
-            }
-        }
+    public CsvMerge(PropertyReader propertyReader) {
+        int parallelism = propertyReader.getParallelism();
+        this.parallelism = (parallelism > 1) ? parallelism : getRuntime().availableProcessors();
+    }
+
+    public void run() throws IOException {
+        Path root = Paths.get("").toAbsolutePath();
+        print("Merging CSV files...");
+
+        int fileCount = merge(root);
 
         int classCount = coverageMap.size();
-        print("Merged coverage data for %d classes...", classCount);
+        print("Merged coverage data for %d classes from %d CSV files...", classCount, fileCount);
         if (classCount == 0) {
             printYellow("Nothing to store, we're done!");
             return;
         }
 
         print("Storing results...");
-        StringBuilder sb = new StringBuilder();
-        for (Map.Entry<String, Map<String, Double>> repoMap : coverageMap.entrySet()) {
-            String repoName = repoMap.getKey();
-            for (Map.Entry<String, Double> coverageEntry : repoMap.getValue().entrySet()) {
-                sb.append(format("%s;%s;%.1f%n", repoName, coverageEntry.getKey(), coverageEntry.getValue()));
-            }
+        try (Writer writer = newBufferedWriter(root.resolve(OUTPUT_FILENAME), UTF_8)) {
+            writeCoverage(writer);
         }
-        write(Paths.get(OUTPUT_FILENAME), sb.toString().getBytes());
+        writeIndex(root.resolve(OUTPUT_FILENAME), root.resolve(INDEX_FILENAME));
 
         printGreen("Done!");
     }
+
+    // the files are parsed while the directories are still walked and merged right after, so just a single parsed file
+    // per thread is kept in memory; the order of the merge doesn't matter, since the highest coverage wins
+    int merge(Path root) throws IOException {
+        Path outputPath = root.toAbsolutePath().resolve(OUTPUT_FILENAME);
+        Queue<Future<?>> futures = new ConcurrentLinkedQueue<>();
+        ExecutorService executor = newFixedThreadPool(parallelism);
+        try {
+            new FileFinder("*.csv").prune("src", "target", "node_modules").find(root, file -> {
+                if (isMergedFile(outputPath, file)) {
+                    futures.add(executor.submit(() -> {
+                        mergeFile(parseFile(file));
+                        return null;
+                    }));
+                }
+            });
+            for (Future<?> future : futures) {
+                getResult(future);
+            }
+            return futures.size();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // the output of a former merge in the working directory would be merged into itself
+    static boolean isMergedFile(Path outputPath, Path file) {
+        return !file.equals(outputPath) && !IGNORED_FILENAMES.contains(file.getFileName().toString());
+    }
+
+    void writeCoverage(Writer writer) throws IOException {
+        for (String key : coverageMap.getSortedKeys()) {
+            writer.write(format("%s;%.1f%n", key, coverageMap.get(key)));
+        }
+    }
+
+    static CoverageMap parseFile(Path file) throws IOException {
+        CoverageMap fileCoverageMap = new CoverageMap();
+        try (BufferedReader reader = newBufferedReader(file, UTF_8)) {
+            int lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isEmpty()) {
+                    continue;
+                }
+                try {
+                    parseLine(line, fileCoverageMap);
+                } catch (IllegalArgumentException e) {
+                    throw new IOException(format("Could not parse line %d of %s: %s", lineNumber, file, line), e);
+                }
+            }
+        }
+        return fileCoverageMap;
+    }
+
+    // a line has the format "repository;filename;coverage", the first two columns are used as key
+    static void parseLine(String line, CoverageMap fileCoverageMap) {
+        int fileNameSeparator = line.indexOf(';');
+        int coverageSeparator = (fileNameSeparator == -1) ? -1 : line.indexOf(';', fileNameSeparator + 1);
+        if (coverageSeparator == -1) {
+            throw new IllegalArgumentException("Missing column");
+        }
+        int coverageEnd = line.indexOf(';', coverageSeparator + 1);
+        if (coverageEnd == -1) {
+            coverageEnd = line.length();
+        }
+        double coverage = Double.parseDouble(line.substring(coverageSeparator + 1, coverageEnd));
+        fileCoverageMap.putMax(line.substring(0, coverageSeparator), coverage);
+    }
+
+    private void mergeFile(CoverageMap fileCoverageMap) {
+        synchronized (coverageMap) {
+            fileCoverageMap.forEach((key, coverage) -> {
+                double oldCoverage = coverageMap.putMax(key, coverage);
+                if (coverage > oldCoverage) {
+                    debug("Replaced coverage %.1f with %.1f for class %s", oldCoverage, coverage, key);
+                }
+            });
+        }
+    }
+
+    private static void getResult(Future<?> future) throws IOException {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while parsing CSV files", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
 }
@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.qasonar.daemon;
+
+import com.google.gson.Gson;
+import com.hazelcast.qasonar.codecoverage.CodeCoverageContext;
+import com.hazelcast.qasonar.codecoverage.MultiRepositoryPullRequests;
+import com.hazelcast.qasonar.codecoverage.PullRequests;
+import com.hazelcast.qasonar.utils.CommandLineOptions;
+import com.hazelcast.utils.PropertyReader;
+import com.hazelcast.utils.RestClient;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static com.hazelcast.utils.DebugUtils.debug;
+import static com.hazelcast.utils.DebugUtils.printGreen;
+import static com.hazelcast.utils.DebugUtils.printRed;
+import static com.hazelcast.utils.DebugUtils.setDebug;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.Files.isDirectory;
+
+public class Daemon {
+
+    private static final int BACKLOG = 16;
+    // an idle or endless request must not block the daemon for all other clients
+    private static final int REQUEST_TIMEOUT_MILLIS = 10 * 1000;
+    static final int MAX_REQUEST_LENGTH = 64 * 1024;
+
+    // the last line of each response, so the client can exit with the status of the request
+    static final String STATUS_SUCCEEDED = "QA Sonar daemon exit status: 0";
+    static final String STATUS_FAILED = "QA Sonar daemon exit status: 1";
+
+    private final Gson gson = new Gson();
+
+    private final PropertyReader propertyReader;
+    private final RestClient restClient;
+    private final Path tokenPath;
+    private final int requestTimeoutMillis;
+
+    private String token;
+
+    public Daemon(PropertyReader propertyReader, RestClient restClient) {
+        this(propertyReader, restClient, DaemonToken.getDefaultPath(), REQUEST_TIMEOUT_MILLIS);
+    }
+
+    Daemon(PropertyReader propertyReader, RestClient restClient, Path tokenPath, int requestTimeoutMillis) {
+        this.propertyReader = propertyReader;
+        this.restClient = restClient;
+        this.tokenPath = tokenPath;
+        this.requestTimeoutMillis = requestTimeoutMillis;
+    }
+
+    public void run() throws IOException {
+        int port = propertyReader.getDaemonPort();
+        if (port < 1) {
+            throw new IllegalArgumentException("The daemon needs a configured daemonPort!");
+        }
+
+        // the GitHub connection, the HTTP cache and the SonarQube resources stay warm between requests
+        CodeCoverageContext context = new CodeCoverageContext(propertyReader, restClient);
+        try (ServerSocket serverSocket = new ServerSocket(port, BACKLOG, InetAddress.getLoopbackAddress())) {
+            printGreen("QA Sonar daemon is listening on port %d", port);
+            serve(serverSocket, context);
+        }
+    }
+
+    void serve(ServerSocket serverSocket, CodeCoverageContext context) throws IOException {
+        token = DaemonToken.create(tokenPath);
+        while (!serverSocket.isClosed() && !Thread.currentThread().isInterrupted()) {
+            // the requests are handled one by one, since the debug output and the time tracks are global
+            try (Socket socket = serverSocket.accept()) {
+                // the timeout just applies to reading the request, the output is written without a timeout
+                socket.setSoTimeout(requestTimeoutMillis);
+                handleRequest(socket, context);
+            } catch (IOException | RuntimeException e) {
+                if (!serverSocket.isClosed()) {
+                    printRed("Could not handle daemon request: %s", e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void handleRequest(Socket socket, CodeCoverageContext context) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), UTF_8));
+        Writer writer = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), UTF_8));
+        boolean succeeded = false;
+        try {
+            DaemonRequest request = parseRequest(readRequestLine(reader, MAX_REQUEST_LENGTH));
+            debug("Executing daemon request %s...", request.getArgs());
+
+            PropertyReader props = propertyReader.copy();
+            CommandLineOptions commandLineOptions = new CommandLineOptions(request.getArgs().toArray(new String[0]), props);
+            setDebug(commandLineOptions.isVerbose());
+            resolveOutputFiles(props, request.getWorkingDirectory());
+
+            switch (commandLineOptions.getAction()) {
+                case PULL_REQUESTS:
+                    new PullRequests(props, commandLineOptions).run(context, writer);
+                    succeeded = true;
+                    break;
+
+                case MULTI_REPOSITORY:
+                    new MultiRepositoryPullRequests(props, commandLineOptions).run(context, writer);
+                    succeeded = true;
+                    break;
+
+                default:
+                    writer.write("Unsupported daemon action: " + commandLineOptions.getAction() + "\n");
+            }
+        } catch (Exception e) {
+            printRed("Daemon request failed: %s", e.getMessage());
+            writer.write("QA Sonar daemon request failed: " + e + "\n");
+        }
+        writer.write((succeeded ? STATUS_SUCCEEDED : STATUS_FAILED) + "\n");
+        writer.flush();
+    }
+
+    // returns null if the stream ends before the first character, like BufferedReader.readLine()
+    static String readRequestLine(Reader reader, int maxLength) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+        while (c != -1 && c != '\n') {
+            if (sb.length() == maxLength) {
+                throw new IllegalArgumentException("Request exceeds " + maxLength + " characters");
+            }
+            sb.append((char) c);
+            c = reader.read();
+        }
+        int length = sb.length();
+        if (length > 0 && sb.charAt(length - 1) == '\r') {
+            sb.setLength(length - 1);
+        }
+        return sb.toString();
+    }
+
+    private DaemonRequest parseRequest(String line) {
+        if (line == null || line.trim().isEmpty()) {
+            throw new IllegalArgumentException("Empty request");
+        }
+        DaemonRequest request = gson.fromJson(line, DaemonRequest.class);
+        if (request == null || !DaemonToken.matches(token, request.getToken())) {
+            throw new IllegalArgumentException("Invalid token");
+        }
+        if (request.getArgs() == null || request.getArgs().contains(null)) {
+            throw new IllegalArgumentException("Missing arguments");
+        }
+        String workingDirectory = request.getWorkingDirectory();
+        if (workingDirectory == null || !Paths.get(workingDirectory).isAbsolute() || !isDirectory(Paths.get(workingDirectory))) {
+            throw new IllegalArgumentException("Invalid working directory: " + workingDirectory);
+        }
+        return request;
+    }
+
+    // the output files are relative to the working directory of the client
+    private static void resolveOutputFiles(PropertyReader props, String workingDirectory) {
+        props.setOutputFile(resolve(props.getOutputFile(), workingDirectory));
+        props.setJsonLinesFile(resolve(props.getJsonLinesFile(), workingDirectory));
+        props.setCsvFile(resolve(props.getCsvFile(), workingDirectory));
+    }
+
+    private static String resolve(String fileName, String workingDirectory) {
+        if (fileName == null) {
+            return fileName;
+        }
+        return Paths.get(workingDirectory).resolve(fileName).toString();
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.qasonar.daemon;
+
+import com.google.gson.Gson;
+import com.hazelcast.utils.PropertyReader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static com.hazelcast.utils.DebugUtils.debug;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+
+public final class DaemonClient {
+
+    private DaemonClient() {
+    }
+
+    // returns false if no daemon is configured or running, so the caller can execute the command by itself
+    // throws an IOException if the daemon executed the command, but it failed
+    public static boolean runOnDaemon(PropertyReader propertyReader, String[] args) throws IOException {
+        return runOnDaemon(propertyReader, args, DaemonToken.getDefaultPath());
+    }
+
+    static boolean runOnDaemon(PropertyReader propertyReader, String[] args, Path tokenPath) throws IOException {
+        int port = propertyReader.getDaemonPort();
+        if (port < 1) {
+            return false;
+        }
+        String token = DaemonToken.read(tokenPath);
+        if (token == null) {
+            debug("QA Sonar daemon token %s doesn't exist", tokenPath);
+            return false;
+        }
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            debug("Sending request to QA Sonar daemon on port %d...", port);
+            String workingDirectory = Paths.get("").toAbsolutePath().toString();
+            DaemonRequest request = new DaemonRequest(token, workingDirectory, asList(args));
+
+            Writer writer = new OutputStreamWriter(socket.getOutputStream(), UTF_8);
+            writer.write(new Gson().toJson(request));
+            writer.write("\n");
+            writer.flush();
+
+            BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), UTF_8));
+            Writer stdout = new OutputStreamWriter(System.out);
+            boolean succeeded = copyOutput(reader, stdout);
+            stdout.flush();
+            if (!succeeded) {
+                throw new IOException("QA Sonar daemon request failed");
+            }
+            return true;
+        } catch (ConnectException e) {
+            debug("QA Sonar daemon is not running on port %d", port);
+            return false;
+        }
+    }
+
+    // the status line is not printed, a missing one means that the connection to the daemon was lost
+    private static boolean copyOutput(BufferedReader reader, Writer stdout) throws IOException {
+        String previousLine = null;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (previousLine != null) {
+                stdout.write(previousLine + "\n");
+            }
+            previousLine = line;
+        }
+        if (previousLine == null) {
+            return false;
+        }
+        // the output doesn't have to end with a line break, so the status can follow it on the same line
+        for (String status : new String[]{Daemon.STATUS_SUCCEEDED, Daemon.STATUS_FAILED}) {
+            if (previousLine.endsWith(status)) {
+                stdout.write(previousLine.substring(0, previousLine.length() - status.length()));
+                return Daemon.STATUS_SUCCEEDED.equals(status);
+            }
+        }
+        stdout.write(previousLine + "\n");
+        return false;
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.qasonar.daemon;
+
+import java.util.List;
+
+class DaemonRequest {
+
+    private final String token;
+    private final String workingDirectory;
+    private final List<String> args;
+
+    DaemonRequest(String token, String workingDirectory, List<String> args) {
+        this.token = token;
+        this.workingDirectory = workingDirectory;
+        this.args = args;
+    }
+
+    String getToken() {
+        return token;
+    }
+
+    String getWorkingDirectory() {
+        return workingDirectory;
+    }
+
+    List<String> getArgs() {
+        return args;
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.qasonar.daemon;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.Files.createTempFile;
+import static java.nio.file.Files.deleteIfExists;
+import static java.nio.file.Files.move;
+import static java.nio.file.Files.readAllBytes;
+import static java.nio.file.Files.write;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.attribute.PosixFilePermissions.asFileAttribute;
+import static java.nio.file.attribute.PosixFilePermissions.fromString;
+import static org.apache.commons.codec.binary.Hex.encodeHexString;
+
+// the daemon runs with the credentials of its owner, so just clients which can read the owner-only token file are served
+final class DaemonToken {
+
+    private static final String TOKEN_FILENAME = ".hazelcast-qa-daemon.token";
+    private static final int TOKEN_BYTES = 32;
+
+    private DaemonToken() {
+    }
+
+    static Path getDefaultPath() {
+        return Paths.get(System.getProperty("user.home"), TOKEN_FILENAME);
+    }
+
+    // writes a new random token, which is readable and writable by the owner only
+    static String create(Path path) throws IOException {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        new SecureRandom().nextBytes(bytes);
+        String token = encodeHexString(bytes);
+
+        Path absolutePath = path.toAbsolutePath();
+        Path tmpPath = createOwnerOnlyFile(absolutePath.getParent());
+        try {
+            write(tmpPath, token.getBytes(UTF_8));
+            move(tmpPath, absolutePath, REPLACE_EXISTING, ATOMIC_MOVE);
+        } finally {
+            deleteIfExists(tmpPath);
+        }
+        return token;
+    }
+
+    // returns null if the daemon has not created a token yet
+    static String read(Path path) throws IOException {
+        try {
+            return new String(readAllBytes(path), UTF_8).trim();
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    static boolean matches(String expectedToken, String token) {
+        return token != null && MessageDigest.isEqual(expectedToken.getBytes(UTF_8), token.getBytes(UTF_8));
+    }
+
+    private static Path createOwnerOnlyFile(Path directory) throws IOException {
+        try {
+            return createTempFile(directory, "daemon", ".tmp", asFileAttribute(fromString("rw-------")));
+        } catch (UnsupportedOperationException e) {
+            // the file system doesn't support POSIX permissions, e.g. on Windows
+            Path tmpPath = createTempFile(directory, "daemon", ".tmp");
+            File file = tmpPath.toFile();
+            if (!file.setReadable(false, false) || !file.setReadable(true, true)
+                    || !file.setWritable(false, false) || !file.setWritable(true, true)) {
+                deleteIfExists(tmpPath);
+                throw new IOException("Could not restrict the permissions of the daemon token file");
+            }
+            return tmpPath;
+        }
+    }
+}
@@ -13,7 +13,6 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-
 package com.hazelcast.qasonar.ideaconverter;
 
 import com.hazelcast.utils.FileFinder;
@@ -25,66 +24,106 @@ import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
 
 import java.io.IOException;
+import java.io.Writer;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.Collection;
-
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import static com.hazelcast.qasonar.ideaconverter.IdeaCoverageIndex.INDEX_FILENAME;
+import static com.hazelcast.qasonar.ideaconverter.IdeaCoverageIndexWriter.writeIndex;
 import static com.hazelcast.utils.DebugUtils.debugYellow;
 import static com.hazelcast.utils.DebugUtils.print;
 import static com.hazelcast.utils.DebugUtils.printGreen;
 import static com.hazelcast.utils.Repository.fromRepositoryName;
+import static java.lang.Runtime.getRuntime;
 import static java.lang.String.format;
-import static java.nio.file.Files.walkFileTree;
-import static java.nio.file.Files.write;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.Files.newBufferedWriter;
+import static java.util.concurrent.Executors.newFixedThreadPool;
 
 public class IdeaConverter {
 
     public static final String OUTPUT_FILENAME = "idea-coverage.csv";
 
+    private static final int PENDING_FILES_PER_THREAD = 4;
+
     private final String repositoryName;
+    private final int parallelism;
 
     public IdeaConverter(PropertyReader propertyReader) {
         Repository repository = fromRepositoryName(propertyReader.getGitHubRepository());
         this.repositoryName = repository.getRepositoryName();
+        int parallelism = propertyReader.getParallelism();
+        this.parallelism = (parallelism > 1) ? parallelism : getRuntime().availableProcessors();
     }
 
     public void run() {
         try {
-            int parsedClasses = 0;
+            print("Writing data to %s...", OUTPUT_FILENAME);
+            int parsedClasses;
+            try (Writer writer = newBufferedWriter(Paths.get(OUTPUT_FILENAME), UTF_8)) {
+                parsedClasses = convert(Paths.get("").toAbsolutePath(), writer);
+            }
+            print("Successfully parsed %d classes!", parsedClasses);
 
-            FileFinder finder = new FileFinder("index.html");
-            walkFileTree(Paths.get("").toAbsolutePath(), finder);
+            print("Writing index to %s...", INDEX_FILENAME);
+            writeIndex(Paths.get(OUTPUT_FILENAME), Paths.get(INDEX_FILENAME));
 
-            Collection<Path> matchedFiles = finder.getMatchedPaths();
-            print("Parsing classes from %d report files...", matchedFiles.size());
+            printGreen("Done!");
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
 
-            StringBuilder sb = new StringBuilder();
-            for (Path file : matchedFiles) {
-                Elements tableRows = getLastTableRows(file);
-                if (!isClassTable(tableRows)) {
-                    debugYellow("File does not contain class table: " + file);
-                    continue;
-                }
+    int convert(Path root, Writer writer) throws IOException {
+        // the rows are written in the order of the sorted report files, so the output doesn't depend on the thread timing
+        List<Path> matchedFiles = new FileFinder("index.html").prune("src", "node_modules").find(root);
+        print("Parsing classes from %d report files with %d threads...", matchedFiles.size(), parallelism);
 
-                String packageName = file.getName(file.getNameCount() - 2).toString();
-                for (Element tableRow : tableRows) {
-                    Elements tableColumns = tableRow.getElementsByTag("td");
-                    String className = tableColumns.first().getElementsByTag("a").text();
-                    String lineCoverageString = tableColumns.last().getElementsByClass("percent").text().trim();
-                    double lineCoverage = Double.valueOf(lineCoverageString.substring(0, lineCoverageString.length() - 1));
-                    sb.append(format("%s;%s.%s.java;%.1f%n", repositoryName, packageName, className, lineCoverage));
-                    parsedClasses++;
+        // only a limited number of parsed report files is kept in memory until its rows are written
+        int maxPendingFiles = parallelism * PENDING_FILES_PER_THREAD;
+        Deque<Future<List<String>>> pendingFiles = new ArrayDeque<>(maxPendingFiles);
+        ExecutorService executor = newFixedThreadPool(parallelism);
+        try {
+            int parsedClasses = 0;
+            for (Path file : matchedFiles) {
+                if (pendingFiles.size() == maxPendingFiles) {
+                    parsedClasses += writeRows(writer, pendingFiles.poll());
                 }
+                pendingFiles.add(executor.submit(() -> parseFile(file)));
             }
-            print("Successfully parsed %d classes!", parsedClasses);
+            while (!pendingFiles.isEmpty()) {
+                parsedClasses += writeRows(writer, pendingFiles.poll());
+            }
+            return parsedClasses;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
 
-            print("Writing data to %s...", OUTPUT_FILENAME);
-            write(Paths.get(OUTPUT_FILENAME), sb.toString().getBytes());
+    private List<String> parseFile(Path file) throws IOException {
+        List<String> rows = new ArrayList<>();
+        Elements tableRows = getLastTableRows(file);
+        if (!isClassTable(tableRows)) {
+            debugYellow("File does not contain class table: " + file);
+            return rows;
+        }
 
-            printGreen("Done!");
-        } catch (IOException e) {
-            e.printStackTrace();
+        String packageName = file.getName(file.getNameCount() - 2).toString();
+        for (Element tableRow : tableRows) {
+            Elements tableColumns = tableRow.getElementsByTag("td");
+            String className = tableColumns.first().getElementsByTag("a").text();
+            String lineCoverageString = tableColumns.last().getElementsByClass("percent").text().trim();
+            double lineCoverage = Double.valueOf(lineCoverageString.substring(0, lineCoverageString.length() - 1));
+            rows.add(format("%s;%s.%s.java;%.1f%n", repositoryName, packageName, className, lineCoverage));
         }
+        return rows;
     }
 
     private Elements getLastTableRows(Path file) throws IOException {
@@ -104,4 +143,27 @@ public class IdeaConverter {
         String header = firstCell.getElementsByTag("a").text().trim();
         return header.equals("Class");
     }
+
+    private static int writeRows(Writer writer, Future<List<String>> future) throws IOException {
+        List<String> rows;
+        try {
+            rows = future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while parsing report files", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+        for (String row : rows) {
+            writer.write(row);
+        }
+        return rows.size();
+    }
 }
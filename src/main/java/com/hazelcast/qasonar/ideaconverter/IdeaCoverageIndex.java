@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.qasonar.ideaconverter;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+
+import static java.nio.channels.FileChannel.MapMode.READ_ONLY;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.READ;
+
+// memory mapped IDEA coverage of a single repository from the binary index, which is written next to the CSV file
+//
+// the index starts with a header (magic, version, size and modification time of the CSV file, repository count) and
+// the name, class count and section offset of each repository; a section contains the offsets of the class names,
+// the coverage values and the class names, sorted by their UTF-8 bytes, so a class is found via binary search without
+// decoding the other names
+public final class IdeaCoverageIndex {
+
+    public static final String INDEX_FILENAME = "idea-coverage.idx";
+
+    static final int MAGIC = 0x49434958;
+    static final int VERSION = 2;
+
+    static final int INT_BYTES = 4;
+    static final int LONG_BYTES = 8;
+    static final int DOUBLE_BYTES = 8;
+    // magic, version, size and modification time of the CSV file and repository count
+    static final int HEADER_BYTES = 3 * INT_BYTES + 2 * LONG_BYTES;
+    // name length, class count and section offset of a repository, without its name
+    static final int REPOSITORY_BYTES = 3 * INT_BYTES;
+
+    private static final int BYTE_MASK = 0xFF;
+
+    private final long csvSize;
+    private final long csvLastModified;
+    private final ByteBuffer section;
+    private final int size;
+    private final int coverageOffset;
+
+    private IdeaCoverageIndex(long csvSize, long csvLastModified, ByteBuffer section, int size) {
+        this.csvSize = csvSize;
+        this.csvLastModified = csvLastModified;
+        this.section = section;
+        this.size = size;
+        this.coverageOffset = size * INT_BYTES;
+    }
+
+    public static IdeaCoverageIndex open(Path path, String repositoryName) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, READ)) {
+            buffer = channel.map(READ_ONLY, 0, channel.size());
+        }
+        try {
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                throw new IOException("Unsupported IDEA coverage index: " + path);
+            }
+            long csvSize = buffer.getLong();
+            long csvLastModified = buffer.getLong();
+            byte[] repositoryBytes = repositoryName.getBytes(UTF_8);
+            int repositoryCount = buffer.getInt();
+            for (int i = 0; i < repositoryCount; i++) {
+                int nameLength = buffer.getInt();
+                int nameOffset = buffer.position();
+                buffer.position(nameOffset + nameLength);
+                int size = buffer.getInt();
+                int sectionOffset = buffer.getInt();
+                if (compare(buffer, nameOffset, nameLength, repositoryBytes) == 0) {
+                    ByteBuffer section = buffer.duplicate();
+                    section.position(sectionOffset);
+                    return new IdeaCoverageIndex(csvSize, csvLastModified, section.slice(), size);
+                }
+            }
+            return new IdeaCoverageIndex(csvSize, csvLastModified, ByteBuffer.allocate(0), 0);
+        } catch (RuntimeException e) {
+            throw new IOException("Corrupt IDEA coverage index: " + path, e);
+        }
+    }
+
+    // the size and modification time (in milliseconds) of the CSV file, from which the index was written
+    public long getCsvSize() {
+        return csvSize;
+    }
+
+    public long getCsvLastModified() {
+        return csvLastModified;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // returns NaN if the class is not contained
+    public double getCoverage(String fileName) {
+        byte[] key = fileName.getBytes(UTF_8);
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int keyOffset = section.getInt(mid * INT_BYTES);
+            int cmp = compare(section, keyOffset + INT_BYTES, section.getInt(keyOffset), key);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return section.getDouble(coverageOffset + mid * DOUBLE_BYTES);
+            }
+        }
+        return Double.NaN;
+    }
+
+    static int compare(byte[] bytes1, byte[] bytes2) {
+        return compare(ByteBuffer.wrap(bytes1), 0, bytes1.length, bytes2);
+    }
+
+    // compares unsigned bytes, like the sort order of the index
+    private static int compare(ByteBuffer buffer, int offset, int length, byte[] key) {
+        int minLength = Math.min(length, key.length);
+        for (int i = 0; i < minLength; i++) {
+            int cmp = (buffer.get(offset + i) & BYTE_MASK) - (key[i] & BYTE_MASK);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return length - key.length;
+    }
+}
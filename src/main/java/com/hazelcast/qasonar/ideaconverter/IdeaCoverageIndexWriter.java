@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.qasonar.ideaconverter;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static com.hazelcast.qasonar.ideaconverter.IdeaCoverageIndex.DOUBLE_BYTES;
+import static com.hazelcast.qasonar.ideaconverter.IdeaCoverageIndex.HEADER_BYTES;
+import static com.hazelcast.qasonar.ideaconverter.IdeaCoverageIndex.INT_BYTES;
+import static com.hazelcast.qasonar.ideaconverter.IdeaCoverageIndex.MAGIC;
+import static com.hazelcast.qasonar.ideaconverter.IdeaCoverageIndex.REPOSITORY_BYTES;
+import static com.hazelcast.qasonar.ideaconverter.IdeaCoverageIndex.VERSION;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.Files.createTempFile;
+import static java.nio.file.Files.deleteIfExists;
+import static java.nio.file.Files.move;
+import static java.nio.file.Files.newBufferedReader;
+import static java.nio.file.Files.newOutputStream;
+import static java.nio.file.Files.readAttributes;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+// collects the IDEA coverage of all repositories and writes the binary index, which is read by IdeaCoverageIndex
+public final class IdeaCoverageIndexWriter {
+
+    private static final double DECIMALS = 10.0;
+    private static final int CSV_COLUMNS = 3;
+
+    // repository name -> classes
+    private final Map<String, List<Entry>> repositories = new TreeMap<>();
+
+    // the index is written from the finished CSV file in a second pass, so the converters don't have to keep their rows
+    public static void writeIndex(Path csvPath, Path indexPath) throws IOException {
+        // the attributes are read first, so a concurrent change of the CSV file never matches the index
+        BasicFileAttributes csvAttributes = readAttributes(csvPath, BasicFileAttributes.class);
+        IdeaCoverageIndexWriter indexWriter = new IdeaCoverageIndexWriter();
+        try (BufferedReader reader = newBufferedReader(csvPath, UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                String[] columns = line.split(";");
+                if (columns.length != CSV_COLUMNS) {
+                    throw new IOException("Invalid line " + lineNumber + " in " + csvPath + ": " + line);
+                }
+                try {
+                    indexWriter.add(columns[0], columns[1], Double.parseDouble(columns[2]));
+                } catch (NumberFormatException e) {
+                    throw new IOException("Invalid coverage in line " + lineNumber + " of " + csvPath + ": " + line, e);
+                }
+            }
+        }
+        indexWriter.write(indexPath, csvAttributes.size(), csvAttributes.lastModifiedTime().toMillis());
+    }
+
+    void add(String repositoryName, String fileName, double coverage) {
+        // the coverage is rounded like in the CSV file, so both files return the same values
+        double roundedCoverage = Math.round(coverage * DECIMALS) / DECIMALS;
+        repositories.computeIfAbsent(repositoryName, k -> new ArrayList<>()).add(new Entry(fileName, roundedCoverage));
+    }
+
+    void write(Path path, long csvSize, long csvLastModified) throws IOException {
+        Path absolutePath = path.toAbsolutePath();
+        Path tmpPath = createTempFile(absolutePath.getParent(), "idea-coverage", ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(newOutputStream(tmpPath)))) {
+                write(out, csvSize, csvLastModified);
+            }
+            move(tmpPath, absolutePath, REPLACE_EXISTING, ATOMIC_MOVE);
+        } finally {
+            deleteIfExists(tmpPath);
+        }
+    }
+
+    private void write(DataOutputStream out, long csvSize, long csvLastModified) throws IOException {
+        List<byte[]> names = new ArrayList<>(repositories.size());
+        List<List<Entry>> sections = new ArrayList<>(repositories.size());
+        int offset = HEADER_BYTES;
+        for (Map.Entry<String, List<Entry>> repository : repositories.entrySet()) {
+            byte[] name = repository.getKey().getBytes(UTF_8);
+            names.add(name);
+            sections.add(sortAndMerge(repository.getValue()));
+            offset += REPOSITORY_BYTES + name.length;
+        }
+
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeLong(csvSize);
+        out.writeLong(csvLastModified);
+        out.writeInt(names.size());
+        for (int i = 0; i < names.size(); i++) {
+            out.writeInt(names.get(i).length);
+            out.write(names.get(i));
+            out.writeInt(sections.get(i).size());
+            out.writeInt(offset);
+            offset += getSectionSize(sections.get(i));
+        }
+        for (List<Entry> section : sections) {
+            writeSection(out, section);
+        }
+    }
+
+    // the classes are sorted by their UTF-8 bytes for the binary search, duplicates keep the highest coverage
+    private static List<Entry> sortAndMerge(List<Entry> entries) {
+        entries.sort((entry1, entry2) -> IdeaCoverageIndex.compare(entry1.key, entry2.key));
+        List<Entry> merged = new ArrayList<>(entries.size());
+        Entry last = null;
+        for (Entry entry : entries) {
+            if (last != null && IdeaCoverageIndex.compare(last.key, entry.key) == 0) {
+                last.coverage = Math.max(last.coverage, entry.coverage);
+            } else {
+                merged.add(entry);
+                last = entry;
+            }
+        }
+        return merged;
+    }
+
+    private static int getSectionSize(List<Entry> section) {
+        int size = section.size() * (INT_BYTES + DOUBLE_BYTES);
+        for (Entry entry : section) {
+            size += INT_BYTES + entry.key.length;
+        }
+        return size;
+    }
+
+    private static void writeSection(DataOutputStream out, List<Entry> section) throws IOException {
+        int keyOffset = section.size() * (INT_BYTES + DOUBLE_BYTES);
+        for (Entry entry : section) {
+            out.writeInt(keyOffset);
+            keyOffset += INT_BYTES + entry.key.length;
+        }
+        for (Entry entry : section) {
+            out.writeDouble(entry.coverage);
+        }
+        for (Entry entry : section) {
+            out.writeInt(entry.key.length);
+            out.write(entry.key);
+        }
+    }
+
+    private static final class Entry {
+
+        private final byte[] key;
+        private double coverage;
+
+        private Entry(String fileName, double coverage) {
+            this.key = fileName.getBytes(UTF_8);
+            this.coverage = coverage;
+        }
+    }
+}
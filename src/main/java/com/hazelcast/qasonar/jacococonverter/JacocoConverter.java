@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.qasonar.jacococonverter;
+
+import com.hazelcast.utils.FileFinder;
+import com.hazelcast.utils.PropertyReader;
+import com.hazelcast.utils.Repository;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import static com.hazelcast.qasonar.ideaconverter.IdeaConverter.OUTPUT_FILENAME;
+import static com.hazelcast.qasonar.ideaconverter.IdeaCoverageIndex.INDEX_FILENAME;
+import static com.hazelcast.qasonar.ideaconverter.IdeaCoverageIndexWriter.writeIndex;
+import static com.hazelcast.utils.DebugUtils.debug;
+import static com.hazelcast.utils.DebugUtils.print;
+import static com.hazelcast.utils.DebugUtils.printGreen;
+import static com.hazelcast.utils.Repository.fromRepositoryName;
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.Files.newBufferedWriter;
+import static java.nio.file.Files.newInputStream;
+import static javax.xml.stream.XMLStreamConstants.END_ELEMENT;
+import static javax.xml.stream.XMLStreamConstants.START_ELEMENT;
+
+public class JacocoConverter {
+
+    public static final String REPORT_FILENAME = "jacoco.xml";
+
+    private static final double PERCENTAGE = 100.0;
+
+    private final XMLInputFactory inputFactory = XMLInputFactory.newInstance();
+
+    // filename -> line coverage
+    private final SortedMap<String, Double> coverageMap = new TreeMap<>();
+
+    private final String repositoryName;
+
+    public JacocoConverter(PropertyReader propertyReader) {
+        Repository repository = fromRepositoryName(propertyReader.getGitHubRepository());
+        this.repositoryName = repository.getRepositoryName();
+
+        // the DOCTYPE of the JaCoCo report references a DTD, which is neither needed nor available offline
+        inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    }
+
+    public void run() {
+        try {
+            List<Path> matchedFiles = new FileFinder(REPORT_FILENAME).prune("src", "node_modules").find(Paths.get(""));
+            print("Parsing classes from %d JaCoCo reports...", matchedFiles.size());
+
+            for (Path file : matchedFiles) {
+                try (InputStream in = newInputStream(file)) {
+                    parseReport(in);
+                }
+            }
+            print("Successfully parsed %d classes!", coverageMap.size());
+
+            print("Writing data to %s...", OUTPUT_FILENAME);
+            try (Writer writer = newBufferedWriter(Paths.get(OUTPUT_FILENAME), UTF_8)) {
+                writeCoverage(writer);
+            }
+
+            print("Writing index to %s...", INDEX_FILENAME);
+            writeIndex(Paths.get(OUTPUT_FILENAME), Paths.get(INDEX_FILENAME));
+
+            printGreen("Done!");
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    void parseReport(InputStream in) throws IOException {
+        try {
+            XMLStreamReader reader = inputFactory.createXMLStreamReader(in);
+            try {
+                parseReport(reader);
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("Could not parse JaCoCo report: " + e.getMessage(), e);
+        }
+    }
+
+    void writeCoverage(Writer writer) throws IOException {
+        for (Map.Entry<String, Double> entry : coverageMap.entrySet()) {
+            writer.write(format("%s;%s;%.1f%n", repositoryName, entry.getKey(), entry.getValue()));
+        }
+    }
+
+    // the line counter of a sourcefile element covers all classes of a Java file, like the line coverage of IDEA
+    private void parseReport(XMLStreamReader reader) throws XMLStreamException {
+        String packageName = null;
+        String sourceFileName = null;
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == START_ELEMENT) {
+                String element = reader.getLocalName();
+                if ("package".equals(element)) {
+                    packageName = reader.getAttributeValue(null, "name").replace('/', '.');
+                } else if ("sourcefile".equals(element)) {
+                    sourceFileName = reader.getAttributeValue(null, "name");
+                } else if ("counter".equals(element) && sourceFileName != null
+                        && "LINE".equals(reader.getAttributeValue(null, "type"))) {
+                    String fileName = packageName.isEmpty() ? sourceFileName : packageName + "." + sourceFileName;
+                    addCoverage(fileName, reader.getAttributeValue(null, "missed"), reader.getAttributeValue(null, "covered"));
+                }
+            } else if (event == END_ELEMENT && "sourcefile".equals(reader.getLocalName())) {
+                sourceFileName = null;
+            }
+        }
+    }
+
+    private void addCoverage(String fileName, String missedString, String coveredString) {
+        int missed = Integer.parseInt(missedString);
+        int covered = Integer.parseInt(coveredString);
+        if (missed + covered == 0) {
+            return;
+        }
+        double coverage = PERCENTAGE * covered / (missed + covered);
+
+        // a file can be contained in several reports, e.g. the report of its module and an aggregated report
+        Double oldCoverage = coverageMap.get(fileName);
+        if (oldCoverage == null || coverage > oldCoverage) {
+            if (oldCoverage != null) {
+                debug("Replaced coverage %.1f with %.1f for class %s", oldCoverage, coverage, fileName);
+            }
+            coverageMap.put(fileName, coverage);
+        }
+    }
+}
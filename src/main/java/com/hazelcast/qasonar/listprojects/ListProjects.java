@@ -19,30 +19,32 @@ package com.hazelcast.qasonar.listprojects;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.hazelcast.utils.HttpCache;
 import com.hazelcast.utils.PropertyReader;
+import com.hazelcast.utils.RestClient;
 
 import java.io.IOException;
 
 import static com.hazelcast.utils.DebugUtils.print;
-import static com.hazelcast.utils.Utils.getBasicAuthString;
 import static com.hazelcast.utils.Utils.getJsonElementsFromQuery;
 import static java.lang.String.format;
 
 public class ListProjects {
 
     private final PropertyReader props;
+    private final RestClient restClient;
 
-    public ListProjects(PropertyReader propertyReader) {
+    public ListProjects(PropertyReader propertyReader, RestClient restClient) {
         this.props = propertyReader;
+        this.restClient = restClient;
     }
 
     public void run() throws IOException {
         StringBuilder sb = new StringBuilder();
         String separator = "";
 
-        String basicAuthString = getBasicAuthString(props.getUsername(), props.getPassword());
         String query = format("https://%s/api/resources?format=json", props.getHost());
-        JsonArray array = getJsonElementsFromQuery(basicAuthString, query);
+        JsonArray array = getJsonElementsFromQuery(restClient, query, HttpCache.fromPropertyReader(props));
         for (JsonElement jsonElement : array) {
             JsonObject resource = jsonElement.getAsJsonObject();
 
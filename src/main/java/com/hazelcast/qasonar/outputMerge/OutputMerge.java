@@ -32,9 +32,10 @@ import static com.hazelcast.utils.DebugUtils.print;
 import static com.hazelcast.utils.DebugUtils.printGreen;
 import static com.hazelcast.utils.DebugUtils.printRed;
 import static com.hazelcast.utils.DebugUtils.printYellow;
+import static com.hazelcast.utils.Utils.TABLE_OF_CONTENTS;
+import static com.hazelcast.utils.Utils.formatRepositoryHeadline;
 import static com.hazelcast.utils.Utils.writeToFile;
 import static java.nio.file.Files.readAllLines;
-import static java.nio.file.Files.walkFileTree;
 
 public class OutputMerge {
 
@@ -49,10 +50,9 @@ public class OutputMerge {
     public void run() throws IOException {
         String outputFile = propertyReader.getOutputFile();
 
-        FileFinder finder = new FileFinder(outputFile + "-(" + Repository.getSuffixes("|") + ").txt", true);
-        walkFileTree(Paths.get("").toAbsolutePath(), finder);
-
-        Collection<Path> matchedFiles = finder.getMatchedPaths();
+        Collection<Path> matchedFiles = new FileFinder(outputFile + "-(" + Repository.getSuffixes("|") + ").txt", true)
+                .prune("src", "target", "node_modules")
+                .find(Paths.get(""));
         int matchedFilesNumber = matchedFiles.size();
         if (matchedFilesNumber == 0) {
             printRed("No files found!");
@@ -109,14 +109,13 @@ public class OutputMerge {
     }
 
     private void writeMergedFile(String outputFile, StringBuilder sb) throws IOException {
-        sb.append("{toc:type=list|style=disc|minLevel=1|maxLevel=7|indent=|class=|")
-                .append("outline=false|include=|exclude=|printable=true}\n\n");
+        sb.append(TABLE_OF_CONTENTS);
         for (Repository repository : Repository.values()) {
             if (!content.containsKey(repository)) {
                 continue;
             }
 
-            sb.append("h1. Code Coverage (").append(repository).append(")\n");
+            sb.append(formatRepositoryHeadline(repository));
             sb.append(content.get(repository));
             sb.append("\n");
         }
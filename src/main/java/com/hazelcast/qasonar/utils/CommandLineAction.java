@@ -20,9 +20,12 @@ public enum CommandLineAction {
 
     PRINT_HELP,
     IDEA_CONVERTER,
+    JACOCO_CONVERTER,
     CSV_MERGE,
     OUTPUT_MERGE,
     LIST_PROJECTS,
     LIST_PULL_REQUESTS,
-    PULL_REQUESTS
+    PULL_REQUESTS,
+    MULTI_REPOSITORY,
+    DAEMON
 }
@@ -17,6 +17,7 @@
 package com.hazelcast.qasonar.utils;
 
 import com.hazelcast.utils.PropertyReader;
+import com.hazelcast.utils.Repository;
 import joptsimple.BuiltinHelpFormatter;
 import joptsimple.OptionParser;
 import joptsimple.OptionSet;
@@ -25,22 +26,30 @@ import joptsimple.OptionSpec;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 
 import static java.util.Collections.unmodifiableList;
+import static java.util.Collections.unmodifiableMap;
 
+@SuppressWarnings("checkstyle:methodcount")
 public class CommandLineOptions {
 
     private static final int HELP_WIDTH = 160;
     private static final int HELP_INDENTATION = 2;
 
     private final List<Integer> pullRequests = new ArrayList<>();
+    private final Map<Repository, List<Integer>> repositoryPullRequests = new EnumMap<>(Repository.class);
 
     private final OptionParser parser = new OptionParser();
 
     private final OptionSpec ideaConverterSpec = parser.accepts("ideaConverter",
             "Converts an IDEA coverage report for QA Sonar.");
 
+    private final OptionSpec jacocoConverterSpec = parser.accepts("jacocoConverter",
+            "Converts JaCoCo XML coverage reports for QA Sonar.");
+
     private final OptionSpec csvMergeSpec = parser.accepts("csvMerge",
             "Merges multiple IDEA coverage reports to a single one.");
 
@@ -63,6 +72,14 @@ public class CommandLineOptions {
                     + "Can either be a single value or a comma separated list.")
             .withRequiredArg().ofType(String.class);
 
+    private final OptionSpec<String> multiRepositorySpec = parser.accepts("multiRepository",
+            "Specifies the pull requests of multiple repositories, which are analyzed concurrently into a merged output.\n"
+                    + "Use a semicolon separated list of repository suffixes with their pull requests, e.g. os:23,42;ee:1024")
+            .withRequiredArg().ofType(String.class);
+
+    private final OptionSpec daemonSpec = parser.accepts("daemon",
+            "Starts a daemon on the configured daemonPort, which keeps caches warm and executes the PR analysis of clients.");
+
     private final OptionSpec<String> gitHubRepositorySpec = parser.accepts("gitHubRepository",
             "Specifies the GitHub repository to be used.")
             .withRequiredArg().ofType(String.class);
@@ -87,10 +104,41 @@ public class CommandLineOptions {
             "Specifies the minimum threshold for modified files in changed lines.")
             .withRequiredArg().ofType(Integer.class);
 
+    private final OptionSpec<Integer> parallelismSpec = parser.accepts("parallelism",
+            "Specifies the number of pull requests and files which are read concurrently from GitHub and SonarQube"
+                    + " or the number of threads which parse IDEA coverage reports and CSV files.")
+            .withRequiredArg().ofType(Integer.class);
+
+    private final OptionSpec bulkMetricsSpec = parser.accepts("bulkMetrics",
+            "Reads the code coverage metrics of all project files with the resource tree, instead of one query per file.");
+
+    private final OptionSpec gitHubGraphQLSpec = parser.accepts("gitHubGraphQL",
+            "Reads author, state and changed files of the PRs in batches via the GitHub GraphQL API.");
+
+    private final OptionSpec localGitDiffSpec = parser.accepts("localGitDiff",
+            "Computes the changed files of merged PRs from the local Git repository instead of the GitHub API.");
+
+    private final OptionSpec diffCoverageSpec = parser.accepts("diffCoverage",
+            "Checks the code coverage of just the changed lines, instead of the coverage of the whole file.");
+
+    private final OptionSpec fullSpec = parser.accepts("full",
+            "Ignores the stored results of former runs and analyzes all PRs from scratch.");
+
+    private final OptionSpec noHttpCacheSpec = parser.accepts("noHttpCache",
+            "Disables the local HTTP response cache, even if it is configured.");
+
     private final OptionSpec<String> outputFileSpec = parser.accepts("outputFile",
             "Specifies a file for the output.")
             .withRequiredArg().ofType(String.class);
 
+    private final OptionSpec<String> jsonLinesFileSpec = parser.accepts("jsonLinesFile",
+            "Specifies a file for the machine-readable output as JSON Lines (one object per file and a summary).")
+            .withRequiredArg().ofType(String.class);
+
+    private final OptionSpec<String> csvFileSpec = parser.accepts("csvFile",
+            "Specifies a file for the machine-readable output as CSV (the summary is written to a -summary.csv file).")
+            .withRequiredArg().ofType(String.class);
+
     private final OptionSpec<String> scriptFileSpec = parser.accepts("scriptFile",
             "Specifies a file for the script.")
             .withRequiredArg().ofType(String.class);
@@ -151,6 +199,10 @@ public class CommandLineOptions {
         return unmodifiableList(pullRequests);
     }
 
+    public Map<Repository, List<Integer>> getRepositoryPullRequests() {
+        return unmodifiableMap(repositoryPullRequests);
+    }
+
     private OptionSet initOptions(String[] args) {
         parser.accepts("help", "Show help").forHelp();
         return parser.parse(args);
@@ -163,7 +215,15 @@ public class CommandLineOptions {
         setMinCodeCoverage();
         setMinCodeCoverageModified();
         setMinThresholdModified();
+        setParallelism();
+        setBulkMetrics();
+        setGitHubGraphQL();
+        setLocalGitDiff();
+        setDiffCoverage();
+        setFull();
+        setNoHttpCache();
         setOutputFile();
+        setStructuredOutputFiles();
 
         return getCommandLineAction();
     }
@@ -205,18 +265,67 @@ public class CommandLineOptions {
         }
     }
 
+    private void setParallelism() {
+        if (options.has(parallelismSpec)) {
+            Integer parallelism = options.valueOf(parallelismSpec);
+            if (parallelism < 1) {
+                throw new IllegalArgumentException("Invalid parallelism: " + parallelism);
+            }
+            propertyReader.setParallelism(parallelism);
+        }
+    }
+
+    private void setBulkMetrics() {
+        propertyReader.setBulkMetrics(options.has(bulkMetricsSpec));
+    }
+
+    private void setGitHubGraphQL() {
+        propertyReader.setGitHubGraphQL(options.has(gitHubGraphQLSpec));
+    }
+
+    private void setLocalGitDiff() {
+        propertyReader.setLocalGitDiff(options.has(localGitDiffSpec));
+    }
+
+    private void setDiffCoverage() {
+        propertyReader.setDiffCoverage(options.has(diffCoverageSpec));
+    }
+
+    private void setFull() {
+        propertyReader.setFullRun(options.has(fullSpec));
+    }
+
+    private void setNoHttpCache() {
+        if (options.has(noHttpCacheSpec)) {
+            propertyReader.setHttpCacheDirectory(null);
+        }
+    }
+
     private void setOutputFile() {
         if (options.has(outputFileSpec)) {
             propertyReader.setOutputFile(options.valueOf(outputFileSpec));
         }
     }
 
-    @SuppressWarnings("checkstyle:npathcomplexity")
+    private void setStructuredOutputFiles() {
+        if (options.has(jsonLinesFileSpec)) {
+            propertyReader.setJsonLinesFile(options.valueOf(jsonLinesFileSpec));
+        }
+        if (options.has(csvFileSpec)) {
+            propertyReader.setCsvFile(options.valueOf(csvFileSpec));
+        }
+    }
+
+    @SuppressWarnings({"checkstyle:npathcomplexity", "checkstyle:returncount"})
     private CommandLineAction getCommandLineAction() {
         if (options.has(ideaConverterSpec)) {
             return CommandLineAction.IDEA_CONVERTER;
         }
 
+        if (options.has(jacocoConverterSpec)) {
+            return CommandLineAction.JACOCO_CONVERTER;
+        }
+
         if (options.has(csvMergeSpec)) {
             return CommandLineAction.CSV_MERGE;
         }
@@ -234,6 +343,15 @@ public class CommandLineOptions {
             return CommandLineAction.LIST_PULL_REQUESTS;
         }
 
+        if (options.has(daemonSpec)) {
+            return CommandLineAction.DAEMON;
+        }
+
+        if (options.has(multiRepositorySpec)) {
+            addRepositoryPullRequests();
+            return CommandLineAction.MULTI_REPOSITORY;
+        }
+
         if (options.has(pullRequestsSpec)) {
             addPullRequests();
             return CommandLineAction.PULL_REQUESTS;
@@ -247,19 +365,40 @@ public class CommandLineOptions {
     }
 
     private void addPullRequests() {
-        String pullRequestString = options.valueOf(pullRequestsSpec).trim();
+        addPullRequests(options.valueOf(pullRequestsSpec), pullRequests);
+    }
+
+    private void addRepositoryPullRequests() {
+        for (String repositoryString : options.valueOf(multiRepositorySpec).trim().split("\\s*;\\s*")) {
+            int separatorIndex = repositoryString.indexOf(':');
+            if (separatorIndex == -1) {
+                throw new IllegalArgumentException("Invalid repository pull requests: " + repositoryString);
+            }
+            String suffix = repositoryString.substring(0, separatorIndex).trim().toLowerCase();
+            Repository repository = Repository.fromSuffix(suffix);
+            if (repository == null) {
+                throw new IllegalArgumentException("Unknown repository: " + suffix);
+            }
+            List<Integer> pullRequestList = new ArrayList<>();
+            addPullRequests(repositoryString.substring(separatorIndex + 1), pullRequestList);
+            repositoryPullRequests.put(repository, pullRequestList);
+        }
+    }
+
+    private static void addPullRequests(String pullRequestList, List<Integer> pullRequests) {
+        String pullRequestString = pullRequestList.trim();
         if (!pullRequestString.contains(",")) {
-            addPullRequest(pullRequestString);
+            addPullRequest(pullRequestString, pullRequests);
             return;
         }
 
-        Arrays.asList(pullRequestString.split("\\s*,\\s*")).forEach(this::addPullRequest);
+        Arrays.asList(pullRequestString.split("\\s*,\\s*")).forEach(pullRequest -> addPullRequest(pullRequest, pullRequests));
         if (pullRequests.size() == 0) {
             throw new IllegalArgumentException("No pull requests specified");
         }
     }
 
-    private void addPullRequest(String pullRequestString) {
+    private static void addPullRequest(String pullRequestString, List<Integer> pullRequests) {
         Integer pullRequest = Integer.valueOf(pullRequestString);
         if (pullRequest < 1) {
             throw new IllegalArgumentException("Invalid pull request: " + pullRequestString);
@@ -19,6 +19,8 @@ package com.hazelcast.qasonar.utils;
 import java.util.ArrayList;
 import java.util.List;
 
+import static com.hazelcast.qasonar.utils.WhiteListMatcher.NO_MATCH;
+
 public class WhiteList {
 
     private enum WhiteListEntryType {
@@ -31,20 +33,34 @@ public class WhiteList {
 
     private final List<WhiteListEntry> whiteListEntries = new ArrayList<>();
 
-    public void addEntry(String type, String value, String justification, String comment) {
+    private WhiteListMatcher matcher;
+
+    public synchronized void addEntry(String type, String value, String justification, String comment) {
         whiteListEntries.add(new WhiteListEntry(type, value, justification, comment));
+        matcher = null;
     }
 
     public WhiteListResult getWhitelistResultOrNull(String fileName) {
-        for (WhiteListEntry entry : whiteListEntries) {
-            if (entry.matches(fileName)) {
-                return new WhiteListResult(entry.justification, entry.comment);
+        int index = compile().getFirstMatch(fileName);
+        if (index == NO_MATCH) {
+            return null;
+        }
+        WhiteListEntry entry = whiteListEntries.get(index);
+        return new WhiteListResult(entry.justification, entry.comment);
+    }
+
+    synchronized WhiteListMatcher compile() {
+        if (matcher == null) {
+            WhiteListMatcher newMatcher = new WhiteListMatcher();
+            for (int index = 0; index < whiteListEntries.size(); index++) {
+                whiteListEntries.get(index).addTo(newMatcher, index);
             }
+            matcher = newMatcher.build();
         }
-        return null;
+        return matcher;
     }
 
-    private final class WhiteListEntry {
+    private static final class WhiteListEntry {
 
         private final WhiteListEntryType type;
         private final String value;
@@ -58,18 +74,23 @@ public class WhiteList {
             this.comment = comment;
         }
 
-        private boolean matches(String fileName) {
+        private void addTo(WhiteListMatcher matcher, int index) {
             switch (type) {
                 case EQUALS:
-                    return fileName.equals(value);
+                    matcher.addEquals(value, index);
+                    break;
                 case STARTS_WITH:
-                    return fileName.startsWith(value);
+                    matcher.addStartsWith(value, index);
+                    break;
                 case ENDS_WITH:
-                    return fileName.endsWith(value);
+                    matcher.addEndsWith(value, index);
+                    break;
                 case CONTAINS:
-                    return fileName.contains(value);
+                    matcher.addContains(value, index);
+                    break;
                 case REGEX:
-                    return fileName.matches(value);
+                    matcher.addRegex(value, index);
+                    break;
                 default:
                     throw new UnsupportedOperationException("Unsupported whitelist type: " + type);
             }
@@ -47,6 +47,11 @@ public final class WhiteListBuilder {
         return fromJsonFile(WHITE_LIST_FILENAME);
     }
 
+    // returns 0 if the whitelist doesn't exist, so a long running process can detect changes of the file
+    public static long getLastModified() {
+        return new File(WHITE_LIST_FILENAME).lastModified();
+    }
+
     public static WhiteList fromJsonFile(String propertyFileName) {
         WhiteList whiteList = new WhiteList();
         if (propertyFileName == null) {
@@ -61,6 +66,8 @@ public final class WhiteListBuilder {
         }
 
         populateWhiteList(whiteList, array);
+        // the entries are compiled once, so invalid patterns are reported while loading the whitelist
+        whiteList.compile();
         return whiteList;
     }
 
@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.qasonar.utils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.regex.Pattern;
+
+import static java.lang.Math.min;
+
+final class WhiteListMatcher {
+
+    static final int NO_MATCH = Integer.MAX_VALUE;
+
+    private final Map<String, Integer> equalsEntries = new HashMap<>();
+    private final TrieNode prefixTrie = new TrieNode();
+    private final TrieNode suffixTrie = new TrieNode();
+    private final TrieNode containsAutomaton = new TrieNode();
+    private final List<RegexEntry> regexEntries = new ArrayList<>();
+
+    void addEquals(String value, int index) {
+        equalsEntries.putIfAbsent(value, index);
+    }
+
+    void addStartsWith(String value, int index) {
+        add(prefixTrie, value, index);
+    }
+
+    void addEndsWith(String value, int index) {
+        add(suffixTrie, new StringBuilder(value).reverse().toString(), index);
+    }
+
+    void addContains(String value, int index) {
+        add(containsAutomaton, value, index);
+    }
+
+    void addRegex(String value, int index) {
+        regexEntries.add(new RegexEntry(Pattern.compile(value), index));
+    }
+
+    // builds the failure links of the Aho-Corasick automaton, has to be called after all entries are added
+    WhiteListMatcher build() {
+        containsAutomaton.fail = containsAutomaton;
+        containsAutomaton.output = containsAutomaton.index;
+
+        Queue<TrieNode> queue = new ArrayDeque<>();
+        queue.add(containsAutomaton);
+        while (!queue.isEmpty()) {
+            TrieNode node = queue.poll();
+            for (Map.Entry<Character, TrieNode> entry : node.children.entrySet()) {
+                TrieNode child = entry.getValue();
+                child.fail = (node == containsAutomaton) ? containsAutomaton : getNext(node.fail, entry.getKey());
+                child.output = min(child.index, child.fail.output);
+                queue.add(child);
+            }
+        }
+        return this;
+    }
+
+    // returns the lowest index of all matching entries, so the first entry of the whitelist wins
+    int getFirstMatch(String fileName) {
+        Integer equalsIndex = equalsEntries.get(fileName);
+        int firstMatch = (equalsIndex == null) ? NO_MATCH : equalsIndex;
+        firstMatch = min(firstMatch, matchPrefix(fileName));
+        firstMatch = min(firstMatch, matchSuffix(fileName));
+        firstMatch = min(firstMatch, matchContains(fileName));
+        for (RegexEntry regexEntry : regexEntries) {
+            if (regexEntry.index >= firstMatch) {
+                break;
+            }
+            if (regexEntry.pattern.matcher(fileName).matches()) {
+                return regexEntry.index;
+            }
+        }
+        return firstMatch;
+    }
+
+    private int matchPrefix(String fileName) {
+        TrieNode node = prefixTrie;
+        int firstMatch = node.index;
+        for (int i = 0; i < fileName.length() && firstMatch > 0; i++) {
+            node = node.children.get(fileName.charAt(i));
+            if (node == null) {
+                break;
+            }
+            firstMatch = min(firstMatch, node.index);
+        }
+        return firstMatch;
+    }
+
+    private int matchSuffix(String fileName) {
+        TrieNode node = suffixTrie;
+        int firstMatch = node.index;
+        for (int i = fileName.length() - 1; i >= 0 && firstMatch > 0; i--) {
+            node = node.children.get(fileName.charAt(i));
+            if (node == null) {
+                break;
+            }
+            firstMatch = min(firstMatch, node.index);
+        }
+        return firstMatch;
+    }
+
+    private int matchContains(String fileName) {
+        TrieNode node = containsAutomaton;
+        int firstMatch = node.output;
+        for (int i = 0; i < fileName.length() && firstMatch > 0; i++) {
+            node = getNext(node, fileName.charAt(i));
+            firstMatch = min(firstMatch, node.output);
+        }
+        return firstMatch;
+    }
+
+    private TrieNode getNext(TrieNode node, char c) {
+        TrieNode current = node;
+        while (true) {
+            TrieNode next = current.children.get(c);
+            if (next != null) {
+                return next;
+            }
+            if (current == containsAutomaton) {
+                return containsAutomaton;
+            }
+            current = current.fail;
+        }
+    }
+
+    private static void add(TrieNode root, String value, int index) {
+        TrieNode node = root;
+        for (int i = 0; i < value.length(); i++) {
+            node = node.children.computeIfAbsent(value.charAt(i), c -> new TrieNode());
+        }
+        node.index = min(node.index, index);
+    }
+
+    private static final class TrieNode {
+
+        private final Map<Character, TrieNode> children = new HashMap<>();
+
+        private int index = NO_MATCH;
+        private int output = NO_MATCH;
+        private TrieNode fail;
+    }
+
+    private static final class RegexEntry {
+
+        private final Pattern pattern;
+        private final int index;
+
+        private RegexEntry(Pattern pattern, int index) {
+            this.pattern = pattern;
+            this.index = index;
+        }
+    }
+}
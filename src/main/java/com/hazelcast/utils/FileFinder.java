@@ -17,22 +17,34 @@
 package com.hazelcast.utils;
 
 import java.io.IOException;
+import java.nio.file.DirectoryStream;
 import java.nio.file.FileSystems;
-import java.nio.file.FileVisitResult;
 import java.nio.file.Path;
 import java.nio.file.PathMatcher;
-import java.nio.file.SimpleFileVisitor;
-import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
-import static java.nio.file.FileVisitResult.CONTINUE;
+import static com.hazelcast.utils.DebugUtils.debugRed;
+import static java.nio.file.Files.isDirectory;
+import static java.nio.file.Files.newDirectoryStream;
+import static java.nio.file.LinkOption.NOFOLLOW_LINKS;
+import static java.util.Arrays.asList;
 
-public class FileFinder extends SimpleFileVisitor<Path> {
+// finds files by their name, sibling directories are walked concurrently and pruned directories are skipped
+public class FileFinder {
 
+    private final Set<String> prunedDirectories = new HashSet<>();
     private final PathMatcher matcher;
-    private List<Path> matchedPaths = new ArrayList<>();
+
+    private int maxDepth = Integer.MAX_VALUE;
 
     public FileFinder(String pattern) {
         this(pattern, false);
@@ -42,35 +54,79 @@ public class FileFinder extends SimpleFileVisitor<Path> {
         matcher = FileSystems.getDefault().getPathMatcher((useRegex ? "regex:" : "glob:") + pattern);
     }
 
-    // invoke the pattern matching method on each file
-    @Override
-    public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
-        match(file);
-        return CONTINUE;
+    // hidden directories like .git or .idea are always pruned, other directories just on request
+    public FileFinder prune(String... directoryNames) {
+        prunedDirectories.addAll(asList(directoryNames));
+        return this;
     }
 
-    // invoke the pattern matching method on each directory
-    @Override
-    public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
-        match(dir);
-        return CONTINUE;
+    // the files in the root directory have a depth of 1
+    public FileFinder maxDepth(int maxDepth) {
+        this.maxDepth = maxDepth;
+        return this;
     }
 
-    @Override
-    public FileVisitResult visitFileFailed(Path file, IOException exc) {
-        exc.printStackTrace();
-        return CONTINUE;
+    // returns the matched files sorted by path, so the result doesn't depend on the walk order
+    public List<Path> find(Path root) throws IOException {
+        ConcurrentLinkedQueue<Path> matchedPaths = new ConcurrentLinkedQueue<>();
+        find(root, matchedPaths::add);
+
+        List<Path> sortedPaths = new ArrayList<>(matchedPaths);
+        Collections.sort(sortedPaths);
+        return sortedPaths;
+    }
+
+    // the consumer is called concurrently for each matched file as soon as it is found, returns the number of matches
+    public int find(Path root, Consumer<Path> consumer) throws IOException {
+        Path absoluteRoot = root.toAbsolutePath();
+        if (!isDirectory(absoluteRoot)) {
+            throw new IOException("Not a directory: " + absoluteRoot);
+        }
+        AtomicInteger matchCount = new AtomicInteger();
+        ForkJoinPool.commonPool().invoke(new DirectoryTask(absoluteRoot, 0, path -> {
+            matchCount.incrementAndGet();
+            consumer.accept(path);
+        }));
+        return matchCount.get();
     }
 
-    public Collection<Path> getMatchedPaths() {
-        return matchedPaths;
+    private boolean isPruned(Path directory) {
+        String name = directory.getFileName().toString();
+        return name.startsWith(".") || prunedDirectories.contains(name);
     }
 
-    // compares the glob pattern against the file or directory name
-    private void match(Path file) {
-        Path name = file.getFileName();
-        if (name != null && matcher.matches(name)) {
-            matchedPaths.add(file);
+    private final class DirectoryTask extends RecursiveAction {
+
+        private final Path directory;
+        private final int depth;
+        private final Consumer<Path> consumer;
+
+        private DirectoryTask(Path directory, int depth, Consumer<Path> consumer) {
+            this.directory = directory;
+            this.depth = depth;
+            this.consumer = consumer;
+        }
+
+        @Override
+        protected void compute() {
+            if (depth >= maxDepth) {
+                return;
+            }
+            List<DirectoryTask> subTasks = new ArrayList<>();
+            try (DirectoryStream<Path> stream = newDirectoryStream(directory)) {
+                for (Path path : stream) {
+                    if (isDirectory(path, NOFOLLOW_LINKS)) {
+                        if (!isPruned(path)) {
+                            subTasks.add(new DirectoryTask(path, depth + 1, consumer));
+                        }
+                    } else if (matcher.matches(path.getFileName())) {
+                        consumer.accept(path);
+                    }
+                }
+            } catch (IOException e) {
+                debugRed("Could not read directory %s: %s", directory, e.getMessage());
+            }
+            invokeAll(subTasks);
         }
     }
 }
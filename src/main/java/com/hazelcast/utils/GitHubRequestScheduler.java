@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.utils;
+
+import org.kohsuke.github.GHRateLimit;
+import org.kohsuke.github.HttpException;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.hazelcast.utils.DebugUtils.debug;
+import static com.hazelcast.utils.DebugUtils.debugRed;
+import static com.hazelcast.utils.TimeTracker.record;
+import static com.hazelcast.utils.TimeTracker.recordRetry;
+import static com.hazelcast.utils.TimeTracker.recordThrottle;
+import static com.hazelcast.utils.Utils.sleepMillis;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+final class GitHubRequestScheduler {
+
+    static final int DEFAULT_MAX_ATTEMPTS = 10;
+    static final long DEFAULT_BASE_DELAY_MILLIS = 200;
+    static final long DEFAULT_MAX_DELAY_MILLIS = SECONDS.toMillis(60);
+
+    // below this budget the requests are spread evenly until the rate limit is reset
+    static final int PACING_THRESHOLD = 500;
+
+    private static final int RATE_LIMIT_REFRESH_INTERVAL = 100;
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+    private static final int MAX_BACKOFF_SHIFT = 20;
+    // the reset time of GitHub has a resolution of seconds
+    private static final long RATE_LIMIT_RESET_MARGIN_MILLIS = SECONDS.toMillis(1);
+
+    private final AtomicInteger requestsSinceRefresh = new AtomicInteger();
+
+    private final int maxAttempts;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+
+    private volatile Callable<GHRateLimit> rateLimitSupplier;
+
+    private int remaining = -1;
+    private long resetMillis;
+    private long nextSlotMillis;
+
+    GitHubRequestScheduler() {
+        this(DEFAULT_MAX_ATTEMPTS, DEFAULT_BASE_DELAY_MILLIS, DEFAULT_MAX_DELAY_MILLIS);
+    }
+
+    GitHubRequestScheduler(int maxAttempts, long baseDelayMillis, long maxDelayMillis) {
+        this.maxAttempts = maxAttempts;
+        this.baseDelayMillis = baseDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+    }
+
+    void setRateLimitSupplier(Callable<GHRateLimit> rateLimitSupplier) {
+        this.rateLimitSupplier = rateLimitSupplier;
+        requestsSinceRefresh.set(0);
+    }
+
+    <T> T execute(TimeTrackerLabel label, Callable<T> callable) throws IOException {
+        long started = System.nanoTime();
+        try {
+            for (int attempt = 1; ; attempt++) {
+                throttle(label);
+                try {
+                    return callable.call();
+                } catch (Throwable t) {
+                    Throwable cause = unwrap(t);
+                    if (!isRetryable(cause) || attempt >= maxAttempts) {
+                        throw rethrow(cause);
+                    }
+                    long delayMillis = isRateLimitError(cause) ? getRateLimitDelayMillis(attempt) : getBackoffMillis(attempt);
+                    debugRed("%s failed (attempt %d/%d), retrying in %d ms: %s", label, attempt, maxAttempts, delayMillis,
+                            cause);
+                    sleepMillis(delayMillis);
+                    recordRetry(label, MILLISECONDS.toNanos(delayMillis));
+                }
+            }
+        } finally {
+            record(label, System.nanoTime() - started);
+        }
+    }
+
+    synchronized void updateRateLimit(int remaining, long resetMillis) {
+        this.remaining = remaining;
+        this.resetMillis = resetMillis;
+    }
+
+    synchronized long reserveDelayMillis(long nowMillis) {
+        if (remaining < 0 || remaining > PACING_THRESHOLD || nowMillis >= resetMillis) {
+            if (remaining > 0) {
+                remaining--;
+            }
+            return 0;
+        }
+        long untilResetMillis = resetMillis - nowMillis;
+        if (remaining == 0) {
+            // the budget is exhausted, so we wait for the reset of the rate limit
+            return untilResetMillis;
+        }
+        long slotMillis = max(nowMillis, nextSlotMillis);
+        nextSlotMillis = slotMillis + untilResetMillis / remaining;
+        remaining--;
+        return slotMillis - nowMillis;
+    }
+
+    // a 403 or 429 is caused by an exhausted rate limit, so we wait for its reset instead of retrying with a short backoff
+    long getRateLimitDelayMillis(int attempt) {
+        refreshRateLimit();
+        long untilResetMillis = getMillisUntilReset(System.currentTimeMillis());
+        return (untilResetMillis > 0) ? untilResetMillis + RATE_LIMIT_RESET_MARGIN_MILLIS : getBackoffMillis(attempt);
+    }
+
+    synchronized long getMillisUntilReset(long nowMillis) {
+        return (remaining == 0 && resetMillis > nowMillis) ? resetMillis - nowMillis : 0;
+    }
+
+    long getBackoffMillis(int attempt) {
+        // exponential backoff with full jitter
+        long ceilingMillis = min(maxDelayMillis, baseDelayMillis << min(attempt - 1, MAX_BACKOFF_SHIFT));
+        return ThreadLocalRandom.current().nextLong(ceilingMillis + 1);
+    }
+
+    static boolean isRetryable(Throwable cause) {
+        if (cause instanceof FileNotFoundException) {
+            // github-api reports a 404 this way
+            return false;
+        }
+        if (cause instanceof HttpException) {
+            int responseCode = ((HttpException) cause).getResponseCode();
+            return responseCode == -1
+                    || responseCode == HttpURLConnection.HTTP_FORBIDDEN
+                    || responseCode == HTTP_TOO_MANY_REQUESTS
+                    || responseCode >= HttpURLConnection.HTTP_INTERNAL_ERROR;
+        }
+        return cause instanceof IOException;
+    }
+
+    private void throttle(TimeTrackerLabel label) {
+        refreshRateLimitIfNeeded();
+        long delayMillis = reserveDelayMillis(System.currentTimeMillis());
+        if (delayMillis > 0) {
+            debug("Throttling %s for %d ms to stay within the GitHub rate limit...", label, delayMillis);
+            sleepMillis(delayMillis);
+            recordThrottle(label, MILLISECONDS.toNanos(delayMillis));
+        }
+    }
+
+    static boolean isRateLimitError(Throwable cause) {
+        if (!(cause instanceof HttpException)) {
+            return false;
+        }
+        int responseCode = ((HttpException) cause).getResponseCode();
+        return responseCode == HttpURLConnection.HTTP_FORBIDDEN || responseCode == HTTP_TOO_MANY_REQUESTS;
+    }
+
+    private void refreshRateLimitIfNeeded() {
+        if (requestsSinceRefresh.getAndIncrement() % RATE_LIMIT_REFRESH_INTERVAL == 0) {
+            refreshRateLimit();
+        }
+    }
+
+    private void refreshRateLimit() {
+        Callable<GHRateLimit> supplier = rateLimitSupplier;
+        if (supplier == null) {
+            return;
+        }
+        try {
+            GHRateLimit rateLimit = supplier.call();
+            updateRateLimit(rateLimit.remaining, rateLimit.getResetDate().getTime());
+        } catch (Exception e) {
+            debugRed("Could not read GitHub rate limit: %s", e.getMessage());
+        }
+    }
+
+    private static Throwable unwrap(Throwable t) {
+        // the paged iterators of github-api wrap their IOExceptions into an Error
+        if (t instanceof Error && t.getCause() instanceof IOException) {
+            return t.getCause();
+        }
+        return t;
+    }
+
+    private static IOException rethrow(Throwable cause) throws IOException {
+        if (cause instanceof IOException) {
+            throw (IOException) cause;
+        }
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        throw new IOException(cause);
+    }
+}
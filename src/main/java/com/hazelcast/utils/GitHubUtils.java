@@ -25,19 +25,15 @@ import org.kohsuke.github.GHRepository;
 import org.kohsuke.github.GHUser;
 import org.kohsuke.github.GitHub;
 
-import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.List;
 import java.util.concurrent.Callable;
-import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.hazelcast.utils.DebugUtils.debug;
 import static com.hazelcast.utils.DebugUtils.isDebug;
-import static com.hazelcast.utils.TimeTracker.record;
-import static com.hazelcast.utils.Utils.sleepMillis;
 import static org.apache.commons.io.IOUtils.copy;
 import static org.kohsuke.github.GHIssueState.CLOSED;
 import static org.kohsuke.github.GHIssueState.OPEN;
@@ -48,53 +44,44 @@ public final class GitHubUtils {
     static final GHMilestone ALL_MILESTONE = new GHMilestone();
     static final GHMilestone NO_MILESTONE = new GHMilestone();
 
-    private static final int GITHUB_FILE_DOWNLOAD_RETRIES = 10;
-    private static final int GITHUB_EXCEPTION_DELAY_MILLIS = 200;
-    private static final int GITHUB_EXCEPTION_LOG_FREQUENCY = 10;
-
     private static final String MERGED_MILESTONE_TITLE = "MERGED";
     private static final String ALL_MILESTONE_TITLE = "ALL";
     private static final String NO_MILESTONE_TITLE = "NONE";
 
-    private static final AtomicInteger EXCEPTION_COUNTER = new AtomicInteger();
+    private static final GitHubRequestScheduler SCHEDULER = new GitHubRequestScheduler();
 
     private GitHubUtils() {
     }
 
     public static GHRepository getGitHubRepository(PropertyReader propertyReader) {
-        return (GHRepository) execute(TimeTrackerLabel.GET_GITHUB_REPOSITORY, () -> {
+        return getGitHubRepository(getGitHub(propertyReader), propertyReader.getGitHubRepository());
+    }
+
+    public static GitHub getGitHub(PropertyReader propertyReader) {
+        return execute(TimeTrackerLabel.CONNECT_GITHUB, () -> {
             GitHub github = GitHub.connect(propertyReader.getGitHubLogin(), propertyReader.getGitHubToken());
-            return github.getRepository(propertyReader.getGitHubRepository());
+            SCHEDULER.setRateLimitSupplier(github::getRateLimit);
+            return github;
         });
     }
 
+    public static GHRepository getGitHubRepository(GitHub github, String repositoryName) {
+        return execute(TimeTrackerLabel.GET_GITHUB_REPOSITORY, () -> github.getRepository(repositoryName));
+    }
+
     public static String getFileContentsFromGitHub(GHRepository repo, String fileName) throws IOException {
-        long started = System.nanoTime();
-        try {
-            IOException exception = null;
-            for (int i = 0; i < GITHUB_FILE_DOWNLOAD_RETRIES; i++) {
-                try {
-                    GHContent fileContent = repo.getFileContent(fileName);
-
-                    StringWriter writer = new StringWriter();
-                    copy(fileContent.read(), writer);
-
-                    return writer.toString();
-                } catch (FileNotFoundException e) {
-                    throw e;
-                } catch (IOException e) {
-                    exception = e;
-                }
-                sleepMillis(GITHUB_EXCEPTION_DELAY_MILLIS * (i + 1));
-            }
-            throw exception;
-        } finally {
-            record(TimeTrackerLabel.GET_FILE_CONTENTS_FROM_GITHUB, System.nanoTime() - started);
-        }
+        return SCHEDULER.execute(TimeTrackerLabel.GET_FILE_CONTENTS_FROM_GITHUB, () -> {
+            GHContent fileContent = repo.getFileContent(fileName);
+
+            StringWriter writer = new StringWriter();
+            copy(fileContent.read(), writer);
+
+            return writer.toString();
+        });
     }
 
     public static String getAuthor(GHRepository repo, int gitPullRequest) {
-        return (String) execute(TimeTrackerLabel.GET_AUTHOR, () -> {
+        return execute(TimeTrackerLabel.GET_AUTHOR, () -> {
             GHUser user = repo.getIssue(gitPullRequest).getUser();
             String author = user.getName();
             if (author != null) {
@@ -105,7 +92,7 @@ public final class GitHubUtils {
     }
 
     public static GHMilestone getMilestone(String milestoneTitle, GHRepository repo) {
-        return (GHMilestone) execute(TimeTrackerLabel.GET_MILESTONE, () -> {
+        return execute(TimeTrackerLabel.GET_MILESTONE, () -> {
             switch (milestoneTitle) {
                 case MERGED_MILESTONE_TITLE:
                     return MERGED_MILESTONE;
@@ -130,12 +117,11 @@ public final class GitHubUtils {
     }
 
     public static GHPullRequest getPullRequest(GHRepository repo, int gitPullRequest) {
-        return (GHPullRequest) execute(TimeTrackerLabel.GET_PULL_REQUEST, () -> repo.getPullRequest(gitPullRequest));
+        return execute(TimeTrackerLabel.GET_PULL_REQUEST, () -> repo.getPullRequest(gitPullRequest));
     }
 
-    @SuppressWarnings("unchecked")
     public static List<Integer> getPullRequests(GHRepository repo, GHMilestone milestone, Calendar calendar) {
-        return (List<Integer>) execute(TimeTrackerLabel.GET_PULL_REQUESTS, () -> {
+        return execute(TimeTrackerLabel.GET_PULL_REQUESTS, () -> {
             List<Integer> pullRequests = new ArrayList<>();
 
             for (GHPullRequest pullRequest : repo.getPullRequests(CLOSED)) {
@@ -156,17 +142,24 @@ public final class GitHubUtils {
         });
     }
 
+    public static String getMergeCommitSha(GHPullRequest pullRequest) {
+        return execute(TimeTrackerLabel.GET_MERGE_COMMIT, pullRequest::getMergeCommitSha);
+    }
+
+    public static int getCommitCount(GHPullRequest pullRequest) {
+        return execute(TimeTrackerLabel.GET_COMMIT_COUNT, pullRequest::getCommits);
+    }
+
     public static boolean isMerged(GHPullRequest pullRequest) {
-        return (boolean) execute(TimeTrackerLabel.IS_MERGED, pullRequest::isMerged);
+        return execute(TimeTrackerLabel.IS_MERGED, pullRequest::isMerged);
     }
 
     public static boolean isClosed(GHPullRequest pullRequest) {
-        return (boolean) execute(TimeTrackerLabel.IS_CLOSED, () -> pullRequest.getState().equals(GHIssueState.CLOSED));
+        return execute(TimeTrackerLabel.IS_CLOSED, () -> pullRequest.getState().equals(GHIssueState.CLOSED));
     }
 
-    @SuppressWarnings("unchecked")
     public static List<GHPullRequestFileDetail> getPullRequestFiles(GHPullRequest pullRequest) {
-        return (List<GHPullRequestFileDetail>) execute(TimeTrackerLabel.GET_PULL_REQUEST_FILES, () -> {
+        return execute(TimeTrackerLabel.GET_PULL_REQUEST_FILES, () -> {
             List<GHPullRequestFileDetail> files = new ArrayList<>();
             for (GHPullRequestFileDetail pullRequestFile : pullRequest.listFiles()) {
                 files.add(pullRequestFile);
@@ -201,24 +194,11 @@ public final class GitHubUtils {
         debug("[%d-%02d-%02d] #%04d %s", year, month, day, pullRequest.getNumber(), pullRequest.getTitle());
     }
 
-    private static Object execute(TimeTrackerLabel label, Callable callable) {
-        long started = System.nanoTime();
+    private static <T> T execute(TimeTrackerLabel label, Callable<T> callable) {
         try {
-            while (true) {
-                try {
-                    return callable.call();
-                } catch (Throwable t) {
-                    int counter = EXCEPTION_COUNTER.incrementAndGet();
-                    if (counter % GITHUB_EXCEPTION_LOG_FREQUENCY == 0) {
-                        counter = 0;
-                        EXCEPTION_COUNTER.set(0);
-                        t.printStackTrace();
-                    }
-                    sleepMillis(GITHUB_EXCEPTION_DELAY_MILLIS * counter);
-                }
-            }
-        } finally {
-            record(label, System.nanoTime() - started);
+            return SCHEDULER.execute(label, callable);
+        } catch (IOException e) {
+            throw new IllegalStateException("GitHub request " + label + " failed", e);
         }
     }
 }
@@ -35,6 +35,8 @@ import java.time.Instant;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -52,6 +54,8 @@ public final class GitUtils {
     private static final AtomicInteger COMPILE_COUNTER_OS = new AtomicInteger();
     private static final AtomicInteger COMPILE_COUNTER_EE = new AtomicInteger();
 
+    private static final ConcurrentMap<String, Repository> SHARED_REPOSITORIES = new ConcurrentHashMap<>();
+
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter
             .ofPattern("yyyy-MM-dd HH:mm:ss", Locale.ENGLISH)
             .withZone(ZoneId.systemDefault());
@@ -74,6 +78,21 @@ public final class GitUtils {
         return new Git(repoOS);
     }
 
+    // the repositories stay open, so their object databases are warm for later runs in the same JVM
+    public static Repository getSharedRepository(PropertyReader propertyReader, String repositoryName) throws IOException {
+        String key = propertyReader.getLocalGitRoot() + repositoryName;
+        Repository repository = SHARED_REPOSITORIES.get(key);
+        if (repository == null) {
+            repository = getGit(propertyReader, repositoryName).getRepository();
+            Repository existing = SHARED_REPOSITORIES.putIfAbsent(key, repository);
+            if (existing != null) {
+                repository.close();
+                return existing;
+            }
+        }
+        return repository;
+    }
+
     public static void cleanupBranch(String branchName, Git git) throws GitAPIException {
         git.checkout()
                 .setName("master")
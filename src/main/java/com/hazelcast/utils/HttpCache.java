@@ -0,0 +1,257 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.net.HttpURLConnection;
+import java.nio.file.DirectoryStream;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.hazelcast.utils.DebugUtils.debug;
+import static com.hazelcast.utils.DebugUtils.debugRed;
+import static com.hazelcast.utils.TimeTracker.count;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.Files.createDirectories;
+import static java.nio.file.Files.createTempFile;
+import static java.nio.file.Files.deleteIfExists;
+import static java.nio.file.Files.getLastModifiedTime;
+import static java.nio.file.Files.move;
+import static java.nio.file.Files.newBufferedReader;
+import static java.nio.file.Files.newDirectoryStream;
+import static java.nio.file.Files.newInputStream;
+import static java.nio.file.Files.newOutputStream;
+import static java.nio.file.Files.setLastModifiedTime;
+import static java.nio.file.Files.size;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static org.apache.commons.codec.digest.DigestUtils.sha1Hex;
+import static org.apache.commons.io.IOUtils.copy;
+
+public class HttpCache {
+
+    private static final long BYTES_PER_KB = 1024;
+
+    private static final String BODY_SUFFIX = ".json";
+    private static final String META_SUFFIX = ".properties";
+
+    private static final String META_QUERY = "query";
+    private static final String META_ETAG = "etag";
+    private static final String META_LAST_MODIFIED = "lastModified";
+    private static final String META_STORED_AT = "storedAt";
+
+    private final Path directory;
+    private final long ttlMillis;
+    private final long maxSizeBytes;
+    private final AtomicLong currentSizeBytes = new AtomicLong();
+
+    public HttpCache(String directory, long ttlMillis, long maxSizeBytes) throws IOException {
+        this.directory = Paths.get(directory).toAbsolutePath();
+        this.ttlMillis = ttlMillis;
+        this.maxSizeBytes = maxSizeBytes;
+
+        createDirectories(this.directory);
+        for (Path bodyPath : listBodyPaths()) {
+            currentSizeBytes.addAndGet(size(bodyPath));
+        }
+        debug("Using HTTP cache at %s (%d KB)", this.directory, currentSizeBytes.get() / BYTES_PER_KB);
+    }
+
+    public static HttpCache fromPropertyReader(PropertyReader props) throws IOException {
+        String directory = props.getHttpCacheDirectory();
+        if (directory == null || directory.isEmpty()) {
+            return null;
+        }
+        return new HttpCache(directory, props.getHttpCacheTtlMillis(), props.getHttpCacheMaxSizeBytes());
+    }
+
+    public Reader getReader(RestClient restClient, String query) throws IOException {
+        String key = sha1Hex(query);
+        Path bodyPath = directory.resolve(key + BODY_SUFFIX);
+        Path metaPath = directory.resolve(key + META_SUFFIX);
+
+        Properties meta = readMetaOrNull(metaPath);
+        if (meta != null && isFresh(meta)) {
+            Reader reader = openBodyOrNull(bodyPath);
+            if (reader != null) {
+                count(TimeTrackerLabel.HTTP_CACHE_HIT);
+                return reader;
+            }
+            meta = null;
+        }
+
+        RestResponse response = restClient.get(query, getConditionalHeaders(meta));
+        try {
+            if (meta != null && response.getStatusCode() == HttpURLConnection.HTTP_NOT_MODIFIED) {
+                Reader reader = openBodyOrNull(bodyPath);
+                if (reader != null) {
+                    meta.setProperty(META_STORED_AT, String.valueOf(System.currentTimeMillis()));
+                    writeMeta(metaPath, meta);
+                    count(TimeTrackerLabel.HTTP_CACHE_REVALIDATED);
+                    return reader;
+                }
+                response.close();
+                response = restClient.get(query);
+            }
+            store(query, response, bodyPath, metaPath);
+        } finally {
+            response.close();
+        }
+        count(TimeTrackerLabel.HTTP_CACHE_MISS);
+
+        Reader reader = newBufferedReader(bodyPath, UTF_8);
+        evictIfNeeded();
+        return reader;
+    }
+
+    private boolean isFresh(Properties meta) {
+        String storedAt = meta.getProperty(META_STORED_AT);
+        return storedAt != null && System.currentTimeMillis() - Long.parseLong(storedAt) < ttlMillis;
+    }
+
+    private static Map<String, String> getConditionalHeaders(Properties meta) {
+        Map<String, String> headers = new HashMap<>();
+        if (meta != null) {
+            String etag = meta.getProperty(META_ETAG);
+            if (etag != null) {
+                headers.put("If-None-Match", etag);
+            }
+            String lastModified = meta.getProperty(META_LAST_MODIFIED);
+            if (lastModified != null) {
+                headers.put("If-Modified-Since", lastModified);
+            }
+        }
+        return headers;
+    }
+
+    private void store(String query, RestResponse response, Path bodyPath, Path metaPath) throws IOException {
+        Path tmpPath = createTempFile(directory, "download", ".tmp");
+        try {
+            try (OutputStream out = newOutputStream(tmpPath)) {
+                copy(response.getInputStream(), out);
+            }
+            long newSize = size(tmpPath);
+            long oldSize = bodyPath.toFile().length();
+            move(tmpPath, bodyPath, REPLACE_EXISTING, ATOMIC_MOVE);
+            currentSizeBytes.addAndGet(newSize - oldSize);
+        } finally {
+            deleteIfExists(tmpPath);
+        }
+
+        Properties meta = new Properties();
+        meta.setProperty(META_QUERY, query);
+        meta.setProperty(META_STORED_AT, String.valueOf(System.currentTimeMillis()));
+        String etag = response.getHeader("ETag");
+        if (etag != null) {
+            meta.setProperty(META_ETAG, etag);
+        }
+        String lastModified = response.getHeader("Last-Modified");
+        if (lastModified != null) {
+            meta.setProperty(META_LAST_MODIFIED, lastModified);
+        }
+        writeMeta(metaPath, meta);
+    }
+
+    private Reader openBodyOrNull(Path bodyPath) throws IOException {
+        try {
+            Reader reader = newBufferedReader(bodyPath, UTF_8);
+            // the modification time of the body is used as access time for the LRU eviction
+            setLastModifiedTime(bodyPath, FileTime.fromMillis(System.currentTimeMillis()));
+            return reader;
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    private static Properties readMetaOrNull(Path metaPath) {
+        try (InputStream in = newInputStream(metaPath)) {
+            Properties meta = new Properties();
+            meta.load(in);
+            return meta;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private void writeMeta(Path metaPath, Properties meta) throws IOException {
+        Path tmpPath = createTempFile(directory, "meta", ".tmp");
+        try {
+            try (OutputStream out = newOutputStream(tmpPath)) {
+                meta.store(out, null);
+            }
+            move(tmpPath, metaPath, REPLACE_EXISTING, ATOMIC_MOVE);
+        } finally {
+            deleteIfExists(tmpPath);
+        }
+    }
+
+    private synchronized void evictIfNeeded() throws IOException {
+        if (currentSizeBytes.get() <= maxSizeBytes) {
+            return;
+        }
+        List<Path> bodyPaths = listBodyPaths();
+        bodyPaths.sort((path1, path2) -> getLastModifiedTimeOrZero(path1).compareTo(getLastModifiedTimeOrZero(path2)));
+        int evicted = 0;
+        for (Path bodyPath : bodyPaths) {
+            if (currentSizeBytes.get() <= maxSizeBytes) {
+                break;
+            }
+            long bodySize = bodyPath.toFile().length();
+            String fileName = bodyPath.getFileName().toString();
+            String key = fileName.substring(0, fileName.length() - BODY_SUFFIX.length());
+            try {
+                deleteIfExists(directory.resolve(key + META_SUFFIX));
+                if (deleteIfExists(bodyPath)) {
+                    currentSizeBytes.addAndGet(-bodySize);
+                    evicted++;
+                }
+            } catch (IOException e) {
+                debugRed("Could not evict HTTP cache entry %s: %s", bodyPath, e.getMessage());
+            }
+        }
+        debug("Evicted %d HTTP cache entries", evicted);
+    }
+
+    private List<Path> listBodyPaths() throws IOException {
+        List<Path> bodyPaths = new ArrayList<>();
+        try (DirectoryStream<Path> stream = newDirectoryStream(directory, "*" + BODY_SUFFIX)) {
+            for (Path path : stream) {
+                bodyPaths.add(path);
+            }
+        }
+        return bodyPaths;
+    }
+
+    private static FileTime getLastModifiedTimeOrZero(Path path) {
+        try {
+            return getLastModifiedTime(path);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+}
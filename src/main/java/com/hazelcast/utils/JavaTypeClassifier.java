@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.utils;
+
+import java.io.IOException;
+import java.io.PushbackReader;
+import java.io.Reader;
+import java.io.StringReader;
+
+import static java.lang.Character.isJavaIdentifierPart;
+import static java.lang.Character.isJavaIdentifierStart;
+import static java.lang.Character.isWhitespace;
+
+// finds the kind of a top-level type declaration, the source is just tokenized until the declaration is found
+public final class JavaTypeClassifier {
+
+    private static final int EOF = -1;
+
+    private final PushbackReader reader;
+    private final String typeName;
+
+    private int depth;
+    private boolean isAnnotation;
+    private JavaType declaredType;
+
+    private JavaTypeClassifier(Reader reader, String typeName) {
+        this.reader = new PushbackReader(reader);
+        this.typeName = typeName;
+    }
+
+    public static JavaType classify(Reader reader, String typeName) throws IOException {
+        return new JavaTypeClassifier(reader, typeName).classify();
+    }
+
+    public static JavaType classify(String contents, String typeName) {
+        try {
+            return classify(new StringReader(contents), typeName);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private JavaType classify() throws IOException {
+        int c;
+        while ((c = reader.read()) != EOF) {
+            if (isJavaIdentifierStart(c)) {
+                JavaType javaType = onIdentifier(readIdentifier(c));
+                if (javaType != null) {
+                    return javaType;
+                }
+            } else if (!isWhitespace(c)) {
+                onSymbol(c);
+            }
+        }
+        return JavaType.UNKNOWN;
+    }
+
+    private JavaType onIdentifier(String identifier) {
+        if (depth > 0) {
+            return null;
+        }
+        JavaType pendingType = declaredType;
+        boolean isPendingAnnotation = isAnnotation;
+        declaredType = null;
+        isAnnotation = false;
+        if (pendingType != null) {
+            return identifier.equals(typeName) ? pendingType : null;
+        }
+        switch (identifier) {
+            case "class":
+                declaredType = JavaType.CLASS;
+                break;
+            case "interface":
+                declaredType = isPendingAnnotation ? JavaType.ANNOTATION : JavaType.INTERFACE;
+                break;
+            case "enum":
+                declaredType = JavaType.ENUM;
+                break;
+            default:
+                break;
+        }
+        return null;
+    }
+
+    private void onSymbol(int c) throws IOException {
+        if (c == '/' && skipComment()) {
+            return;
+        }
+        declaredType = null;
+        isAnnotation = (c == '@');
+        switch (c) {
+            case '"':
+            case '\'':
+                skipLiteral(c);
+                break;
+            case '{':
+                depth++;
+                break;
+            case '}':
+                depth--;
+                break;
+            default:
+                break;
+        }
+    }
+
+    private String readIdentifier(int first) throws IOException {
+        StringBuilder sb = new StringBuilder().append((char) first);
+        int c;
+        while ((c = reader.read()) != EOF && isJavaIdentifierPart(c)) {
+            sb.append((char) c);
+        }
+        if (c != EOF) {
+            reader.unread(c);
+        }
+        return sb.toString();
+    }
+
+    private boolean skipComment() throws IOException {
+        int next = reader.read();
+        if (next == '/') {
+            int c;
+            do {
+                c = reader.read();
+            } while (c != EOF && c != '\n');
+            return true;
+        }
+        if (next == '*') {
+            int previous = EOF;
+            int c;
+            while ((c = reader.read()) != EOF && !(previous == '*' && c == '/')) {
+                previous = c;
+            }
+            return true;
+        }
+        if (next != EOF) {
+            reader.unread(next);
+        }
+        return false;
+    }
+
+    private void skipLiteral(int quote) throws IOException {
+        int c;
+        while ((c = reader.read()) != EOF && c != quote) {
+            if (c == '\\') {
+                reader.read();
+            }
+        }
+    }
+}
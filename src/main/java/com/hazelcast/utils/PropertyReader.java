@@ -21,11 +21,24 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+@SuppressWarnings("checkstyle:methodcount")
 public class PropertyReader {
 
+    private static final int DEFAULT_HTTP_CONNECT_TIMEOUT_MILLIS = (int) SECONDS.toMillis(30);
+    private static final int DEFAULT_HTTP_READ_TIMEOUT_MILLIS = (int) SECONDS.toMillis(120);
+    private static final int DEFAULT_HTTP_MAX_CONNECTIONS = 8;
+
     private final List<String> projectResourceIds = new ArrayList<>();
     private final Map<GitHubStatus, Double> minCodeCoverage = new HashMap<>();
     private int minThresholdModified;
+    private int parallelism = 1;
+    private boolean bulkMetrics;
+    private boolean gitHubGraphQL;
+    private boolean localGitDiff;
+    private boolean fullRun;
+    private boolean diffCoverage;
 
     private final String host;
     private final String username;
@@ -40,7 +53,24 @@ public class PropertyReader {
     private String defaultModule;
     private boolean throwExceptionOnMissingModule;
 
+    private String httpCacheDirectory;
+    private long httpCacheTtlMillis;
+    private long httpCacheMaxSizeBytes;
+
+    private int httpConnectTimeoutMillis = DEFAULT_HTTP_CONNECT_TIMEOUT_MILLIS;
+    private int httpReadTimeoutMillis = DEFAULT_HTTP_READ_TIMEOUT_MILLIS;
+    private int httpMaxConnections = DEFAULT_HTTP_MAX_CONNECTIONS;
+
+    private String pullRequestStoreDirectory;
+
+    private String resourceIndexDirectory;
+    private long resourceIndexTtlMillis;
+
+    private int daemonPort;
+
     private String outputFile;
+    private String jsonLinesFile;
+    private String csvFile;
 
     private String milestone;
 
@@ -50,6 +80,42 @@ public class PropertyReader {
         this.password = password;
     }
 
+    // the copy is used for the runs of multiple repositories in a single process
+    public PropertyReader copy() {
+        PropertyReader copy = new PropertyReader(host, username, password);
+        copy.projectResourceIds.addAll(projectResourceIds);
+        copy.minCodeCoverage.putAll(minCodeCoverage);
+        copy.minThresholdModified = minThresholdModified;
+        copy.parallelism = parallelism;
+        copy.bulkMetrics = bulkMetrics;
+        copy.gitHubGraphQL = gitHubGraphQL;
+        copy.localGitDiff = localGitDiff;
+        copy.fullRun = fullRun;
+        copy.diffCoverage = diffCoverage;
+        copy.localGitRoot = localGitRoot;
+        copy.gitHubLogin = gitHubLogin;
+        copy.gitHubToken = gitHubToken;
+        copy.gitHubRepository = gitHubRepository;
+        copy.gitHubRepositoryOverwritten = gitHubRepositoryOverwritten;
+        copy.defaultModule = defaultModule;
+        copy.throwExceptionOnMissingModule = throwExceptionOnMissingModule;
+        copy.httpCacheDirectory = httpCacheDirectory;
+        copy.httpCacheTtlMillis = httpCacheTtlMillis;
+        copy.httpCacheMaxSizeBytes = httpCacheMaxSizeBytes;
+        copy.httpConnectTimeoutMillis = httpConnectTimeoutMillis;
+        copy.httpReadTimeoutMillis = httpReadTimeoutMillis;
+        copy.httpMaxConnections = httpMaxConnections;
+        copy.pullRequestStoreDirectory = pullRequestStoreDirectory;
+        copy.resourceIndexDirectory = resourceIndexDirectory;
+        copy.resourceIndexTtlMillis = resourceIndexTtlMillis;
+        copy.daemonPort = daemonPort;
+        copy.outputFile = outputFile;
+        copy.jsonLinesFile = jsonLinesFile;
+        copy.csvFile = csvFile;
+        copy.milestone = milestone;
+        return copy;
+    }
+
     public String getHost() {
         return host;
     }
@@ -151,6 +217,137 @@ public class PropertyReader {
         this.minThresholdModified = minThresholdModified;
     }
 
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    public boolean isBulkMetrics() {
+        return bulkMetrics;
+    }
+
+    public void setBulkMetrics(boolean bulkMetrics) {
+        this.bulkMetrics = bulkMetrics;
+    }
+
+    public boolean isGitHubGraphQL() {
+        return gitHubGraphQL;
+    }
+
+    public void setGitHubGraphQL(boolean gitHubGraphQL) {
+        this.gitHubGraphQL = gitHubGraphQL;
+    }
+
+    public boolean isLocalGitDiff() {
+        return localGitDiff;
+    }
+
+    public void setLocalGitDiff(boolean localGitDiff) {
+        this.localGitDiff = localGitDiff;
+    }
+
+    public boolean isFullRun() {
+        return fullRun;
+    }
+
+    public void setFullRun(boolean fullRun) {
+        this.fullRun = fullRun;
+    }
+
+    public boolean isDiffCoverage() {
+        return diffCoverage;
+    }
+
+    public void setDiffCoverage(boolean diffCoverage) {
+        this.diffCoverage = diffCoverage;
+    }
+
+    public String getHttpCacheDirectory() {
+        return httpCacheDirectory;
+    }
+
+    public void setHttpCacheDirectory(String httpCacheDirectory) {
+        this.httpCacheDirectory = httpCacheDirectory;
+    }
+
+    public long getHttpCacheTtlMillis() {
+        return httpCacheTtlMillis;
+    }
+
+    public void setHttpCacheTtlMillis(long httpCacheTtlMillis) {
+        this.httpCacheTtlMillis = httpCacheTtlMillis;
+    }
+
+    public long getHttpCacheMaxSizeBytes() {
+        return httpCacheMaxSizeBytes;
+    }
+
+    public void setHttpCacheMaxSizeBytes(long httpCacheMaxSizeBytes) {
+        this.httpCacheMaxSizeBytes = httpCacheMaxSizeBytes;
+    }
+
+    public int getHttpConnectTimeoutMillis() {
+        return httpConnectTimeoutMillis;
+    }
+
+    public void setHttpConnectTimeoutMillis(int httpConnectTimeoutMillis) {
+        this.httpConnectTimeoutMillis = httpConnectTimeoutMillis;
+    }
+
+    public int getHttpReadTimeoutMillis() {
+        return httpReadTimeoutMillis;
+    }
+
+    public void setHttpReadTimeoutMillis(int httpReadTimeoutMillis) {
+        this.httpReadTimeoutMillis = httpReadTimeoutMillis;
+    }
+
+    public int getHttpMaxConnections() {
+        return httpMaxConnections;
+    }
+
+    public void setHttpMaxConnections(int httpMaxConnections) {
+        if (httpMaxConnections < 1) {
+            throw new IllegalArgumentException("httpMaxConnections must be positive, but was " + httpMaxConnections);
+        }
+        this.httpMaxConnections = httpMaxConnections;
+    }
+
+    public String getResourceIndexDirectory() {
+        return resourceIndexDirectory;
+    }
+
+    public void setResourceIndexDirectory(String resourceIndexDirectory) {
+        this.resourceIndexDirectory = resourceIndexDirectory;
+    }
+
+    public long getResourceIndexTtlMillis() {
+        return resourceIndexTtlMillis;
+    }
+
+    public void setResourceIndexTtlMillis(long resourceIndexTtlMillis) {
+        this.resourceIndexTtlMillis = resourceIndexTtlMillis;
+    }
+
+    public String getPullRequestStoreDirectory() {
+        return pullRequestStoreDirectory;
+    }
+
+    public void setPullRequestStoreDirectory(String pullRequestStoreDirectory) {
+        this.pullRequestStoreDirectory = pullRequestStoreDirectory;
+    }
+
+    public int getDaemonPort() {
+        return daemonPort;
+    }
+
+    public void setDaemonPort(int daemonPort) {
+        this.daemonPort = daemonPort;
+    }
+
     public String getOutputFile() {
         return outputFile;
     }
@@ -159,6 +356,22 @@ public class PropertyReader {
         this.outputFile = outputFile;
     }
 
+    public String getJsonLinesFile() {
+        return jsonLinesFile;
+    }
+
+    public void setJsonLinesFile(String jsonLinesFile) {
+        this.jsonLinesFile = jsonLinesFile;
+    }
+
+    public String getCsvFile() {
+        return csvFile;
+    }
+
+    public void setCsvFile(String csvFile) {
+        this.csvFile = csvFile;
+    }
+
     public String getMilestone() {
         return milestone;
     }
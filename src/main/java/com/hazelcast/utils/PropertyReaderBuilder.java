@@ -23,11 +23,17 @@ import java.util.Properties;
 
 import static java.lang.Double.valueOf;
 import static java.util.Arrays.asList;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.apache.commons.io.IOUtils.closeQuietly;
 
 public final class PropertyReaderBuilder {
 
     private static final double DEFAULT_MIN_CODE_COVERAGE = 87.5;
+    private static final long DEFAULT_HTTP_CACHE_TTL_MINUTES = 60;
+    private static final long DEFAULT_HTTP_CACHE_MAX_SIZE_MB = 512;
+    private static final long DEFAULT_RESOURCE_INDEX_TTL_MINUTES = 60;
+    private static final long BYTES_PER_MB = 1024 * 1024;
 
     private PropertyReaderBuilder() {
     }
@@ -74,6 +80,16 @@ public final class PropertyReaderBuilder {
                 propertyReader.setMinCodeCoverage(valueOf(minCodeCoverageModifiedString), true);
             }
 
+            addHttpClient(propertyReader, props);
+            addHttpCache(propertyReader, props);
+            propertyReader.setPullRequestStoreDirectory(getProperty(props, "pullRequestStoreDirectory"));
+            addResourceIndex(propertyReader, props);
+
+            String daemonPortString = getProperty(props, "daemonPort");
+            if (daemonPortString != null) {
+                propertyReader.setDaemonPort(Integer.parseInt(daemonPortString));
+            }
+
             return propertyReader;
         } catch (Exception e) {
             throw new IllegalStateException("Could not read property file!", e.getCause());
@@ -85,6 +101,41 @@ public final class PropertyReaderBuilder {
         return (value == null) ? null : value.trim();
     }
 
+    private static void addHttpClient(PropertyReader propertyReader, Properties props) {
+        String connectTimeoutString = getProperty(props, "httpConnectTimeoutSeconds");
+        if (connectTimeoutString != null) {
+            propertyReader.setHttpConnectTimeoutMillis((int) SECONDS.toMillis(Long.parseLong(connectTimeoutString)));
+        }
+        String readTimeoutString = getProperty(props, "httpReadTimeoutSeconds");
+        if (readTimeoutString != null) {
+            propertyReader.setHttpReadTimeoutMillis((int) SECONDS.toMillis(Long.parseLong(readTimeoutString)));
+        }
+        String maxConnectionsString = getProperty(props, "httpMaxConnections");
+        if (maxConnectionsString != null) {
+            propertyReader.setHttpMaxConnections(Integer.parseInt(maxConnectionsString));
+        }
+    }
+
+    private static void addHttpCache(PropertyReader propertyReader, Properties props) {
+        propertyReader.setHttpCacheDirectory(getProperty(props, "httpCacheDirectory"));
+
+        String ttlString = getProperty(props, "httpCacheTtlMinutes");
+        long ttlMinutes = (ttlString == null) ? DEFAULT_HTTP_CACHE_TTL_MINUTES : Long.parseLong(ttlString);
+        propertyReader.setHttpCacheTtlMillis(MINUTES.toMillis(ttlMinutes));
+
+        String maxSizeString = getProperty(props, "httpCacheMaxSizeMB");
+        long maxSizeMB = (maxSizeString == null) ? DEFAULT_HTTP_CACHE_MAX_SIZE_MB : Long.parseLong(maxSizeString);
+        propertyReader.setHttpCacheMaxSizeBytes(maxSizeMB * BYTES_PER_MB);
+    }
+
+    private static void addResourceIndex(PropertyReader propertyReader, Properties props) {
+        propertyReader.setResourceIndexDirectory(getProperty(props, "resourceIndexDirectory"));
+
+        String ttlString = getProperty(props, "resourceIndexTtlMinutes");
+        long ttlMinutes = (ttlString == null) ? DEFAULT_RESOURCE_INDEX_TTL_MINUTES : Long.parseLong(ttlString);
+        propertyReader.setResourceIndexTtlMillis(MINUTES.toMillis(ttlMinutes));
+    }
+
     private static void addProjectResourceIds(PropertyReader propertyReader, String projectResourceIdString) {
         if (!projectResourceIdString.contains(",")) {
             propertyReader.addProjectResourceId(projectResourceIdString);
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+
+import static com.hazelcast.utils.TimeTracker.record;
+import static com.hazelcast.utils.Utils.closeQuietly;
+import static com.hazelcast.utils.Utils.getBasicAuthString;
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonMap;
+
+public class RestClient {
+
+    private final String authorization;
+    private final int connectTimeoutMillis;
+    private final int readTimeoutMillis;
+    private final Semaphore inFlightRequests;
+
+    public RestClient(String authorization, int connectTimeoutMillis, int readTimeoutMillis, int maxConnections) {
+        this.authorization = authorization;
+        this.connectTimeoutMillis = connectTimeoutMillis;
+        this.readTimeoutMillis = readTimeoutMillis;
+        this.inFlightRequests = new Semaphore(maxConnections, true);
+    }
+
+    public static RestClient fromPropertyReader(PropertyReader props) {
+        return new RestClient(getBasicAuthString(props.getUsername(), props.getPassword()), props.getHttpConnectTimeoutMillis(),
+                props.getHttpReadTimeoutMillis(), props.getHttpMaxConnections());
+    }
+
+    public RestResponse get(String query) throws IOException {
+        return get(query, emptyMap());
+    }
+
+    public RestResponse get(String query, Map<String, String> requestHeaders) throws IOException {
+        return execute("GET", query, requestHeaders, null);
+    }
+
+    public RestResponse post(String query, String contentType, String body) throws IOException {
+        return execute("POST", query, singletonMap("Content-Type", contentType), body.getBytes(UTF_8));
+    }
+
+    private RestResponse execute(String method, String query, Map<String, String> requestHeaders, byte[] body)
+            throws IOException {
+        try {
+            inFlightRequests.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for a free connection", e);
+        }
+
+        long started = System.nanoTime();
+        try {
+            HttpURLConnection connection = (HttpURLConnection) new URL(query).openConnection();
+            connection.setRequestMethod(method);
+            connection.setConnectTimeout(connectTimeoutMillis);
+            connection.setReadTimeout(readTimeoutMillis);
+            connection.setRequestProperty("Authorization", authorization);
+            connection.setRequestProperty("Accept-Encoding", "gzip");
+            requestHeaders.forEach(connection::setRequestProperty);
+            if (body != null) {
+                connection.setDoOutput(true);
+                try (OutputStream outputStream = connection.getOutputStream()) {
+                    outputStream.write(body);
+                }
+            }
+
+            int statusCode = connection.getResponseCode();
+            if (statusCode >= HttpURLConnection.HTTP_BAD_REQUEST) {
+                // the error stream has to be consumed, so the connection can be reused
+                InputStream errorStream = connection.getErrorStream();
+                RestResponse.drain(errorStream);
+                closeQuietly(errorStream);
+                throw new IOException(format("Server returned HTTP response code %d for URL %s", statusCode, query));
+            }
+            return new RestResponse(connection, statusCode, started, inFlightRequests);
+        } catch (IOException | RuntimeException e) {
+            inFlightRequests.release();
+            record(TimeTrackerLabel.HTTP_REQUEST, System.nanoTime() - started);
+            throw e;
+        }
+    }
+}
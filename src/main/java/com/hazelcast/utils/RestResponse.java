@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.utils;
+
+import org.apache.commons.io.input.CountingInputStream;
+
+import java.io.Closeable;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPInputStream;
+
+import static com.hazelcast.utils.TimeTracker.count;
+import static com.hazelcast.utils.TimeTracker.record;
+
+public final class RestResponse implements Closeable {
+
+    private static final int DRAIN_BUFFER_SIZE = 8192;
+
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    private final HttpURLConnection connection;
+    private final int statusCode;
+    private final long started;
+    private final Semaphore inFlightRequests;
+
+    private CountingInputStream rawInputStream;
+    private InputStream inputStream;
+
+    RestResponse(HttpURLConnection connection, int statusCode, long started, Semaphore inFlightRequests) {
+        this.connection = connection;
+        this.statusCode = statusCode;
+        this.started = started;
+        this.inFlightRequests = inFlightRequests;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public String getHeader(String name) {
+        return connection.getHeaderField(name);
+    }
+
+    /**
+     * Returns the decompressed response body. Closing the stream closes the response.
+     */
+    public InputStream getInputStream() throws IOException {
+        if (inputStream == null) {
+            rawInputStream = new CountingInputStream(connection.getInputStream());
+            InputStream body = "gzip".equalsIgnoreCase(connection.getContentEncoding())
+                    ? new GZIPInputStream(rawInputStream)
+                    : rawInputStream;
+            inputStream = new FilterInputStream(body) {
+                @Override
+                public void close() throws IOException {
+                    RestResponse.this.close();
+                }
+            };
+        }
+        return inputStream;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            if (rawInputStream != null) {
+                // a fully consumed response returns the connection to the keep-alive cache of the JDK
+                drain(rawInputStream);
+                rawInputStream.close();
+                count(TimeTrackerLabel.HTTP_BYTES_TRANSFERRED, rawInputStream.getByteCount());
+            }
+        } finally {
+            inFlightRequests.release();
+            record(TimeTrackerLabel.HTTP_REQUEST, System.nanoTime() - started);
+        }
+    }
+
+    static void drain(InputStream inputStream) throws IOException {
+        if (inputStream == null) {
+            return;
+        }
+        byte[] buffer = new byte[DRAIN_BUFFER_SIZE];
+        int read;
+        do {
+            read = inputStream.read(buffer);
+        } while (read != -1);
+    }
+}
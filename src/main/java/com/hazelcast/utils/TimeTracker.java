@@ -31,6 +31,11 @@ public final class TimeTracker {
     private static final float PERCENTAGE = 100f;
     private static final ConcurrentMap<TimeTrackerLabel, Long> DURATIONS = new ConcurrentHashMap<>();
     private static final ConcurrentMap<TimeTrackerLabel, Long> INVOCATIONS = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<TimeTrackerLabel, Long> COUNTERS = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<TimeTrackerLabel, Long> RETRIES = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<TimeTrackerLabel, Long> RETRY_WAITS = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<TimeTrackerLabel, Long> THROTTLES = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<TimeTrackerLabel, Long> THROTTLE_WAITS = new ConcurrentHashMap<>();
 
     private TimeTracker() {
     }
@@ -40,7 +45,28 @@ public final class TimeTracker {
         INVOCATIONS.compute(label, (s, oldInvocations) -> oldInvocations == null ? 1 : oldInvocations + 1);
     }
 
+    public static void count(TimeTrackerLabel label) {
+        count(label, 1);
+    }
+
+    public static void count(TimeTrackerLabel label, long amount) {
+        add(COUNTERS, label, amount);
+    }
+
+    public static void recordRetry(TimeTrackerLabel label, long waitNanos) {
+        add(RETRIES, label, 1);
+        add(RETRY_WAITS, label, waitNanos);
+    }
+
+    public static void recordThrottle(TimeTrackerLabel label, long waitNanos) {
+        add(THROTTLES, label, 1);
+        add(THROTTLE_WAITS, label, waitNanos);
+    }
+
     public static void printTimeTracks() {
+        printCounters();
+        printWaits();
+
         long totalDuration = 0;
         long totalInvocations = 0;
         for (Map.Entry<TimeTrackerLabel, Long> entry : DURATIONS.entrySet()) {
@@ -64,6 +90,36 @@ public final class TimeTracker {
         print("Total time: %d ms (%.2f%%) (%d invocations)%n", NANOSECONDS.toMillis(totalDuration), PERCENTAGE, totalInvocations);
     }
 
+    private static void printCounters() {
+        if (COUNTERS.isEmpty()) {
+            return;
+        }
+        print("\nCounter statistics");
+        for (Map.Entry<TimeTrackerLabel, Long> entry : sortByValue(COUNTERS).entrySet()) {
+            print("%s: %d", entry.getKey(), entry.getValue());
+        }
+    }
+
+    private static void printWaits() {
+        if (RETRIES.isEmpty() && THROTTLES.isEmpty()) {
+            return;
+        }
+        print("\nWait statistics");
+        for (TimeTrackerLabel label : TimeTrackerLabel.values()) {
+            long retries = RETRIES.getOrDefault(label, 0L);
+            long throttles = THROTTLES.getOrDefault(label, 0L);
+            if (retries > 0 || throttles > 0) {
+                print("%s: %d retries (%d ms), %d throttled (%d ms)", label, retries,
+                        NANOSECONDS.toMillis(RETRY_WAITS.getOrDefault(label, 0L)), throttles,
+                        NANOSECONDS.toMillis(THROTTLE_WAITS.getOrDefault(label, 0L)));
+            }
+        }
+    }
+
+    private static void add(ConcurrentMap<TimeTrackerLabel, Long> map, TimeTrackerLabel label, long amount) {
+        map.compute(label, (s, oldValue) -> oldValue == null ? amount : oldValue + amount);
+    }
+
     private static <K, V extends Comparable<? super V>> Map<K, V> sortByValue(Map<K, V> map) {
         return map.entrySet()
                 .stream()
@@ -18,8 +18,10 @@ package com.hazelcast.utils;
 
 public enum TimeTrackerLabel {
 
+    CONNECT_GITHUB,
     GET_GITHUB_REPOSITORY,
     GET_FILE_CONTENTS_FROM_GITHUB,
+    GET_FILE_CONTENTS_LOCAL_GIT,
     GET_AUTHOR,
     GET_MILESTONE,
     GET_PULL_REQUEST,
@@ -27,6 +29,21 @@ public enum TimeTrackerLabel {
     IS_MERGED,
     IS_CLOSED,
     GET_PULL_REQUEST_FILES,
+    GET_PULL_REQUESTS_GRAPHQL,
+    GET_PULL_REQUEST_FILES_GRAPHQL,
+    GET_PULL_REQUEST_FILES_LOCAL_GIT,
+    GET_MERGE_COMMIT,
+    GET_COMMIT_COUNT,
     GET_RESOURCES,
+    GET_RESOURCES_WITH_METRICS,
     GET_RESOURCE_METRICS,
+    HTTP_REQUEST,
+    HTTP_BYTES_TRANSFERRED,
+    HTTP_CACHE_HIT,
+    HTTP_CACHE_REVALIDATED,
+    HTTP_CACHE_MISS,
+    PULL_REQUEST_STORE_HIT,
+    PULL_REQUEST_STORE_MISS,
+    GIT_BLOB_CACHE_HIT,
+    GIT_BLOB_CACHE_MISS,
 }
@@ -28,9 +28,8 @@ import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.StringWriter;
-import java.net.URL;
-import java.net.URLConnection;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
@@ -38,10 +37,13 @@ import java.util.concurrent.TimeUnit;
 import static com.hazelcast.utils.DebugUtils.debugRed;
 import static com.hazelcast.utils.DebugUtils.isDebug;
 import static java.lang.String.format;
-import static org.apache.commons.io.IOUtils.copy;
+import static java.nio.charset.StandardCharsets.UTF_8;
 
 public final class Utils {
 
+    public static final String TABLE_OF_CONTENTS = "{toc:type=list|style=disc|minLevel=1|maxLevel=7|indent=|class=|"
+            + "outline=false|include=|exclude=|printable=true}\n\n";
+
     private Utils() {
     }
 
@@ -133,6 +135,10 @@ public final class Utils {
                 pullRequest, props.getGitHubRepository(), pullRequest);
     }
 
+    public static String formatRepositoryHeadline(Repository repository) {
+        return "h1. Code Coverage (" + repository + ")\n";
+    }
+
     public static String formatMinWidth(String value, int minWidth) {
         return format("%-" + minWidth + "s", value);
     }
@@ -197,27 +203,19 @@ public final class Utils {
         return "Basic " + new String(new Base64().encode(authString.getBytes()));
     }
 
-    public static JsonArray getJsonElementsFromQuery(String basicAuthString, String query) throws IOException {
-        String result = getStringFromQuery(query, basicAuthString);
-
-        Gson gson = new Gson();
-        return gson.fromJson(result, JsonArray.class);
-    }
-
-    private static String getStringFromQuery(String query, String basicAuthString) throws IOException {
-        StringWriter writer = new StringWriter();
-        copy(getBaseAuthInputStreamFromURL(query, basicAuthString), writer);
-
-        return writer.toString();
+    public static JsonArray getJsonElementsFromQuery(RestClient restClient, String query, HttpCache httpCache)
+            throws IOException {
+        try (Reader reader = getReaderFromQuery(restClient, query, httpCache)) {
+            Gson gson = new Gson();
+            return gson.fromJson(reader, JsonArray.class);
+        }
     }
 
-    private static InputStream getBaseAuthInputStreamFromURL(String query, String basicAuthString) throws IOException {
-        URL url = new URL(query);
-
-        URLConnection uc = url.openConnection();
-        uc.setRequestProperty("Authorization", basicAuthString);
-
-        return uc.getInputStream();
+    public static Reader getReaderFromQuery(RestClient restClient, String query, HttpCache httpCache) throws IOException {
+        if (httpCache != null) {
+            return httpCache.getReader(restClient, query);
+        }
+        return new BufferedReader(new InputStreamReader(restClient.get(query).getInputStream(), UTF_8));
     }
 
     public static String readFromFile(String fileName) throws IOException {
@@ -274,7 +272,7 @@ public final class Utils {
         }
     }
 
-    static void sleepMillis(int millis) {
+    static void sleepMillis(long millis) {
         try {
             TimeUnit.MILLISECONDS.sleep(millis);
         } catch (InterruptedException ignore) {
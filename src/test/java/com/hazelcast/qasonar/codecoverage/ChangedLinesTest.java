@@ -0,0 +1,73 @@
+package com.hazelcast.qasonar.codecoverage;
+
+import org.eclipse.jgit.diff.Edit;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class ChangedLinesTest {
+
+    @Test
+    public void testFromPatch() {
+        String patch = "@@ -1,6 +1,7 @@\n"
+                + " line1\n"
+                + "-line2\n"
+                + "+line2a\n"
+                + "+line2b\n"
+                + " line3\n"
+                + " line4\n"
+                + " line5\n"
+                + " line6\n"
+                + "@@ -20,4 +21,3 @@\n"
+                + " line20\n"
+                + "-line21\n"
+                + " line22\n"
+                + " line23\n"
+                + "\\ No newline at end of file";
+
+        int[] edits = ChangedLines.fromPatch(patch);
+
+        assertArrayEquals(new int[]{2, 3, 2, 4, 21, 22, 22, 22}, edits);
+    }
+
+    @Test
+    public void testFromPatch_withAddedFile() {
+        int[] edits = ChangedLines.fromPatch("@@ -0,0 +1,3 @@\n+line1\n+line2\n+line3");
+
+        assertArrayEquals(new int[]{0, 0, 1, 4}, edits);
+    }
+
+    @Test
+    public void testFromEdits() {
+        int[] edits = ChangedLines.fromEdits(asList(new Edit(1, 2, 1, 3), new Edit(20, 21, 21, 21)));
+
+        assertArrayEquals(new int[]{2, 3, 2, 4, 21, 22, 22, 22}, edits);
+    }
+
+    @Test
+    public void testApply() {
+        SortedSet<Integer> changedLines = ChangedLines.apply(new TreeSet<>(), new int[]{0, 0, 1, 11});
+        assertEquals(10, changedLines.size());
+
+        // the second PR inserts two lines before line 3 and replaces line 8
+        changedLines = ChangedLines.apply(changedLines, new int[]{3, 3, 3, 5, 8, 9, 10, 11});
+
+        assertEquals(new TreeSet<>(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12)), changedLines);
+    }
+
+    @Test
+    public void testApply_withDeletedLines() {
+        SortedSet<Integer> changedLines = new TreeSet<>(asList(5, 10, 20));
+
+        // the PR deletes the lines 8 to 12 and adds nothing
+        changedLines = ChangedLines.apply(changedLines, new int[]{8, 13, 8, 8});
+
+        assertEquals(new TreeSet<>(asList(5, 15)), changedLines);
+    }
+}
@@ -0,0 +1,111 @@
+package com.hazelcast.qasonar.codecoverage;
+
+import com.hazelcast.qasonar.utils.WhiteList;
+import com.hazelcast.utils.PropertyReader;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.kohsuke.github.GHRepository;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import static com.hazelcast.utils.GitHubStatus.ADDED;
+import static com.hazelcast.utils.GitHubStatus.MODIFIED;
+import static com.hazelcast.utils.Repository.OS;
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.Files.createDirectories;
+import static java.nio.file.Files.write;
+import static org.junit.Assert.assertEquals;
+
+public class CodeCoverageAnalyzerParallelismTest {
+
+    private static final String HZ_PREFIX = "hazelcast/src/main/java/com/hazelcast/";
+    private static final int FILE_COUNT = 200;
+    private static final int PARALLELISM = 4;
+
+    private static final String[] DECLARATIONS = {"class", "interface", "enum", "@interface"};
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private GHRepository repo;
+    private WhiteList whiteList;
+
+    @Before
+    public void setUp() throws Exception {
+        repo = new GHRepository() {
+            @Override
+            public String getName() {
+                return OS.getRepositoryName();
+            }
+        };
+
+        whiteList = new WhiteList();
+        whiteList.addEntry("ENDS_WITH", "File3.java", null, "just a comment");
+
+        Path workingTree = temporaryFolder.getRoot().toPath().resolve(OS.getRepositoryName());
+        for (int i = 0; i < FILE_COUNT; i++) {
+            // every fifth file is missing in the working tree, so it's handled like a file deleted in a newer PR
+            if (i % 5 == 4) {
+                continue;
+            }
+            String name = "File" + i;
+            Path file = workingTree.resolve(HZ_PREFIX + name + ".java");
+            createDirectories(file.getParent());
+            String declaration = DECLARATIONS[i % DECLARATIONS.length];
+            String contents = format("package com.hazelcast;%n%npublic %s %s {%n}%n", declaration, name);
+            write(file, contents.getBytes(UTF_8));
+        }
+    }
+
+    @Test
+    public void testRun_withParallelism_thenResultsEqualSequentialRun() throws Exception {
+        SortedMap<String, FileContainer> sequentialFiles = run(1);
+        SortedMap<String, FileContainer> parallelFiles = run(PARALLELISM);
+
+        assertEquals(sequentialFiles.keySet(), parallelFiles.keySet());
+        for (FileContainer expected : sequentialFiles.values()) {
+            FileContainer actual = parallelFiles.get(expected.fileName);
+            assertEquals(expected.fileName, expected.qaCheck, actual.qaCheck);
+            assertEquals(expected.fileName, expected.comment, actual.comment);
+            assertEquals(expected.fileName, expected.coverageType, actual.coverageType);
+            assertEquals(expected.fileName, expected.isForCoverageCalculation, actual.isForCoverageCalculation);
+        }
+        assertEquals("Interface", parallelFiles.get(HZ_PREFIX + "File1.java").comment);
+        assertEquals("deleted in newer PR", parallelFiles.get(HZ_PREFIX + "File4.java").comment);
+    }
+
+    private SortedMap<String, FileContainer> run(int parallelism) throws IOException {
+        PropertyReader props = new PropertyReader("host", "username", "password");
+        props.setMinCodeCoverage(87.5, false);
+        props.setMinCodeCoverage(60.0, true);
+        props.setMinThresholdModified(5);
+        props.setLocalGitRoot(temporaryFolder.getRoot().getPath() + File.separator);
+        props.setParallelism(parallelism);
+
+        SortedMap<String, FileContainer> files = new TreeMap<>();
+        for (int i = 0; i < FILE_COUNT; i++) {
+            FileContainer fileContainer = new FileContainer();
+            fileContainer.resourceId = String.valueOf(i);
+            fileContainer.pullRequests = "23";
+            fileContainer.fileName = HZ_PREFIX + "File" + i + ".java";
+            fileContainer.status = (i % 2 == 0) ? ADDED : MODIFIED;
+            fileContainer.gitHubChanges = i % 10;
+            // every third file has IDEA coverage, so it's checked without reading its contents
+            if (i % 3 == 0) {
+                fileContainer.ideaCoverage = i % 100;
+            }
+            files.put(fileContainer.fileName, fileContainer);
+        }
+
+        CodeCoverageAnalyzer analyzer = new CodeCoverageAnalyzer(files, props, repo, whiteList);
+        analyzer.run();
+        return analyzer.getFiles();
+    }
+}
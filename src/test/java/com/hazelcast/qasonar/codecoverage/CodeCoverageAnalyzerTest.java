@@ -21,6 +21,8 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
 
 import static com.hazelcast.qasonar.codecoverage.CodeCoverageAnalyzerTest.Result.FAIL;
 import static com.hazelcast.qasonar.codecoverage.CodeCoverageAnalyzerTest.Result.PASS;
@@ -50,7 +52,7 @@ public class CodeCoverageAnalyzerTest {
 
     private static final String HZ_PREFIX = "hazelcast/src/main/java/com/hazelcast/";
 
-    private Map<String, FileContainer> files;
+    private SortedMap<String, FileContainer> files;
     private Map<String, Result> expectedResults;
     private Map<String, CoverageType> expectedCoverageTypes;
 
@@ -65,7 +67,7 @@ public class CodeCoverageAnalyzerTest {
         DebugUtils.setDebug(true);
         DebugUtils.debug("");
 
-        files = new HashMap<>();
+        files = new TreeMap<>();
         expectedResults = new HashMap<>();
         expectedCoverageTypes = new HashMap<>();
 
@@ -140,6 +142,13 @@ public class CodeCoverageAnalyzerTest {
         assertQACheckOfAllFiles();
     }
 
+    @Test
+    public void testRun_withParallelism() throws Exception {
+        props.setParallelism(4);
+
+        testRun();
+    }
+
     @Test
     public void testRun_withMinThresholdModified() throws Exception {
         props.setMinThresholdModified(5);
@@ -12,19 +12,30 @@ import org.kohsuke.github.PagedIterable;
 import org.kohsuke.github.PagedIterator;
 
 import java.io.IOException;
+import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
+import static com.hazelcast.qasonar.codecoverage.FileResourceParser.parseFileResources;
 import static com.hazelcast.utils.GitHubStatus.ADDED;
 import static com.hazelcast.utils.GitHubStatus.MODIFIED;
 import static com.hazelcast.utils.GitHubStatus.REMOVED;
+import static com.hazelcast.utils.TimeTrackerLabel.GET_RESOURCES_WITH_METRICS;
+import static com.hazelcast.utils.TimeTrackerLabel.GET_RESOURCE_METRICS;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class CodeCoverageReaderTest {
@@ -32,6 +43,11 @@ public class CodeCoverageReaderTest {
     private static final String HZ_PACKAGE = "com.hazelcast.";
     private static final String HZ_PREFIX = "hazelcast/src/main/java/com/hazelcast/";
 
+    private static final String BULK_METRICS_RESOURCES = "[{\"id\":4711,\"scope\":\"FIL\","
+            + "\"key\":\"com.hazelcast:hazelcast:src/main/java/com/hazelcast/AddedFile.java\","
+            + "\"lname\":\"src/main/java/com/hazelcast/AddedFile.java\","
+            + "\"msr\":[{\"key\":\"coverage\",\"val\":85.5,\"frmt_val\":\"85.5%\"}]}]";
+
     private static final String JET_PACKAGE = "com.hazelcast.jet.cascading.";
     private static final String JET_PREFIX = "hazelcast-jet-cascading/src/main/java/com/hazelcast/jet/cascading/";
 
@@ -41,7 +57,9 @@ public class CodeCoverageReaderTest {
     private List<Integer> pullRequests = new ArrayList<>();
 
     private int pullRequestIdGenerator;
+    private PropertyReader props;
     private GHRepository repo;
+    private JsonDownloader jsonDownloader;
     private CodeCoverageReader reader;
 
     @Before
@@ -53,11 +71,11 @@ public class CodeCoverageReaderTest {
         when(repo.getIssue(anyInt()).getUser()).thenReturn(author);
         when(repo.getName()).thenReturn("hazelcast");
 
-        PropertyReader props = new PropertyReader("host", "username", "password");
+        props = new PropertyReader("host", "username", "password");
         props.setMinCodeCoverage(87.5, false);
         props.setMinCodeCoverage(60.0, true);
 
-        JsonDownloader jsonDownloader = mock(JsonDownloader.class);
+        jsonDownloader = mock(JsonDownloader.class);
 
         reader = new CodeCoverageReader(props, repo, jsonDownloader);
     }
@@ -84,6 +102,68 @@ public class CodeCoverageReaderTest {
         assertIdeaCoverage(readerFiles, HZ_PREFIX + "pom.xml", 0);
     }
 
+    @Test
+    public void testRun_withParallelism() throws Exception {
+        props.setParallelism(4);
+
+        reader.addIdeaCoverage(HZ_PACKAGE + "AddedFile.java", 23);
+        reader.addIdeaCoverage(HZ_PACKAGE + "AddedAndRemovedFile.java", 42);
+
+        addPullRequest(
+                getGhPullRequestFileDetail("AddedAndRemovedFile.java", ADDED),
+                getGhPullRequestFileDetail("AddedFile.java", ADDED),
+                getGhPullRequestFileDetail("pom.xml", MODIFIED)
+        );
+        addPullRequest(getGhPullRequestFileDetail("AddedAndRemovedFile.java", REMOVED));
+        addPullRequest(getGhPullRequestFileDetail("AddedFile.java", MODIFIED));
+
+        reader.run(pullRequests);
+
+        Map<String, FileContainer> readerFiles = reader.getFiles();
+        assertEquals(3, readerFiles.size());
+
+        assertIdeaCoverage(readerFiles, HZ_PREFIX + "AddedFile.java", 23);
+        assertIdeaCoverage(readerFiles, HZ_PREFIX + "AddedAndRemovedFile.java", 42);
+        assertIdeaCoverage(readerFiles, HZ_PREFIX + "pom.xml", 0);
+
+        assertEquals("1, 2", readerFiles.get(HZ_PREFIX + "AddedAndRemovedFile.java").pullRequests);
+        assertEquals(REMOVED, readerFiles.get(HZ_PREFIX + "AddedAndRemovedFile.java").status);
+        assertEquals("1, 3", readerFiles.get(HZ_PREFIX + "AddedFile.java").pullRequests);
+        assertEquals(ADDED, readerFiles.get(HZ_PREFIX + "AddedFile.java").status);
+    }
+
+    @Test
+    public void testRun_withBulkMetrics() throws Exception {
+        mockBulkMetricsResources();
+
+        addPullRequest(getGhPullRequestFileDetail("AddedFile.java", ADDED));
+
+        reader.run(pullRequests);
+
+        FileContainer container = reader.getFiles().get(HZ_PREFIX + "AddedFile.java");
+        assertEquals("4711", container.resourceId);
+        assertEquals("85.5%", container.coverage);
+        assertEquals(85.5, container.numericCoverage, 0.0001);
+        verify(jsonDownloader, never()).getJsonArrayFromQuery(eq(GET_RESOURCE_METRICS), anyString());
+    }
+
+    @Test
+    public void testRun_withSharedResources() throws Exception {
+        mockBulkMetricsResources();
+
+        addPullRequest(getGhPullRequestFileDetail("AddedFile.java", ADDED));
+
+        reader.populateResources();
+        CodeCoverageReader sharingReader = new CodeCoverageReader(props, repo, jsonDownloader);
+        sharingReader.shareResources(reader);
+        sharingReader.run(pullRequests);
+
+        FileContainer container = sharingReader.getFiles().get(HZ_PREFIX + "AddedFile.java");
+        assertEquals("4711", container.resourceId);
+        assertEquals(85.5, container.numericCoverage, 0.0001);
+        verify(jsonDownloader, times(1)).readFileResources(eq(GET_RESOURCES_WITH_METRICS), anyString(), any());
+    }
+
     @Test
     public void testRun_withJetFiles() throws Exception {
         reader.addIdeaCoverage(JET_PACKAGE + "JetFlow.java", 23);
@@ -123,6 +203,16 @@ public class CodeCoverageReaderTest {
         readerFiles.put("key", new FileContainer());
     }
 
+    @SuppressWarnings("unchecked")
+    private void mockBulkMetricsResources() throws IOException {
+        props.setBulkMetrics(true);
+        props.addProjectResourceId("23");
+
+        when(jsonDownloader.readFileResources(eq(GET_RESOURCES_WITH_METRICS), anyString(), any()))
+                .thenAnswer(invocation -> parseFileResources(new StringReader(BULK_METRICS_RESOURCES),
+                        (Consumer<FileResource>) invocation.getArguments()[2]));
+    }
+
     private void addPullRequest(GHPullRequestFileDetail... pullRequestFiles) throws IOException {
         int pullRequestId = ++pullRequestIdGenerator;
         pullRequests.add(pullRequestId);
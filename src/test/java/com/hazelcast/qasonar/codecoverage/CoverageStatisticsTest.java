@@ -0,0 +1,35 @@
+package com.hazelcast.qasonar.codecoverage;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class CoverageStatisticsTest {
+
+    private final CoverageStatistics statistics = new CoverageStatistics();
+
+    @Test
+    public void testAdd() {
+        statistics.add(40.0, false);
+        statistics.add(90.0, true);
+        statistics.add(65.0, true);
+
+        assertEquals(3, statistics.getFileCount());
+        assertEquals(2, statistics.getPassedFileCount());
+        assertEquals(40.0, statistics.getMin(), 0.0001);
+        assertEquals(90.0, statistics.getMax(), 0.0001);
+        assertEquals(65.0, statistics.getAverage(), 0.0001);
+    }
+
+    @Test
+    public void testAdd_withZeroCoverage() {
+        statistics.add(0.0, false);
+        statistics.add(0.0, false);
+
+        assertEquals(2, statistics.getFileCount());
+        assertEquals(0, statistics.getPassedFileCount());
+        assertEquals(0.0, statistics.getMin(), 0.0);
+        assertEquals(0.0, statistics.getMax(), 0.0);
+        assertEquals(0.0, statistics.getAverage(), 0.0);
+    }
+}
@@ -3,8 +3,11 @@ package com.hazelcast.qasonar.codecoverage;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.HashMap;
+
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 public class FileContainerTest {
@@ -99,4 +102,34 @@ public class FileContainerTest {
 
         assertEquals("cross module\ntest", fileContainer.comment);
     }
+
+    @Test
+    public void testCalculateDiffCoverage() {
+        fileContainer.addChangedLines(new int[]{0, 0, 1, 6});
+        fileContainer.lineHits = new HashMap<>();
+        fileContainer.lineHits.put(2, 3);
+        fileContainer.lineHits.put(3, 0);
+        fileContainer.lineHits.put(4, 1);
+        fileContainer.lineHits.put(5, 2);
+        fileContainer.lineHits.put(8, 0);
+
+        fileContainer.calculateDiffCoverage();
+        fileContainer.useForCoverageCalculation(FileContainer.CoverageType.DIFF);
+
+        assertEquals(4, fileContainer.diffCoverageLines);
+        assertEquals(75.0, fileContainer.getCoverageForCalculation(), 0.0001);
+    }
+
+    @Test
+    public void testCalculateDiffCoverage_withUnknownChangedLines() {
+        fileContainer.addChangedLines(new int[]{0, 0, 1, 6});
+        fileContainer.addChangedLines(null);
+        fileContainer.addChangedLines(new int[]{1, 2, 1, 2});
+        fileContainer.lineHits = new HashMap<>();
+
+        fileContainer.calculateDiffCoverage();
+
+        assertNull(fileContainer.changedLines);
+        assertEquals(-1, fileContainer.diffCoverageLines);
+    }
 }
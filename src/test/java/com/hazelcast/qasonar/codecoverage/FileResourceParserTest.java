@@ -0,0 +1,48 @@
+package com.hazelcast.qasonar.codecoverage;
+
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.hazelcast.qasonar.codecoverage.FileResourceParser.parseFileResources;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class FileResourceParserTest {
+
+    private static final String RESOURCE_TREE = "["
+            + "{\"id\":1,\"key\":\"com.hazelcast:hazelcast-root\",\"name\":\"Hazelcast\",\"scope\":\"PRJ\",\"qualifier\":\"TRK\"},"
+            + "{\"id\":2,\"key\":\"com.hazelcast:hazelcast\",\"name\":\"hazelcast\",\"scope\":\"PRJ\",\"qualifier\":\"BRC\"},"
+            + "{\"id\":3,\"key\":\"com.hazelcast:hazelcast:src/main/java/com/hazelcast/map\",\"scope\":\"DIR\","
+            + "\"lname\":\"hazelcast/src/main/java/com/hazelcast/map\",\"description\":null},"
+            + "{\"id\":4,\"key\":\"com.hazelcast:hazelcast:src/main/java/com/hazelcast/map/IMap.java\",\"scope\":\"FIL\","
+            + "\"qualifier\":\"FIL\",\"lname\":\"hazelcast/src/main/java/com/hazelcast/map/IMap.java\",\"date\":null},"
+            + "{\"id\":5,\"key\":\"com.hazelcast:hazelcast-client:src/main/java/com/hazelcast/client/Client.java\","
+            + "\"scope\":\"FIL\",\"lname\":\"src/main/java/com/hazelcast/client/Client.java\","
+            + "\"msr\":[{\"key\":\"coverage\",\"val\":85.5,\"frmt_val\":\"85.5%\"}]}"
+            + "]";
+
+    @Test
+    public void testParseFileResources() throws Exception {
+        List<FileResource> fileResources = new ArrayList<>();
+
+        int count = parseFileResources(new StringReader(RESOURCE_TREE), fileResources::add);
+
+        assertEquals(2, count);
+        assertEquals(2, fileResources.size());
+
+        FileResource fileResource = fileResources.get(0);
+        assertEquals("hazelcast", fileResource.getModule());
+        assertEquals("src/main/java/com/hazelcast/map/IMap.java", fileResource.getPath());
+        assertEquals("4", fileResource.getId());
+        assertNull(fileResource.getMetrics());
+
+        fileResource = fileResources.get(1);
+        assertEquals("hazelcast-client", fileResource.getModule());
+        assertEquals("src/main/java/com/hazelcast/client/Client.java", fileResource.getPath());
+        assertEquals("5", fileResource.getId());
+        assertEquals(1, fileResource.getMetrics().size());
+    }
+}
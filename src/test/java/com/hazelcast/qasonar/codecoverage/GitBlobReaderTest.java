@@ -0,0 +1,117 @@
+package com.hazelcast.qasonar.codecoverage;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.errors.MissingObjectException;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.apache.commons.io.FileUtils.writeStringToFile;
+import static org.junit.Assert.assertEquals;
+
+public class GitBlobReaderTest {
+
+    private static final String INTERFACE_CONTENT = "public interface Foo {\n}\n";
+    private static final String CLASS_CONTENT = "public class Foo {\n}\n";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Git git;
+    private File root;
+    private GitBlobReader reader;
+
+    @Before
+    public void setUp() throws Exception {
+        root = temporaryFolder.getRoot();
+        git = Git.init().setDirectory(root).call();
+        reader = new GitBlobReader(git.getRepository());
+    }
+
+    @After
+    public void tearDown() {
+        git.close();
+    }
+
+    @Test
+    public void testReadFileContents() throws Exception {
+        write("hazelcast/src/main/java/Foo.java", INTERFACE_CONTENT);
+        RevCommit firstCommit = commit("first PR");
+        write("hazelcast/src/main/java/Foo.java", CLASS_CONTENT);
+        RevCommit secondCommit = commit("second PR");
+
+        // the working tree must not have any influence on the result
+        write("hazelcast/src/main/java/Foo.java", "uncommitted");
+
+        assertEquals(INTERFACE_CONTENT, reader.readFileContents(firstCommit.getName(), "hazelcast/src/main/java/Foo.java"));
+        assertEquals(CLASS_CONTENT, reader.readFileContents(secondCommit.getName(), "hazelcast/src/main/java/Foo.java"));
+        assertEquals(INTERFACE_CONTENT, reader.readFileContents(firstCommit.getName(), "hazelcast/src/main/java/Foo.java"));
+    }
+
+    @Test
+    public void testReadFileContents_whenCacheIsFull_thenLeastRecentlyUsedBlobIsEvicted() throws Exception {
+        write("hazelcast/src/main/java/Foo.java", INTERFACE_CONTENT);
+        write("hazelcast/src/main/java/Bar.java", CLASS_CONTENT.replace("Foo", "Bar"));
+        write("hazelcast/src/main/java/Baz.java", CLASS_CONTENT.replace("Foo", "Baz"));
+        String commitSha = commit("PR").getName();
+
+        reader = new GitBlobReader(git.getRepository(), INTERFACE_CONTENT.length() + CLASS_CONTENT.length());
+        reader.readFileContents(commitSha, "hazelcast/src/main/java/Foo.java");
+        reader.readFileContents(commitSha, "hazelcast/src/main/java/Bar.java");
+        assertEquals(2, reader.getCachedBlobCount());
+
+        // Foo is used again, so Bar is the least recently used blob
+        reader.readFileContents(commitSha, "hazelcast/src/main/java/Foo.java");
+        assertEquals(CLASS_CONTENT.replace("Foo", "Baz"), reader.readFileContents(commitSha, "hazelcast/src/main/java/Baz.java"));
+
+        assertEquals(2, reader.getCachedBlobCount());
+        assertEquals(INTERFACE_CONTENT.length() + CLASS_CONTENT.length(), reader.getCachedChars());
+        assertEquals(CLASS_CONTENT.replace("Foo", "Bar"), reader.readFileContents(commitSha, "hazelcast/src/main/java/Bar.java"));
+    }
+
+    @Test
+    public void testReadFileContents_whenBlobIsLargerThanCache_thenItIsNotCached() throws Exception {
+        write("hazelcast/src/main/java/Foo.java", CLASS_CONTENT);
+        String commitSha = commit("PR").getName();
+
+        reader = new GitBlobReader(git.getRepository(), CLASS_CONTENT.length() - 1);
+
+        assertEquals(CLASS_CONTENT, reader.readFileContents(commitSha, "hazelcast/src/main/java/Foo.java"));
+        assertEquals(0, reader.getCachedBlobCount());
+        assertEquals(0, reader.getCachedChars());
+    }
+
+    @Test(expected = FileNotFoundException.class)
+    public void testReadFileContents_whenFileIsMissing() throws Exception {
+        write("hazelcast/src/main/java/Foo.java", CLASS_CONTENT);
+        RevCommit commit = commit("PR");
+
+        reader.readFileContents(commit.getName(), "hazelcast/src/main/java/Bar.java");
+    }
+
+    @Test(expected = MissingObjectException.class)
+    public void testReadFileContents_whenCommitIsMissing() throws Exception {
+        reader.readFileContents("0123456789012345678901234567890123456789", "hazelcast/src/main/java/Foo.java");
+    }
+
+    private void write(String path, String content) throws IOException {
+        writeStringToFile(new File(root, path), content, UTF_8);
+    }
+
+    private RevCommit commit(String message) throws Exception {
+        git.add().addFilepattern(".").call();
+        return git.commit()
+                .setMessage(message)
+                .setAuthor("qa", "qa@hazelcast.com")
+                .setCommitter("qa", "qa@hazelcast.com")
+                .call();
+    }
+}
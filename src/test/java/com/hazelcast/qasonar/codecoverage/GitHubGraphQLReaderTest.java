@@ -0,0 +1,105 @@
+package com.hazelcast.qasonar.codecoverage;
+
+import com.hazelcast.utils.GitHubStatus;
+import com.hazelcast.utils.RestClient;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class GitHubGraphQLReaderTest {
+
+    private static final String BATCH_RESPONSE = "{\"data\":{"
+            + "\"rateLimit\":{\"cost\":1,\"remaining\":4999},"
+            + "\"repository\":{"
+            + "\"pr23\":{\"number\":23,\"state\":\"MERGED\",\"mergeCommit\":{\"oid\":\"abc123\"},"
+            + "\"author\":{\"login\":\"jdoe\",\"name\":\"John Doe\"},"
+            + "\"files\":{\"pageInfo\":{\"hasNextPage\":true,\"endCursor\":\"c1\"},\"nodes\":["
+            + "{\"path\":\"src/main/java/Foo.java\",\"additions\":10,\"deletions\":2,\"changeType\":\"MODIFIED\"}]}},"
+            + "\"pr42\":{\"number\":42,\"state\":\"CLOSED\",\"author\":{\"login\":\"bot\"},"
+            + "\"files\":{\"pageInfo\":{\"hasNextPage\":false,\"endCursor\":null},\"nodes\":[]}}"
+            + "}}}";
+
+    private static final String FILES_PAGE_RESPONSE = "{\"data\":{\"repository\":{\"pullRequest\":{"
+            + "\"files\":{\"pageInfo\":{\"hasNextPage\":false,\"endCursor\":\"c2\"},\"nodes\":["
+            + "{\"path\":\"src/main/java/Bar.java\",\"additions\":0,\"deletions\":5,\"changeType\":\"DELETED\"},"
+            + "{\"path\":\"src/main/java/Baz.java\",\"additions\":7,\"deletions\":0,\"changeType\":\"COPIED\"}]}}}}}";
+
+    private final AtomicInteger requests = new AtomicInteger();
+
+    private HttpServer server;
+    private GitHubGraphQLReader reader;
+
+    @Before
+    public void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/graphql", exchange -> {
+            requests.incrementAndGet();
+            String request = IOUtils.toString(exchange.getRequestBody(), UTF_8);
+            byte[] body = (request.contains("\"cursor\":\"c1\"") ? FILES_PAGE_RESPONSE : BATCH_RESPONSE).getBytes(UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+
+        String endpoint = "http://localhost:" + server.getAddress().getPort() + "/graphql";
+        reader = new GitHubGraphQLReader(new RestClient("bearer token", 1000, 1000, 2), endpoint, "hazelcast/hazelcast");
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testReadPullRequests() throws Exception {
+        Map<Integer, PullRequestData> pullRequests = reader.readPullRequests(Arrays.asList(23, 42));
+
+        assertEquals(2, requests.get());
+        assertEquals(2, pullRequests.size());
+
+        PullRequestData merged = pullRequests.get(23);
+        assertEquals("John Doe", merged.getAuthor());
+        assertEquals(PullRequestStatus.MERGED, merged.getStatus());
+        assertEquals("abc123", merged.getMergeCommitSha());
+        assertFalse(merged.hasPatches());
+        assertEquals(3, merged.getPullRequestFiles().size());
+
+        PullRequestFile modifiedFile = merged.getPullRequestFiles().get(0);
+        assertEquals("src/main/java/Foo.java", modifiedFile.getFilename());
+        assertEquals("modified", modifiedFile.getStatus());
+        assertEquals(10, modifiedFile.getAdditions());
+        assertEquals(2, modifiedFile.getDeletions());
+        assertEquals(12, modifiedFile.getChanges());
+        assertNull(modifiedFile.getPatch());
+
+        PullRequestFile removedFile = merged.getPullRequestFiles().get(1);
+        assertEquals("src/main/java/Bar.java", removedFile.getFilename());
+        assertEquals("removed", removedFile.getStatus());
+
+        PullRequestFile copiedFile = merged.getPullRequestFiles().get(2);
+        assertEquals("src/main/java/Baz.java", copiedFile.getFilename());
+        assertEquals("added", copiedFile.getStatus());
+        assertEquals(GitHubStatus.ADDED, GitHubStatus.fromString(copiedFile.getStatus()));
+
+        PullRequestData closed = pullRequests.get(42);
+        assertEquals("bot", closed.getAuthor());
+        assertEquals(PullRequestStatus.CLOSED, closed.getStatus());
+        assertTrue(closed.getPullRequestFiles().isEmpty());
+    }
+}
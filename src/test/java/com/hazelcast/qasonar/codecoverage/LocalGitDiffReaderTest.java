@@ -0,0 +1,145 @@
+package com.hazelcast.qasonar.codecoverage;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.MergeCommand;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.apache.commons.io.FileUtils.writeStringToFile;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class LocalGitDiffReaderTest {
+
+    private static final String FOO_CONTENT = "public class Foo {\n    int a;\n    int b;\n}\n";
+    private static final String BAR_CONTENT = "public class Bar {\n    void run() {\n    }\n\n    void stop() {\n    }\n}\n";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Git git;
+    private File root;
+
+    @Before
+    public void setUp() throws Exception {
+        root = temporaryFolder.getRoot();
+        git = Git.init().setDirectory(root).call();
+
+        write("src/Foo.java", FOO_CONTENT);
+        write("src/Bar.java", BAR_CONTENT);
+        write("src/Obsolete.java", "public class Obsolete {\n}\n");
+        commit("initial commit");
+    }
+
+    @After
+    public void tearDown() {
+        git.close();
+    }
+
+    @Test
+    public void testReadPullRequestFiles() throws Exception {
+        write("src/Foo.java", "public class Foo {\n    int a;\n    int c;\n    int d;\n}\n");
+        write("src/Baz.java", BAR_CONTENT.replace("Bar", "Baz"));
+        write("src/New.java", "public class New {\n}\n");
+        git.rm().addFilepattern("src/Bar.java").addFilepattern("src/Obsolete.java").call();
+        RevCommit mergeCommit = commit("merge PR");
+
+        LocalGitDiffReader reader = new LocalGitDiffReader(git.getRepository());
+        Map<String, PullRequestFile> files = toMap(reader.readPullRequestFiles(mergeCommit.getName(), 1));
+
+        assertEquals(4, files.size());
+
+        PullRequestFile modified = files.get("src/Foo.java");
+        assertEquals("modified", modified.getStatus());
+        assertEquals(2, modified.getAdditions());
+        assertEquals(1, modified.getDeletions());
+        assertEquals(3, modified.getChanges());
+        assertNull(modified.getPatch());
+        assertArrayEquals(new int[]{3, 4, 3, 5}, modified.getEdits());
+
+        PullRequestFile renamed = files.get("src/Baz.java");
+        assertEquals("renamed", renamed.getStatus());
+        assertEquals(1, renamed.getAdditions());
+        assertEquals(1, renamed.getDeletions());
+        assertTrue(renamed.getPatch().contains("-public class Bar {"));
+        assertTrue(renamed.getPatch().contains("+public class Baz {"));
+
+        PullRequestFile added = files.get("src/New.java");
+        assertEquals("added", added.getStatus());
+        assertEquals(2, added.getAdditions());
+
+        PullRequestFile removed = files.get("src/Obsolete.java");
+        assertEquals("removed", removed.getStatus());
+        assertEquals(2, removed.getDeletions());
+    }
+
+    @Test
+    public void testReadPullRequestFiles_withMergeCommit() throws Exception {
+        String baseBranch = git.getRepository().getBranch();
+        git.checkout().setCreateBranch(true).setName("pr").call();
+        write("src/New.java", "public class New {\n}\n");
+        commit("first commit of PR");
+        write("src/Foo.java", FOO_CONTENT.replace("int b;", "int c;"));
+        RevCommit lastCommit = commit("second commit of PR");
+
+        git.checkout().setName(baseBranch).call();
+        write("src/Other.java", "public class Other {\n}\n");
+        commit("other change");
+        git.merge().include(lastCommit).setFastForward(MergeCommand.FastForwardMode.NO_FF).setMessage("merge PR").call();
+        RevCommit mergeCommit = git.log().setMaxCount(1).call().iterator().next();
+
+        LocalGitDiffReader reader = new LocalGitDiffReader(git.getRepository());
+        Map<String, PullRequestFile> files = toMap(reader.readPullRequestFiles(mergeCommit.getName(), 2));
+
+        assertEquals(2, mergeCommit.getParentCount());
+        assertEquals(2, files.size());
+        assertEquals("added", files.get("src/New.java").getStatus());
+        assertEquals("modified", files.get("src/Foo.java").getStatus());
+    }
+
+    @Test
+    public void testReadPullRequestFiles_withRebaseMerge() throws Exception {
+        write("src/New.java", "public class New {\n}\n");
+        commit("first rebased commit of PR");
+        write("src/Foo.java", FOO_CONTENT.replace("int b;", "int c;"));
+        RevCommit lastCommit = commit("second rebased commit of PR");
+
+        LocalGitDiffReader reader = new LocalGitDiffReader(git.getRepository());
+
+        assertNull(reader.readPullRequestFiles(lastCommit.getName(), 2));
+    }
+
+    private void write(String path, String content) throws IOException {
+        writeStringToFile(new File(root, path), content, UTF_8);
+    }
+
+    private RevCommit commit(String message) throws Exception {
+        git.add().addFilepattern(".").call();
+        return git.commit()
+                .setMessage(message)
+                .setAuthor("qa", "qa@hazelcast.com")
+                .setCommitter("qa", "qa@hazelcast.com")
+                .call();
+    }
+
+    private static Map<String, PullRequestFile> toMap(List<PullRequestFile> pullRequestFiles) {
+        Map<String, PullRequestFile> files = new HashMap<>();
+        for (PullRequestFile pullRequestFile : pullRequestFiles) {
+            files.put(pullRequestFile.getFilename(), pullRequestFile);
+        }
+        return files;
+    }
+}
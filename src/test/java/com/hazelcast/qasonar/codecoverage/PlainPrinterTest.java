@@ -0,0 +1,101 @@
+package com.hazelcast.qasonar.codecoverage;
+
+import com.hazelcast.qasonar.utils.CommandLineOptions;
+import com.hazelcast.utils.GitHubStatus;
+import com.hazelcast.utils.PropertyReader;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.StringWriter;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class PlainPrinterTest {
+
+    private final Map<Integer, PullRequestStatus> pullRequests = new HashMap<>();
+    private final SortedMap<String, FileContainer> files = new TreeMap<>();
+
+    private PropertyReader props;
+    private CommandLineOptions commandLineOptions;
+
+    @Before
+    public void setUp() {
+        props = new PropertyReader("host", "username", "password");
+        props.setMinCodeCoverage(87.5, false);
+        props.setMinCodeCoverage(60.0, true);
+        commandLineOptions = mock(CommandLineOptions.class);
+
+        pullRequests.put(23, PullRequestStatus.MERGED);
+        pullRequests.put(42, PullRequestStatus.OPEN);
+
+        addFile("com/hazelcast/Zulu.java", GitHubStatus.ADDED, 90.0, true);
+        addFile("com/hazelcast/Alpha.java", GitHubStatus.MODIFIED, 40.0, false);
+    }
+
+    @Test
+    public void testRun() throws Exception {
+        String report = run();
+
+        int alphaIndex = report.indexOf("Alpha.java");
+        int zuluIndex = report.indexOf("Zulu.java");
+        assertTrue(alphaIndex > 0);
+        assertTrue("files should be sorted by name", alphaIndex < zuluIndex);
+        assertTrue(report.contains("Summary: 1/2 files passed QA Check with minimum code coverage of 87.5% (60.0% for modified files)"));
+        assertTrue(report.contains("Coverage on added files: 90.0% avg, 90.0% min, 90.0% max (1/1 files)"));
+        assertTrue(report.contains("Coverage on modified files: 40.0% avg, 40.0% min, 40.0% max (0/1 files)"));
+        assertTrue(report.contains("Unmerged PRs: 42 (OPEN) (1/2 PRs)"));
+    }
+
+    @Test
+    public void testRun_withPrintFailsOnly() throws Exception {
+        when(commandLineOptions.printFailsOnly()).thenReturn(true);
+
+        String report = run();
+
+        assertTrue(report.contains("Alpha.java"));
+        assertFalse(report.contains("Zulu.java"));
+        assertTrue(report.contains("Summary: 1/2 files passed QA Check with minimum code coverage of 87.5% (60.0% for modified files)"));
+    }
+
+    @Test
+    public void testRun_withAnalyzerFiles() throws Exception {
+        CodeCoverageAnalyzer analyzer = new CodeCoverageAnalyzer(files, props, null, null);
+
+        String report = run(analyzer.getFiles());
+
+        int alphaIndex = report.indexOf("Alpha.java");
+        int zuluIndex = report.indexOf("Zulu.java");
+        assertTrue(alphaIndex > 0);
+        assertTrue("files should be sorted by name", alphaIndex < zuluIndex);
+        assertTrue(report.contains("Summary: 1/2 files passed QA Check with minimum code coverage of 87.5% (60.0% for modified files)"));
+    }
+
+    private String run() throws Exception {
+        return run(files);
+    }
+
+    private String run(SortedMap<String, FileContainer> files) throws Exception {
+        StringWriter writer = new StringWriter();
+        new PlainPrinter(pullRequests, files, props, commandLineOptions).run(writer);
+        return writer.toString();
+    }
+
+    private void addFile(String fileName, GitHubStatus status, double coverage, boolean qaCheck) {
+        FileContainer fileContainer = new FileContainer();
+        fileContainer.fileName = fileName;
+        fileContainer.pullRequests = "23";
+        fileContainer.author = "author";
+        fileContainer.status = status;
+        fileContainer.numericCoverage = coverage;
+        fileContainer.qaCheck = qaCheck;
+        fileContainer.useForCoverageCalculation(FileContainer.CoverageType.SONAR);
+        files.put(fileName, fileContainer);
+    }
+}
@@ -0,0 +1,137 @@
+package com.hazelcast.qasonar.codecoverage;
+
+import com.hazelcast.utils.JavaType;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.hazelcast.utils.Repository.OS;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.Files.write;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class PullRequestStoreTest {
+
+    private static final String MERGE_COMMIT_SHA = "0123456789abcdef0123456789abcdef01234567";
+    private static final String OTHER_MERGE_COMMIT_SHA = "76543210fedcba9876543210fedcba9876543210";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private PullRequestStore store;
+
+    @Before
+    public void setUp() throws Exception {
+        store = new PullRequestStore(temporaryFolder.getRoot().getPath(), OS);
+    }
+
+    @Test
+    public void testPut_withMergedPullRequest() throws Exception {
+        PullRequestFile pullRequestFile = new PullRequestFile("hazelcast/src/main/java/com/hazelcast/AddedFile.java", "added",
+                23, 5, 28, "@@ -0,0 +1,23 @@");
+        store.put(new PullRequestData(42, "Hazelcast", PullRequestStatus.MERGED, singletonList(pullRequestFile)));
+
+        PullRequestData pullRequestData = store.getOrNull(42);
+
+        assertNotNull(pullRequestData);
+        assertEquals(42, pullRequestData.getGitPullRequest());
+        assertEquals("Hazelcast", pullRequestData.getAuthor());
+        assertEquals(PullRequestStatus.MERGED, pullRequestData.getStatus());
+        assertTrue(pullRequestData.hasPatches());
+        assertEquals(1, pullRequestData.getPullRequestFiles().size());
+
+        PullRequestFile storedFile = pullRequestData.getPullRequestFiles().get(0);
+        assertEquals(pullRequestFile.getFilename(), storedFile.getFilename());
+        assertEquals(pullRequestFile.getStatus(), storedFile.getStatus());
+        assertEquals(pullRequestFile.getAdditions(), storedFile.getAdditions());
+        assertEquals(pullRequestFile.getDeletions(), storedFile.getDeletions());
+        assertEquals(pullRequestFile.getChanges(), storedFile.getChanges());
+        assertEquals(pullRequestFile.getPatch(), storedFile.getPatch());
+    }
+
+    @Test
+    public void testPut_withoutPatches() throws Exception {
+        PullRequestFile pullRequestFile = new PullRequestFile("hazelcast/src/main/java/com/hazelcast/AddedFile.java", "added",
+                23, 5, 28, null);
+        store.put(new PullRequestData(42, "Hazelcast", PullRequestStatus.MERGED, singletonList(pullRequestFile), "abc123",
+                false));
+
+        PullRequestData pullRequestData = store.getOrNull(42);
+
+        assertNotNull(pullRequestData);
+        assertFalse(pullRequestData.hasPatches());
+    }
+
+    @Test
+    public void testPut_withOpenPullRequest() throws Exception {
+        store.put(new PullRequestData(23, "Hazelcast", PullRequestStatus.OPEN, emptyList()));
+
+        assertNull(store.getOrNull(23));
+    }
+
+    @Test
+    public void testGetOrNull_withUnknownPullRequest() {
+        assertNull(store.getOrNull(1));
+    }
+
+    @Test
+    public void testGetOrNull_withFullRun() throws Exception {
+        store.put(new PullRequestData(42, "Hazelcast", PullRequestStatus.MERGED, emptyList()));
+
+        PullRequestStore fullRunStore = new PullRequestStore(temporaryFolder.getRoot().getPath(), OS, true);
+
+        assertNull(fullRunStore.getOrNull(42));
+    }
+
+    @Test
+    public void testGetOrNull_withOtherSchemaVersion() throws Exception {
+        writeEntry("42.json", "{\"schemaVersion\":" + (PullRequestStore.SCHEMA_VERSION + 1)
+                + ",\"data\":{\"gitPullRequest\":42,\"author\":\"Hazelcast\",\"status\":\"MERGED\"}}");
+
+        assertNull(store.getOrNull(42));
+    }
+
+    @Test
+    public void testGetOrNull_withoutSchemaVersion() throws Exception {
+        writeEntry("42.json", "{\"gitPullRequest\":42,\"author\":\"Hazelcast\",\"status\":\"MERGED\"}");
+
+        assertNull(store.getOrNull(42));
+    }
+
+    @Test
+    public void testPutJavaTypes() throws Exception {
+        Map<String, JavaType> javaTypes = new HashMap<>();
+        javaTypes.put("hazelcast/src/main/java/com/hazelcast/Foo.java", JavaType.INTERFACE);
+        javaTypes.put("hazelcast/src/main/java/com/hazelcast/Bar.java", JavaType.CLASS);
+        store.putJavaTypes(MERGE_COMMIT_SHA, javaTypes);
+
+        assertEquals(javaTypes, store.getJavaTypes(MERGE_COMMIT_SHA));
+        assertTrue(store.getJavaTypes(OTHER_MERGE_COMMIT_SHA).isEmpty());
+        assertTrue(new PullRequestStore(temporaryFolder.getRoot().getPath(), OS, true).getJavaTypes(MERGE_COMMIT_SHA).isEmpty());
+    }
+
+    @Test
+    public void testGetJavaTypes_withOtherSchemaVersion() throws Exception {
+        writeEntry("types-" + MERGE_COMMIT_SHA + ".json", "{\"schemaVersion\":" + (PullRequestStore.SCHEMA_VERSION + 1)
+                + ",\"data\":{\"hazelcast/src/main/java/com/hazelcast/Foo.java\":\"INTERFACE\"}}");
+
+        assertTrue(store.getJavaTypes(MERGE_COMMIT_SHA).isEmpty());
+    }
+
+    private void writeEntry(String fileName, String json) throws IOException {
+        Path directory = temporaryFolder.getRoot().toPath().resolve(OS.getRepositoryName());
+        write(directory.resolve(fileName), json.getBytes(UTF_8));
+    }
+}
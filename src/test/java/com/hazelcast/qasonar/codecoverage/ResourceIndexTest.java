@@ -0,0 +1,104 @@
+package com.hazelcast.qasonar.codecoverage;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.file.Path;
+
+import static com.hazelcast.qasonar.codecoverage.ResourceIndex.NO_RESOURCE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ResourceIndexTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private ResourceIndex resourceIndex;
+
+    @Before
+    public void setUp() {
+        resourceIndex = new ResourceIndex();
+        resourceIndex.put("hazelcast", "src/main/java/com/hazelcast/Foo.java", 23);
+        resourceIndex.put("hazelcast", "src/main/java/com/hazelcast/Bar.java", 42);
+        resourceIndex.put("hazelcast-client", "src/main/java/com/hazelcast/Foo.java", 1000);
+    }
+
+    @Test
+    public void testGetResourceId() {
+        assertEquals(3, resourceIndex.size());
+        assertEquals(23, resourceIndex.getResourceId("hazelcast/src/main/java/com/hazelcast/Foo.java"));
+        assertEquals(42, resourceIndex.getResourceId("hazelcast/src/main/java/com/hazelcast/Bar.java"));
+        assertEquals(1000, resourceIndex.getResourceId("hazelcast-client/src/main/java/com/hazelcast/Foo.java"));
+    }
+
+    @Test
+    public void testGetResourceId_withNestedModule() {
+        assertEquals(23, resourceIndex.getResourceId("extensions/hazelcast/src/main/java/com/hazelcast/Foo.java"));
+    }
+
+    @Test
+    public void testGetResourceId_whenMissing() {
+        assertEquals(NO_RESOURCE, resourceIndex.getResourceId("hazelcast/src/main/java/com/hazelcast/Baz.java"));
+        assertEquals(NO_RESOURCE, resourceIndex.getResourceId("hazelcast/src/main/java/com/hazelcast"));
+        assertEquals(NO_RESOURCE, resourceIndex.getResourceId("hazelcast-client/src/main/java/com/hazelcast/Bar.java"));
+        assertEquals(NO_RESOURCE, resourceIndex.getResourceId("unknown/src/main/java/com/hazelcast/Foo.java"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetResourceId_withoutSourceFolder() {
+        resourceIndex.getResourceId("hazelcast/pom.xml");
+    }
+
+    @Test
+    public void testContainsModule() {
+        assertTrue(resourceIndex.containsModule("hazelcast"));
+        assertTrue(resourceIndex.containsModule("hazelcast-client"));
+        assertFalse(resourceIndex.containsModule("hazelcast-spring"));
+        assertFalse(resourceIndex.containsModule("src"));
+    }
+
+    @Test
+    public void testPut_whenGrowing() {
+        for (int i = 0; i < 5000; i++) {
+            resourceIndex.put("module" + (i % 10), "src/main/java/package" + (i % 100) + "/File" + i + ".java", i);
+        }
+
+        assertEquals(5003, resourceIndex.size());
+        for (int i = 0; i < 5000; i++) {
+            String fileName = "module" + (i % 10) + "/src/main/java/package" + (i % 100) + "/File" + i + ".java";
+            assertEquals(i, resourceIndex.getResourceId(fileName));
+        }
+        assertEquals(23, resourceIndex.getResourceId("hazelcast/src/main/java/com/hazelcast/Foo.java"));
+    }
+
+    @Test
+    public void testSnapshot() throws Exception {
+        Path path = new File(temporaryFolder.getRoot(), "resources.idx").toPath();
+        resourceIndex.writeSnapshot(path);
+
+        ResourceIndex snapshot = ResourceIndex.readSnapshot(path);
+        assertEquals(3, snapshot.size());
+        assertEquals(23, snapshot.getResourceId("hazelcast/src/main/java/com/hazelcast/Foo.java"));
+        assertEquals(1000, snapshot.getResourceId("hazelcast-client/src/main/java/com/hazelcast/Foo.java"));
+        assertTrue(snapshot.containsModule("hazelcast-client"));
+
+        snapshot.put("hazelcast", "src/main/java/com/hazelcast/Baz.java", 4711);
+        assertEquals(4711, snapshot.getResourceId("hazelcast/src/main/java/com/hazelcast/Baz.java"));
+    }
+
+    @Test
+    public void testReadSnapshotOrNull() throws Exception {
+        Path path = new File(temporaryFolder.getRoot(), "resources.idx").toPath();
+        assertNull(ResourceIndex.readSnapshotOrNull(path, Long.MAX_VALUE));
+
+        resourceIndex.writeSnapshot(path);
+        assertEquals(3, ResourceIndex.readSnapshotOrNull(path, Long.MAX_VALUE).size());
+        assertNull(ResourceIndex.readSnapshotOrNull(path, -1));
+    }
+}
@@ -0,0 +1,160 @@
+package com.hazelcast.qasonar.codecoverage;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.hazelcast.utils.GitHubStatus;
+import com.hazelcast.utils.PropertyReader;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.StringWriter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class StructuredOutputWriterTest {
+
+    private final Map<Integer, PullRequestStatus> pullRequests = new LinkedHashMap<>();
+    private final SortedMap<String, FileContainer> files = new TreeMap<>();
+
+    private final StringWriter jsonLines = new StringWriter();
+    private final StringWriter csv = new StringWriter();
+    private final StringWriter csvSummary = new StringWriter();
+
+    private PropertyReader props;
+
+    @Before
+    public void setUp() {
+        props = new PropertyReader("host", "username", "password");
+        props.setMinCodeCoverage(87.5, false);
+        props.setMinCodeCoverage(60.0, true);
+        props.setGitHubRepository("hazelcast/hazelcast");
+
+        pullRequests.put(23, PullRequestStatus.MERGED);
+        pullRequests.put(42, PullRequestStatus.OPEN);
+
+        FileContainer added = addFile("com/hazelcast/Zulu.java", GitHubStatus.ADDED, true);
+        added.coverage = "90.0%";
+        added.numericCoverage = 90.0;
+        added.useForCoverageCalculation(FileContainer.CoverageType.SONAR);
+
+        FileContainer modified = addFile("com/hazelcast/Alpha.java", GitHubStatus.MODIFIED, false);
+        modified.comment = "low coverage; needs tests";
+    }
+
+    @Test
+    public void testWrite() throws Exception {
+        try (StructuredOutputWriter writer = new StructuredOutputWriter(jsonLines, csv, csvSummary)) {
+            writer.write(props, pullRequests, files);
+        }
+
+        String[] lines = jsonLines.toString().split("\n");
+        assertEquals(3, lines.length);
+
+        JsonObject alpha = new JsonParser().parse(lines[0]).getAsJsonObject();
+        assertEquals("file", alpha.get("type").getAsString());
+        assertEquals("com/hazelcast/Alpha.java", alpha.get("fileName").getAsString());
+        assertEquals("MODIFIED", alpha.get("status").getAsString());
+        assertFalse(alpha.has("coverage"));
+        assertFalse(alpha.get("qaCheck").getAsBoolean());
+
+        JsonObject zulu = new JsonParser().parse(lines[1]).getAsJsonObject();
+        assertEquals(90.0, zulu.get("coverage").getAsDouble(), 0.0001);
+        assertEquals("SONAR", zulu.get("coverageType").getAsString());
+        assertEquals(90.0, zulu.get("coverageForCalculation").getAsDouble(), 0.0001);
+
+        JsonObject summary = new JsonParser().parse(lines[2]).getAsJsonObject();
+        assertEquals("summary", summary.get("type").getAsString());
+        assertEquals(2, summary.get("files").getAsInt());
+        assertEquals(1, summary.get("passedFiles").getAsInt());
+        assertEquals(1, summary.getAsJsonObject("added").get("files").getAsInt());
+        assertEquals(90.0, summary.getAsJsonObject("added").get("average").getAsDouble(), 0.0001);
+        assertFalse(summary.getAsJsonObject("modified").has("average"));
+        assertEquals("OPEN", summary.getAsJsonObject("unmergedPullRequests").get("42").getAsString());
+    }
+
+    @Test
+    public void testWrite_withCsv() throws Exception {
+        try (StructuredOutputWriter writer = new StructuredOutputWriter(null, csv, csvSummary)) {
+            writer.write(props, pullRequests, files);
+        }
+
+        String[] rows = csv.toString().split("\n");
+        assertEquals(3, rows.length);
+        assertEquals("repository;fileName;resourceId;pullRequests;author;status;additions;deletions;changes;coverage;"
+                + "lineCoverage;branchCoverage;ideaCoverage;diffCoverage;diffCoverageLines;coverageType;"
+                + "coverageForCalculation;qaCheck;comment", rows[0]);
+        assertEquals("hazelcast/hazelcast;com/hazelcast/Alpha.java;;23;author;MODIFIED;1;2;3;;;;0.0;;-1;NONE;;false;"
+                + "\"low coverage; needs tests\"", rows[1]);
+        assertEquals("hazelcast/hazelcast;com/hazelcast/Zulu.java;;23;author;ADDED;1;2;3;90.0;;;0.0;;-1;SONAR;90.0;true;",
+                rows[2]);
+
+        String[] summaryRows = csvSummary.toString().split("\n");
+        assertEquals(4, summaryRows.length);
+        assertEquals("hazelcast/hazelcast;all;2;1;;;;87.5", summaryRows[1]);
+        assertEquals("hazelcast/hazelcast;added;1;1;90.0;90.0;90.0;87.5", summaryRows[2]);
+        assertEquals("hazelcast/hazelcast;modified;0;0;;;;60.0", summaryRows[3]);
+    }
+
+    @Test
+    public void testWrite_withZeroCoverage() throws Exception {
+        FileContainer zulu = files.get("com/hazelcast/Zulu.java");
+        zulu.coverage = "0.0%";
+        zulu.numericCoverage = 0.0;
+        zulu.qaCheck = false;
+
+        try (StructuredOutputWriter writer = new StructuredOutputWriter(null, null, csvSummary)) {
+            writer.write(props, pullRequests, files);
+        }
+
+        String[] summaryRows = csvSummary.toString().split("\n");
+        assertEquals("hazelcast/hazelcast;added;1;0;0.0;0.0;0.0;87.5", summaryRows[2]);
+    }
+
+    @Test
+    public void testWrite_withAnalyzerFiles() throws Exception {
+        CodeCoverageAnalyzer analyzer = new CodeCoverageAnalyzer(files, props, null, null);
+
+        try (StructuredOutputWriter writer = new StructuredOutputWriter(null, csv, null)) {
+            writer.write(props, pullRequests, analyzer.getFiles());
+        }
+
+        String[] rows = csv.toString().split("\n");
+        assertEquals(3, rows.length);
+        assertTrue(rows[1].startsWith("hazelcast/hazelcast;com/hazelcast/Alpha.java;"));
+        assertTrue(rows[2].startsWith("hazelcast/hazelcast;com/hazelcast/Zulu.java;"));
+    }
+
+    @Test
+    public void testGetCsvSummaryFile() {
+        assertEquals("report-summary.csv", StructuredOutputWriter.getCsvSummaryFile("report.csv"));
+        assertEquals("report-summary.csv", StructuredOutputWriter.getCsvSummaryFile("report"));
+    }
+
+    @Test
+    public void testEscapeCsv() {
+        assertEquals("plain", StructuredOutputWriter.escapeCsv("plain"));
+        assertEquals("\"a;b\"", StructuredOutputWriter.escapeCsv("a;b"));
+        assertEquals("\"say \"\"hi\"\"\"", StructuredOutputWriter.escapeCsv("say \"hi\""));
+        assertEquals("\"line1\nline2\"", StructuredOutputWriter.escapeCsv("line1\nline2"));
+    }
+
+    private FileContainer addFile(String fileName, GitHubStatus status, boolean qaCheck) {
+        FileContainer fileContainer = new FileContainer();
+        fileContainer.fileName = fileName;
+        fileContainer.pullRequests = "23";
+        fileContainer.author = "author";
+        fileContainer.status = status;
+        fileContainer.gitHubAdditions = 1;
+        fileContainer.gitHubDeletions = 2;
+        fileContainer.gitHubChanges = 3;
+        fileContainer.qaCheck = qaCheck;
+        files.put(fileName, fileContainer);
+        return fileContainer;
+    }
+}
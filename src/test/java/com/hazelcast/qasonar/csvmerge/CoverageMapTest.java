@@ -0,0 +1,52 @@
+package com.hazelcast.qasonar.csvmerge;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CoverageMapTest {
+
+    private final CoverageMap coverageMap = new CoverageMap(2);
+
+    @Test
+    public void testPutMax() {
+        assertTrue(Double.isNaN(coverageMap.putMax("hazelcast;Foo.java", 50.0)));
+        assertEquals(50.0, coverageMap.putMax("hazelcast;Foo.java", 75.0), 0.0001);
+        assertEquals(75.0, coverageMap.putMax("hazelcast;Foo.java", 25.0), 0.0001);
+
+        assertEquals(1, coverageMap.size());
+        assertEquals(75.0, coverageMap.get("hazelcast;Foo.java"), 0.0001);
+        assertTrue(Double.isNaN(coverageMap.get("hazelcast;Bar.java")));
+    }
+
+    @Test
+    public void testResize() {
+        for (int i = 0; i < 1000; i++) {
+            coverageMap.putMax("hazelcast;Class" + i + ".java", i / 10.0);
+        }
+
+        assertEquals(1000, coverageMap.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i / 10.0, coverageMap.get("hazelcast;Class" + i + ".java"), 0.0001);
+        }
+
+        Map<String, Double> entries = new HashMap<>();
+        coverageMap.forEach(entries::put);
+        assertEquals(1000, entries.size());
+    }
+
+    @Test
+    public void testGetSortedKeys() {
+        coverageMap.putMax("hazelcast;Zulu.java", 1.0);
+        coverageMap.putMax("hazelcast-enterprise;Alpha.java", 2.0);
+        coverageMap.putMax("hazelcast;Alpha.java", 3.0);
+
+        assertEquals(asList("hazelcast-enterprise;Alpha.java", "hazelcast;Alpha.java", "hazelcast;Zulu.java"),
+                coverageMap.getSortedKeys());
+    }
+}
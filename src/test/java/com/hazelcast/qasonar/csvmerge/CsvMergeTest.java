@@ -0,0 +1,79 @@
+package com.hazelcast.qasonar.csvmerge;
+
+import com.hazelcast.utils.PropertyReader;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Path;
+
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.apache.commons.io.FileUtils.writeStringToFile;
+import static org.junit.Assert.assertEquals;
+
+public class CsvMergeTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Path root;
+    private CsvMerge csvMerge;
+
+    @Before
+    public void setUp() {
+        root = temporaryFolder.getRoot().toPath();
+
+        PropertyReader props = new PropertyReader("host", "username", "password");
+        props.setParallelism(2);
+        csvMerge = new CsvMerge(props);
+    }
+
+    @Test
+    public void testMerge() throws Exception {
+        write("module-a/idea-coverage.csv", "hazelcast;com.hazelcast.Foo.java;50.0\n"
+                + "hazelcast;com.hazelcast.Bar.java;90.0\n"
+                + "\n");
+        write("module-b/idea-coverage.csv", "hazelcast;com.hazelcast.Foo.java;75.5\n"
+                + "hazelcast-enterprise;com.hazelcast.Foo.java;10.0;ignored\n"
+                + "hazelcast;com.hazelcast.Bar.java;80.0\n");
+
+        assertEquals(2, csvMerge.merge(root));
+
+        StringWriter writer = new StringWriter();
+        csvMerge.writeCoverage(writer);
+        assertEquals(format("hazelcast-enterprise;com.hazelcast.Foo.java;%.1f%n", 10.0)
+                + format("hazelcast;com.hazelcast.Bar.java;%.1f%n", 90.0)
+                + format("hazelcast;com.hazelcast.Foo.java;%.1f%n", 75.5), writer.toString());
+    }
+
+    @Test
+    public void testMerge_skipsOutputAndCommitMappings() throws Exception {
+        write("module-a/idea-coverage.csv", "hazelcast;com.hazelcast.Foo.java;50.0\n");
+        write("idea-coverage.csv", "hazelcast;com.hazelcast.Foo.java;100.0\n");
+        write("ee-os.csv", "0123abc;4567def\n");
+        write("os-ee.csv", "4567def;0123abc\n");
+        write("module-a/target/idea-coverage.csv", "hazelcast;com.hazelcast.Foo.java;100.0\n");
+
+        assertEquals(1, csvMerge.merge(root));
+
+        StringWriter writer = new StringWriter();
+        csvMerge.writeCoverage(writer);
+        assertEquals(format("hazelcast;com.hazelcast.Foo.java;%.1f%n", 50.0), writer.toString());
+    }
+
+    @Test(expected = IOException.class)
+    public void testMerge_withInvalidLine() throws Exception {
+        write("module-a/idea-coverage.csv", "hazelcast;com.hazelcast.Foo.java\n");
+
+        csvMerge.merge(root);
+    }
+
+    private void write(String fileName, String content) throws IOException {
+        writeStringToFile(new File(temporaryFolder.getRoot(), fileName), content, UTF_8);
+    }
+}
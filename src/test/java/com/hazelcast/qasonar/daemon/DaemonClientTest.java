@@ -0,0 +1,137 @@
+package com.hazelcast.qasonar.daemon;
+
+import com.google.gson.Gson;
+import com.hazelcast.utils.PropertyReader;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class DaemonClientTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final PrintStream originalOut = System.out;
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    private PropertyReader props;
+    private Path tokenPath;
+    private String token;
+
+    @Before
+    public void setUp() throws Exception {
+        props = new PropertyReader("host", "username", "password");
+        tokenPath = temporaryFolder.getRoot().toPath().resolve("daemon.token");
+        token = DaemonToken.create(tokenPath);
+        System.setOut(new PrintStream(out, true));
+    }
+
+    @After
+    public void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    @Test
+    public void testRunOnDaemon_withoutDaemonPort() throws Exception {
+        assertFalse(DaemonClient.runOnDaemon(props, new String[]{"--pullRequests", "23"}, tokenPath));
+    }
+
+    @Test
+    public void testRunOnDaemon_withoutToken() throws Exception {
+        props.setDaemonPort(4242);
+
+        assertFalse(DaemonClient.runOnDaemon(props, new String[]{"--pullRequests", "23"}, tokenPath.resolveSibling("missing")));
+    }
+
+    @Test
+    public void testRunOnDaemon_withoutRunningDaemon() throws Exception {
+        int port;
+        try (ServerSocket serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            port = serverSocket.getLocalPort();
+        }
+        props.setDaemonPort(port);
+
+        assertFalse(DaemonClient.runOnDaemon(props, new String[]{"--pullRequests", "23"}, tokenPath));
+    }
+
+    @Test
+    public void testRunOnDaemon() throws Exception {
+        AtomicReference<DaemonRequest> request = new AtomicReference<>();
+        String response = "Summary: 1/1 files passed QA Check\n" + Daemon.STATUS_SUCCEEDED + "\n";
+
+        assertTrue(runOnDaemon(request, response));
+
+        assertEquals(token, request.get().getToken());
+        assertEquals(asList("--pullRequests", "23"), request.get().getArgs());
+        assertNotNull(request.get().getWorkingDirectory());
+        assertEquals("Summary: 1/1 files passed QA Check\n", new String(out.toByteArray(), UTF_8));
+    }
+
+    @Test
+    public void testRunOnDaemon_withStatusAfterUnterminatedOutput() throws Exception {
+        assertTrue(runOnDaemon(new AtomicReference<>(), "Summary" + Daemon.STATUS_SUCCEEDED + "\n"));
+
+        assertEquals("Summary", new String(out.toByteArray(), UTF_8));
+    }
+
+    @Test
+    public void testRunOnDaemon_withFailedRequest() throws Exception {
+        String response = "QA Sonar daemon request failed: java.io.IOException: SonarQube\n" + Daemon.STATUS_FAILED + "\n";
+        try {
+            runOnDaemon(new AtomicReference<>(), response);
+            fail("Expected an IOException for the failed daemon request");
+        } catch (IOException expected) {
+            assertEquals("QA Sonar daemon request failed: java.io.IOException: SonarQube\n", new String(out.toByteArray(), UTF_8));
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testRunOnDaemon_withoutStatus() throws Exception {
+        runOnDaemon(new AtomicReference<>(), "Summary: 1/1 files passed QA Check\n");
+    }
+
+    private boolean runOnDaemon(AtomicReference<DaemonRequest> request, String response) throws Exception {
+        try (ServerSocket serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            props.setDaemonPort(serverSocket.getLocalPort());
+            Thread server = new Thread(() -> {
+                try (Socket socket = serverSocket.accept()) {
+                    BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), UTF_8));
+                    request.set(new Gson().fromJson(reader.readLine(), DaemonRequest.class));
+                    OutputStream outputStream = socket.getOutputStream();
+                    outputStream.write(response.getBytes(UTF_8));
+                    outputStream.flush();
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            server.start();
+            try {
+                return DaemonClient.runOnDaemon(props, new String[]{"--pullRequests", "23"}, tokenPath);
+            } finally {
+                server.join();
+            }
+        }
+    }
+}
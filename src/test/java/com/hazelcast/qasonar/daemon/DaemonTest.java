@@ -0,0 +1,181 @@
+package com.hazelcast.qasonar.daemon;
+
+import com.google.gson.Gson;
+import com.hazelcast.utils.PropertyReader;
+import com.hazelcast.utils.RestClient;
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.Files.getPosixFilePermissions;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class DaemonTest {
+
+    private static final int REQUEST_TIMEOUT_MILLIS = 500;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private ServerSocket serverSocket;
+    private Thread daemonThread;
+    private Path tokenPath;
+    private String workingDirectory;
+
+    @Before
+    public void setUp() throws Exception {
+        PropertyReader props = new PropertyReader("host", "username", "password");
+        tokenPath = temporaryFolder.getRoot().toPath().resolve("daemon.token");
+        workingDirectory = temporaryFolder.getRoot().getAbsolutePath();
+
+        Daemon daemon = new Daemon(props, RestClient.fromPropertyReader(props), tokenPath, REQUEST_TIMEOUT_MILLIS);
+        serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+        daemonThread = new Thread(() -> {
+            try {
+                daemon.serve(serverSocket, null);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        daemonThread.start();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (DaemonToken.read(tokenPath) == null && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        serverSocket.close();
+        daemonThread.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    @Test
+    public void testTokenFile_isOwnerOnly() throws Exception {
+        assertEquals("[OWNER_READ, OWNER_WRITE]", getPosixFilePermissions(tokenPath).toString()
+                .replace("OWNER_WRITE, OWNER_READ", "OWNER_READ, OWNER_WRITE"));
+    }
+
+    @Test
+    public void testServe_withClosedConnection_thenDaemonKeepsRunning() throws Exception {
+        new Socket(InetAddress.getLoopbackAddress(), serverSocket.getLocalPort()).close();
+
+        String response = send(new Gson().toJson(new DaemonRequest(DaemonToken.read(tokenPath), workingDirectory,
+                asList("--listProjects"))));
+
+        assertEquals("Unsupported daemon action: LIST_PROJECTS\n" + Daemon.STATUS_FAILED + "\n", response);
+        assertTrue(daemonThread.isAlive());
+    }
+
+    @Test
+    public void testServe_withIdleConnection_thenNextRequestIsServed() throws Exception {
+        try (Socket idleSocket = new Socket(InetAddress.getLoopbackAddress(), serverSocket.getLocalPort())) {
+            String response = send(request(DaemonToken.read(tokenPath), workingDirectory, asList("--listProjects")));
+
+            assertEquals("Unsupported daemon action: LIST_PROJECTS\n" + Daemon.STATUS_FAILED + "\n", response);
+            String idleResponse = IOUtils.toString(new InputStreamReader(idleSocket.getInputStream(), UTF_8));
+            assertTrue(idleResponse, idleResponse.startsWith("QA Sonar daemon request failed: java.net.SocketTimeoutException"));
+        }
+        assertTrue(daemonThread.isAlive());
+    }
+
+    @Test
+    public void testReadRequestLine() throws Exception {
+        assertNull(Daemon.readRequestLine(new StringReader(""), 8));
+        assertEquals("", Daemon.readRequestLine(new StringReader("\n"), 8));
+        assertEquals("request", Daemon.readRequestLine(new StringReader("request\r\nnext"), 8));
+        assertEquals("12345678", Daemon.readRequestLine(new StringReader("12345678"), 8));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testReadRequestLine_withEndlessLine() throws Exception {
+        Reader endlessReader = new Reader() {
+            @Override
+            public int read(char[] buffer, int offset, int length) {
+                Arrays.fill(buffer, offset, offset + length, 'x');
+                return length;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+
+        Daemon.readRequestLine(endlessReader, Daemon.MAX_REQUEST_LENGTH);
+    }
+
+    @Test
+    public void testServe_withEmptyRequest() throws Exception {
+        assertRejected(send(""), "Empty request");
+        assertRejected(send("null"), "Invalid token");
+    }
+
+    @Test
+    public void testServe_withInvalidToken() throws Exception {
+        assertRejected(send(request("invalid", workingDirectory, asList("--listProjects"))), "Invalid token");
+        assertRejected(send(request(null, workingDirectory, asList("--listProjects"))), "Invalid token");
+    }
+
+    @Test
+    public void testServe_withMissingArgs() throws Exception {
+        assertRejected(send(request(DaemonToken.read(tokenPath), workingDirectory, null)), "Missing arguments");
+    }
+
+    @Test
+    public void testServe_withInvalidWorkingDirectory() throws Exception {
+        String token = DaemonToken.read(tokenPath);
+        assertRejected(send(request(token, "relative", asList("--listProjects"))), "Invalid working directory");
+        assertRejected(send(request(token, workingDirectory + "/missing", asList("--listProjects"))),
+                "Invalid working directory");
+    }
+
+    @Test
+    public void testServe_withInvalidJson() throws Exception {
+        String response = send("{");
+
+        assertTrue(response, response.startsWith("QA Sonar daemon request failed: "));
+        assertTrue(daemonThread.isAlive());
+    }
+
+    private static String request(String token, String workingDirectory, List<String> args) {
+        return new Gson().toJson(new DaemonRequest(token, workingDirectory, args));
+    }
+
+    private String send(String line) throws IOException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), serverSocket.getLocalPort())) {
+            OutputStream out = socket.getOutputStream();
+            out.write((line + "\n").getBytes(UTF_8));
+            out.flush();
+            return IOUtils.toString(new InputStreamReader(socket.getInputStream(), UTF_8));
+        }
+    }
+
+    private void assertRejected(String response, String reason) {
+        assertTrue(response, response.startsWith("QA Sonar daemon request failed: java.lang.IllegalArgumentException: " + reason));
+        assertFalse(response, response.contains("Unsupported daemon action"));
+        assertTrue(response, response.endsWith(Daemon.STATUS_FAILED + "\n"));
+        assertTrue(daemonThread.isAlive());
+    }
+}
@@ -0,0 +1,87 @@
+package com.hazelcast.qasonar.ideaconverter;
+
+import com.hazelcast.utils.PropertyReader;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.apache.commons.io.FileUtils.writeStringToFile;
+import static org.junit.Assert.assertEquals;
+
+public class IdeaConverterTest {
+
+    private static final int PACKAGE_COUNT = 50;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private PropertyReader props;
+
+    @Before
+    public void setUp() throws Exception {
+        props = new PropertyReader("host", "username", "password");
+        props.setGitHubRepository("hazelcast/hazelcast");
+        props.setParallelism(4);
+
+        for (int i = 0; i < PACKAGE_COUNT; i++) {
+            writeReport(format("com.hazelcast.package%02d", i), "Class", "Alpha", "Beta");
+        }
+        writeReport("com.hazelcast.overview", "Package", "com.hazelcast.package00");
+    }
+
+    @Test
+    public void testConvert() throws Exception {
+        IdeaConverter converter = new IdeaConverter(props);
+        StringWriter writer = new StringWriter();
+
+        int parsedClasses = converter.convert(temporaryFolder.getRoot().toPath(), writer);
+
+        assertEquals(2 * PACKAGE_COUNT, parsedClasses);
+
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < PACKAGE_COUNT; i++) {
+            expected.append(format("hazelcast;com.hazelcast.package%02d.Alpha.java;%.1f%n", i, 85.7))
+                    .append(format("hazelcast;com.hazelcast.package%02d.Beta.java;%.1f%n", i, 85.7));
+        }
+        assertEquals(expected.toString(), writer.toString());
+    }
+
+    @Test
+    public void testConvert_withDuplicateClasses() throws Exception {
+        File root = new File(temporaryFolder.getRoot(), "duplicates");
+        writeReport(root, "com.hazelcast.duplicate", "Class", "Alpha", "Alpha");
+
+        IdeaConverter converter = new IdeaConverter(props);
+        StringWriter writer = new StringWriter();
+
+        int parsedClasses = converter.convert(root.toPath(), writer);
+
+        assertEquals(2, parsedClasses);
+        String row = format("hazelcast;com.hazelcast.duplicate.Alpha.java;%.1f%n", 85.7);
+        assertEquals(row + row, writer.toString());
+    }
+
+    private void writeReport(String packageName, String header, String... classNames) throws IOException {
+        writeReport(temporaryFolder.getRoot(), packageName, header, classNames);
+    }
+
+    private static void writeReport(File root, String packageName, String header, String... classNames) throws IOException {
+        StringBuilder sb = new StringBuilder("<html><body><table><tr><th><a>Summary</a></th></tr></table>\n")
+                .append("<table>\n<tr><th class=\"sortableHeader\"><a>").append(header).append("</a></th>")
+                .append("<th>Line, %</th></tr>\n");
+        for (String className : classNames) {
+            sb.append("<tr><td class=\"name\"><a href=\"").append(className).append(".html\">").append(className)
+                    .append("</a></td><td class=\"coverageStat\"><span class=\"percent\">85.7%</span>")
+                    .append("<span class=\"absValue\">(6/7)</span></td></tr>\n");
+        }
+        sb.append("</table></body></html>\n");
+        writeStringToFile(new File(root, packageName + "/index.html"), sb.toString(), UTF_8);
+    }
+}
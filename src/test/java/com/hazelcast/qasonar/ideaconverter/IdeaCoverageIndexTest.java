@@ -0,0 +1,109 @@
+package com.hazelcast.qasonar.ideaconverter;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.Files.getLastModifiedTime;
+import static java.nio.file.Files.size;
+import static java.nio.file.Files.write;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class IdeaCoverageIndexTest {
+
+    private static final int CLASS_COUNT = 1000;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Path path;
+
+    @Before
+    public void setUp() throws Exception {
+        path = temporaryFolder.getRoot().toPath().resolve(IdeaCoverageIndex.INDEX_FILENAME);
+
+        IdeaCoverageIndexWriter writer = new IdeaCoverageIndexWriter();
+        for (int i = CLASS_COUNT - 1; i >= 0; i--) {
+            writer.add("hazelcast", "com.hazelcast.Class" + i + ".java", i / 10.0);
+        }
+        writer.add("hazelcast-enterprise", "com.hazelcast.Zulu.java", 12.34);
+        writer.add("hazelcast-enterprise", "com.hazelcast.Ärger.java", 56.78);
+        writer.add("hazelcast-enterprise", "com.hazelcast.Alpha.java", 10.0);
+        writer.add("hazelcast-enterprise", "com.hazelcast.Alpha.java", 20.0);
+        writer.write(path, 42, 23);
+    }
+
+    @Test
+    public void testGetCoverage() throws Exception {
+        IdeaCoverageIndex index = IdeaCoverageIndex.open(path, "hazelcast");
+
+        assertEquals(42, index.getCsvSize());
+        assertEquals(23, index.getCsvLastModified());
+        assertEquals(CLASS_COUNT, index.size());
+        for (int i = 0; i < CLASS_COUNT; i++) {
+            assertEquals(i / 10.0, index.getCoverage("com.hazelcast.Class" + i + ".java"), 0.0001);
+        }
+        assertTrue(Double.isNaN(index.getCoverage("com.hazelcast.Zulu.java")));
+        assertTrue(Double.isNaN(index.getCoverage("com.hazelcast.Class.java")));
+    }
+
+    @Test
+    public void testGetCoverage_withOtherRepository() throws Exception {
+        IdeaCoverageIndex index = IdeaCoverageIndex.open(path, "hazelcast-enterprise");
+
+        assertEquals(3, index.size());
+        assertEquals(12.3, index.getCoverage("com.hazelcast.Zulu.java"), 0.0001);
+        assertEquals(56.8, index.getCoverage("com.hazelcast.Ärger.java"), 0.0001);
+        assertEquals(20.0, index.getCoverage("com.hazelcast.Alpha.java"), 0.0001);
+        assertTrue(Double.isNaN(index.getCoverage("com.hazelcast.Class1.java")));
+    }
+
+    @Test
+    public void testGetCoverage_withUnknownRepository() throws Exception {
+        IdeaCoverageIndex index = IdeaCoverageIndex.open(path, "management-center");
+
+        assertEquals(42, index.getCsvSize());
+        assertEquals(0, index.size());
+        assertTrue(Double.isNaN(index.getCoverage("com.hazelcast.Class1.java")));
+    }
+
+    @Test
+    public void testWriteIndex() throws Exception {
+        Path csvPath = temporaryFolder.getRoot().toPath().resolve(IdeaConverter.OUTPUT_FILENAME);
+        write(csvPath, ("hazelcast;com.hazelcast.Zulu.java;12.3\n"
+                + "hazelcast;com.hazelcast.Alpha.java;10.0\n"
+                + "hazelcast;com.hazelcast.Alpha.java;20.0\n"
+                + "hazelcast-enterprise;com.hazelcast.Zulu.java;45.6\n").getBytes(UTF_8));
+
+        IdeaCoverageIndexWriter.writeIndex(csvPath, path);
+
+        IdeaCoverageIndex index = IdeaCoverageIndex.open(path, "hazelcast");
+        assertEquals(size(csvPath), index.getCsvSize());
+        assertEquals(getLastModifiedTime(csvPath).toMillis(), index.getCsvLastModified());
+        assertEquals(2, index.size());
+        assertEquals(12.3, index.getCoverage("com.hazelcast.Zulu.java"), 0.0001);
+        assertEquals(20.0, index.getCoverage("com.hazelcast.Alpha.java"), 0.0001);
+        assertEquals(45.6, IdeaCoverageIndex.open(path, "hazelcast-enterprise").getCoverage("com.hazelcast.Zulu.java"), 0.0001);
+    }
+
+    @Test(expected = IOException.class)
+    public void testWriteIndex_withInvalidCsvFile() throws Exception {
+        Path csvPath = temporaryFolder.getRoot().toPath().resolve(IdeaConverter.OUTPUT_FILENAME);
+        write(csvPath, "hazelcast;com.hazelcast.Zulu.java\n".getBytes(UTF_8));
+
+        IdeaCoverageIndexWriter.writeIndex(csvPath, path);
+    }
+
+    @Test(expected = IOException.class)
+    public void testOpen_withInvalidFile() throws Exception {
+        write(path, "hazelcast;com.hazelcast.Class1.java;0.1\n".getBytes(UTF_8));
+
+        IdeaCoverageIndex.open(path, "hazelcast");
+    }
+}
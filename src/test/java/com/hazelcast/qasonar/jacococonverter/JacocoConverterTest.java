@@ -0,0 +1,95 @@
+package com.hazelcast.qasonar.jacococonverter;
+
+import com.hazelcast.utils.PropertyReader;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+
+public class JacocoConverterTest {
+
+    private static final String MODULE_REPORT = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>"
+            + "<!DOCTYPE report PUBLIC \"-//JACOCO//DTD Report 1.0//EN\" \"report.dtd\">"
+            + "<report name=\"hazelcast\">"
+            + "<sessioninfo id=\"session\" start=\"1\" dump=\"2\"/>"
+            + "<package name=\"com/hazelcast/map\">"
+            + "<class name=\"com/hazelcast/map/Foo\" sourcefilename=\"Foo.java\">"
+            + "<method name=\"run\" desc=\"()V\" line=\"3\"><counter type=\"LINE\" missed=\"0\" covered=\"2\"/></method>"
+            + "<counter type=\"LINE\" missed=\"1\" covered=\"3\"/>"
+            + "</class>"
+            + "<class name=\"com/hazelcast/map/Foo$Inner\" sourcefilename=\"Foo.java\">"
+            + "<counter type=\"LINE\" missed=\"3\" covered=\"1\"/>"
+            + "</class>"
+            + "<sourcefile name=\"Foo.java\">"
+            + "<line nr=\"3\" mi=\"0\" ci=\"2\" mb=\"0\" cb=\"0\"/>"
+            + "<counter type=\"INSTRUCTION\" missed=\"10\" covered=\"10\"/>"
+            + "<counter type=\"LINE\" missed=\"4\" covered=\"4\"/>"
+            + "<counter type=\"BRANCH\" missed=\"1\" covered=\"1\"/>"
+            + "</sourcefile>"
+            + "<sourcefile name=\"Bar.java\">"
+            + "<counter type=\"LINE\" missed=\"1\" covered=\"2\"/>"
+            + "</sourcefile>"
+            + "<sourcefile name=\"Api.java\"/>"
+            + "<counter type=\"LINE\" missed=\"5\" covered=\"6\"/>"
+            + "</package>"
+            + "<counter type=\"LINE\" missed=\"5\" covered=\"6\"/>"
+            + "</report>";
+
+    private static final String AGGREGATED_REPORT = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+            + "<report name=\"aggregated\">"
+            + "<group name=\"hazelcast\">"
+            + "<package name=\"com/hazelcast/map\">"
+            + "<sourcefile name=\"Foo.java\"><counter type=\"LINE\" missed=\"1\" covered=\"7\"/></sourcefile>"
+            + "<sourcefile name=\"Bar.java\"><counter type=\"LINE\" missed=\"2\" covered=\"1\"/></sourcefile>"
+            + "</package>"
+            + "</group>"
+            + "</report>";
+
+    private JacocoConverter converter;
+
+    @Before
+    public void setUp() {
+        PropertyReader props = new PropertyReader("host", "username", "password");
+        props.setGitHubRepository("hazelcast/hazelcast");
+
+        converter = new JacocoConverter(props);
+    }
+
+    @Test
+    public void testParseReport() throws Exception {
+        parse(MODULE_REPORT);
+
+        assertEquals(format("hazelcast;com.hazelcast.map.Bar.java;%.1f%n", 66.7)
+                + format("hazelcast;com.hazelcast.map.Foo.java;%.1f%n", 50.0), write());
+    }
+
+    @Test
+    public void testParseReport_withMultipleReports_thenHighestCoverageIsUsed() throws Exception {
+        parse(MODULE_REPORT);
+        parse(AGGREGATED_REPORT);
+
+        assertEquals(format("hazelcast;com.hazelcast.map.Bar.java;%.1f%n", 66.7)
+                + format("hazelcast;com.hazelcast.map.Foo.java;%.1f%n", 87.5), write());
+    }
+
+    @Test(expected = IOException.class)
+    public void testParseReport_withInvalidXml() throws Exception {
+        parse("<report><package name=\"com/hazelcast\">");
+    }
+
+    private void parse(String report) throws IOException {
+        converter.parseReport(new ByteArrayInputStream(report.getBytes(UTF_8)));
+    }
+
+    private String write() throws IOException {
+        StringWriter writer = new StringWriter();
+        converter.writeCoverage(writer);
+        return writer.toString();
+    }
+}
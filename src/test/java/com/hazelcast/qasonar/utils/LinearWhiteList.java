@@ -0,0 +1,40 @@
+package com.hazelcast.qasonar.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// the former linear scan over all whitelist entries, used as reference for tests and benchmarks
+class LinearWhiteList {
+
+    private final List<String[]> entries = new ArrayList<>();
+
+    void addEntry(String type, String value) {
+        entries.add(new String[]{type, value});
+    }
+
+    int getFirstMatch(String fileName) {
+        for (int index = 0; index < entries.size(); index++) {
+            if (matches(entries.get(index)[0], entries.get(index)[1], fileName)) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean matches(String type, String value, String fileName) {
+        switch (type) {
+            case "EQUALS":
+                return fileName.equals(value);
+            case "STARTS_WITH":
+                return fileName.startsWith(value);
+            case "ENDS_WITH":
+                return fileName.endsWith(value);
+            case "CONTAINS":
+                return fileName.contains(value);
+            case "REGEX":
+                return fileName.matches(value);
+            default:
+                throw new UnsupportedOperationException("Unsupported whitelist type: " + type);
+        }
+    }
+}
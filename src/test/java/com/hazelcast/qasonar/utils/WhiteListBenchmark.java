@@ -0,0 +1,99 @@
+package com.hazelcast.qasonar.utils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// compares the compiled whitelist matcher with the former linear scan, run the main method from the IDE
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class WhiteListBenchmark {
+
+    private static final String[] TYPES = {"EQUALS", "STARTS_WITH", "ENDS_WITH", "CONTAINS", "REGEX"};
+    private static final String[] MODULES = {"hazelcast", "hazelcast-client", "hazelcast-spring", "hazelcast-wm"};
+    private static final int FILE_COUNT = 1000;
+
+    @Param({"10", "100", "500"})
+    public int entryCount;
+
+    private WhiteList whiteList;
+    private LinearWhiteList linearWhiteList;
+    private String[] fileNames;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        whiteList = new WhiteList();
+        linearWhiteList = new LinearWhiteList();
+        for (int i = 0; i < entryCount; i++) {
+            String type = TYPES[i % TYPES.length];
+            String value = createValue(type, random);
+            whiteList.addEntry(type, value, "justification", null);
+            linearWhiteList.addEntry(type, value);
+        }
+        whiteList.compile();
+
+        fileNames = new String[FILE_COUNT];
+        for (int i = 0; i < FILE_COUNT; i++) {
+            fileNames[i] = createFileName(random);
+        }
+    }
+
+    @Benchmark
+    public void compiled(Blackhole blackhole) {
+        for (String fileName : fileNames) {
+            blackhole.consume(whiteList.getWhitelistResultOrNull(fileName));
+        }
+    }
+
+    @Benchmark
+    public void linearScan(Blackhole blackhole) {
+        for (String fileName : fileNames) {
+            blackhole.consume(linearWhiteList.getFirstMatch(fileName));
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(WhiteListBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    private static String createValue(String type, Random random) {
+        String className = "Class" + random.nextInt(FILE_COUNT);
+        switch (type) {
+            case "EQUALS":
+                return MODULES[random.nextInt(MODULES.length)] + "/src/main/java/com/hazelcast/" + className + ".java";
+            case "STARTS_WITH":
+                return MODULES[random.nextInt(MODULES.length)] + "/src/main/java/com/hazelcast/package" + random.nextInt(100);
+            case "ENDS_WITH":
+                return className + ".java";
+            case "CONTAINS":
+                return "/package" + random.nextInt(100) + "/impl/";
+            default:
+                return ".*/package" + random.nextInt(100) + "/.*Codec\\.java";
+        }
+    }
+
+    private static String createFileName(Random random) {
+        return MODULES[random.nextInt(MODULES.length)] + "/src/main/java/com/hazelcast/package" + random.nextInt(100)
+                + (random.nextBoolean() ? "/impl/" : "/") + "Class" + random.nextInt(FILE_COUNT)
+                + (random.nextInt(10) == 0 ? "Codec" : "") + ".java";
+    }
+}
@@ -0,0 +1,104 @@
+package com.hazelcast.qasonar.utils;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class WhiteListTest {
+
+    private static final String[] TYPES = {"EQUALS", "STARTS_WITH", "ENDS_WITH", "CONTAINS", "REGEX"};
+
+    private WhiteList whiteList;
+
+    @Before
+    public void setUp() {
+        whiteList = new WhiteList();
+    }
+
+    @Test
+    public void testGetWhitelistResultOrNull() {
+        whiteList.addEntry("EQUALS", "hazelcast/src/main/java/Foo.java", "equals", null);
+        whiteList.addEntry("STARTS_WITH", "hazelcast-client/", "starts with", null);
+        whiteList.addEntry("ENDS_WITH", "Codec.java", "ends with", null);
+        whiteList.addEntry("CONTAINS", "/generated/", "contains", null);
+        whiteList.addEntry("REGEX", ".*/impl/.*Impl\\.java", null, "regex");
+
+        assertEquals("equals", whiteList.getWhitelistResultOrNull("hazelcast/src/main/java/Foo.java").getJustification());
+        assertEquals("starts with", whiteList.getWhitelistResultOrNull("hazelcast-client/src/Bar.java").getJustification());
+        assertEquals("ends with", whiteList.getWhitelistResultOrNull("hazelcast/src/MapPutCodec.java").getJustification());
+        assertEquals("contains", whiteList.getWhitelistResultOrNull("hazelcast/src/generated/Bar.java").getJustification());
+
+        WhiteListResult result = whiteList.getWhitelistResultOrNull("hazelcast/src/impl/MapImpl.java");
+        assertFalse(result.isJustification());
+        assertEquals("regex", result.getComment());
+
+        assertNull(whiteList.getWhitelistResultOrNull("hazelcast/src/main/java/Bar.java"));
+        assertNull(whiteList.getWhitelistResultOrNull("hazelcast/src/impl/MapImpl.java.orig"));
+    }
+
+    @Test
+    public void testGetWhitelistResultOrNull_firstMatchWins() {
+        whiteList.addEntry("REGEX", ".*Foo.*", "regex", null);
+        whiteList.addEntry("ENDS_WITH", "Foo.java", "ends with", null);
+        whiteList.addEntry("EQUALS", "Bar.java", "equals", null);
+        whiteList.addEntry("CONTAINS", "Bar", "contains", null);
+
+        assertEquals("regex", whiteList.getWhitelistResultOrNull("src/Foo.java").getJustification());
+        assertEquals("equals", whiteList.getWhitelistResultOrNull("Bar.java").getJustification());
+        assertEquals("contains", whiteList.getWhitelistResultOrNull("src/Bar.java").getJustification());
+    }
+
+    @Test
+    public void testGetWhitelistResultOrNull_withOverlappingContainsEntries() {
+        whiteList.addEntry("CONTAINS", "abx", "abx", null);
+        whiteList.addEntry("CONTAINS", "bcd", "bcd", null);
+        whiteList.addEntry("CONTAINS", "c", "c", null);
+
+        assertEquals("bcd", whiteList.getWhitelistResultOrNull("zabcdz").getJustification());
+        assertEquals("abx", whiteList.getWhitelistResultOrNull("aabxc").getJustification());
+        assertEquals("c", whiteList.getWhitelistResultOrNull("abc").getJustification());
+        assertNull(whiteList.getWhitelistResultOrNull("abab"));
+    }
+
+    @Test
+    public void testGetWhitelistResultOrNull_whenEntryIsAddedAfterLookup() {
+        whiteList.addEntry("ENDS_WITH", "Foo.java", "foo", null);
+        assertNull(whiteList.getWhitelistResultOrNull("src/Bar.java"));
+
+        whiteList.addEntry("ENDS_WITH", "Bar.java", "bar", null);
+        assertTrue(whiteList.getWhitelistResultOrNull("src/Bar.java").isJustification());
+    }
+
+    @Test
+    public void testGetWhitelistResultOrNull_equalsLinearScan() {
+        Random random = new Random(42);
+        LinearWhiteList linearWhiteList = new LinearWhiteList();
+        for (int i = 0; i < 200; i++) {
+            String type = TYPES[random.nextInt(TYPES.length)];
+            String value = "REGEX".equals(type) ? ".*" + randomString(random, 2) + ".*" : randomString(random, 1 + random.nextInt(3));
+            whiteList.addEntry(type, value, String.valueOf(i), null);
+            linearWhiteList.addEntry(type, value);
+        }
+
+        for (int i = 0; i < 2000; i++) {
+            String fileName = randomString(random, 1 + random.nextInt(8));
+            int expected = linearWhiteList.getFirstMatch(fileName);
+            WhiteListResult result = whiteList.getWhitelistResultOrNull(fileName);
+            assertEquals(fileName, expected, (result == null) ? -1 : Integer.parseInt(result.getJustification()));
+        }
+    }
+
+    private static String randomString(Random random, int length) {
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append((char) ('a' + random.nextInt(4)));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,107 @@
+package com.hazelcast.utils;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.apache.commons.io.FileUtils.writeStringToFile;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class FileFinderTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Path root;
+
+    @Before
+    public void setUp() throws Exception {
+        root = temporaryFolder.getRoot().toPath();
+
+        write("report.csv");
+        write("report.txt");
+        write("module-b/report.csv");
+        write("module-a/report.csv");
+        write("module-a/sub/deep/report.csv");
+        write("module-a/target/report.csv");
+        write("module-a/src/test/resources/report.csv");
+        write(".git/report.csv");
+        write("node_modules/report.csv");
+        write("reports.csv/notes.txt");
+    }
+
+    @Test
+    public void testFind() throws Exception {
+        List<Path> matchedPaths = new FileFinder("*.csv").find(root);
+
+        assertEquals(asList(
+                root.resolve("module-a/report.csv"),
+                root.resolve("module-a/src/test/resources/report.csv"),
+                root.resolve("module-a/sub/deep/report.csv"),
+                root.resolve("module-a/target/report.csv"),
+                root.resolve("module-b/report.csv"),
+                root.resolve("node_modules/report.csv"),
+                root.resolve("report.csv")), matchedPaths);
+    }
+
+    @Test
+    public void testFind_withRegex() throws Exception {
+        List<Path> matchedPaths = new FileFinder("report\\.(csv|txt)", true).maxDepth(1).find(root);
+
+        assertEquals(asList(root.resolve("report.csv"), root.resolve("report.txt")), matchedPaths);
+    }
+
+    @Test
+    public void testFind_withPrunedDirectories() throws Exception {
+        List<Path> matchedPaths = new FileFinder("*.csv").prune("src", "target", "node_modules", "sub").find(root);
+
+        assertEquals(asList(
+                root.resolve("module-a/report.csv"),
+                root.resolve("module-b/report.csv"),
+                root.resolve("report.csv")), matchedPaths);
+    }
+
+    @Test
+    public void testFind_withMaxDepth() throws Exception {
+        List<Path> matchedPaths = new FileFinder("*.csv").maxDepth(2).find(root);
+
+        assertEquals(asList(
+                root.resolve("module-a/report.csv"),
+                root.resolve("module-b/report.csv"),
+                root.resolve("node_modules/report.csv"),
+                root.resolve("report.csv")), matchedPaths);
+
+        assertEquals(emptyList(), new FileFinder("*.csv").maxDepth(0).find(root));
+    }
+
+    @Test
+    public void testFind_withConsumer() throws Exception {
+        ConcurrentLinkedQueue<Path> matchedPaths = new ConcurrentLinkedQueue<>();
+
+        int matchCount = new FileFinder("*.csv").find(root, matchedPaths::add);
+
+        assertEquals(7, matchCount);
+        assertEquals(7, matchedPaths.size());
+        assertTrue(matchedPaths.contains(root.resolve("module-a/sub/deep/report.csv")));
+    }
+
+    @Test(expected = IOException.class)
+    public void testFind_withMissingRoot() throws Exception {
+        new FileFinder("*.csv").find(root.resolve("missing"));
+    }
+
+    private void write(String fileName) throws IOException {
+        writeStringToFile(new File(temporaryFolder.getRoot(), fileName), fileName, UTF_8);
+    }
+}
@@ -0,0 +1,147 @@
+package com.hazelcast.utils;
+
+import org.junit.Test;
+import org.kohsuke.github.HttpException;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.hazelcast.utils.GitHubRequestScheduler.PACING_THRESHOLD;
+import static com.hazelcast.utils.GitHubRequestScheduler.isRateLimitError;
+import static com.hazelcast.utils.GitHubRequestScheduler.isRetryable;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class GitHubRequestSchedulerTest {
+
+    private static final TimeTrackerLabel LABEL = TimeTrackerLabel.GET_PULL_REQUEST;
+
+    private final GitHubRequestScheduler scheduler = new GitHubRequestScheduler(3, 1, 2);
+    private final AtomicInteger attempts = new AtomicInteger();
+
+    @Test
+    public void testExecute_whenRetryableError_thenRetried() throws Exception {
+        String result = scheduler.execute(LABEL, () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new IOException("connection reset");
+            }
+            return "result";
+        });
+
+        assertEquals("result", result);
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    public void testExecute_whenFatalError_thenNotRetried() throws Exception {
+        try {
+            scheduler.execute(LABEL, () -> {
+                attempts.incrementAndGet();
+                throw new FileNotFoundException("not found");
+            });
+            fail("Expected FileNotFoundException");
+        } catch (FileNotFoundException expected) {
+            assertEquals(1, attempts.get());
+        }
+    }
+
+    @Test
+    public void testExecute_whenMaxAttemptsReached_thenLastErrorIsThrown() throws Exception {
+        try {
+            scheduler.execute(LABEL, () -> {
+                throw new IOException("attempt " + attempts.incrementAndGet());
+            });
+            fail("Expected IOException");
+        } catch (IOException expected) {
+            assertEquals("attempt 3", expected.getMessage());
+        }
+    }
+
+    @Test
+    public void testExecute_whenRateLimitIsExhausted_thenRetriedAfterReset() throws Exception {
+        long started = System.currentTimeMillis();
+        String result = scheduler.execute(LABEL, () -> {
+            if (attempts.incrementAndGet() == 1) {
+                scheduler.updateRateLimit(0, System.currentTimeMillis() + 200);
+                throw new HttpException("rate limit exceeded", 403, "Forbidden", "url");
+            }
+            return "result";
+        });
+
+        assertEquals("result", result);
+        assertEquals(2, attempts.get());
+        assertTrue(System.currentTimeMillis() - started >= 200);
+    }
+
+    @Test
+    public void testGetRateLimitDelayMillis() {
+        long resetMillis = System.currentTimeMillis() + 10000;
+        scheduler.updateRateLimit(0, resetMillis);
+
+        long delayMillis = scheduler.getRateLimitDelayMillis(1);
+
+        assertTrue(delayMillis > 9000 && delayMillis <= 11000);
+    }
+
+    @Test
+    public void testGetRateLimitDelayMillis_whenBudgetIsLeft_thenBackoff() {
+        scheduler.updateRateLimit(1, System.currentTimeMillis() + 10000);
+
+        assertTrue(scheduler.getRateLimitDelayMillis(1) <= 2);
+    }
+
+    @Test
+    public void testIsRateLimitError() {
+        assertTrue(isRateLimitError(new HttpException("rate limit", 403, "Forbidden", "url")));
+        assertTrue(isRateLimitError(new HttpException("too many requests", 429, "Too Many Requests", "url")));
+        assertFalse(isRateLimitError(new HttpException("server error", 502, "Bad Gateway", "url")));
+        assertFalse(isRateLimitError(new IOException()));
+    }
+
+    @Test
+    public void testIsRetryable() {
+        assertTrue(isRetryable(new IOException()));
+        assertTrue(isRetryable(new HttpException("server error", 502, "Bad Gateway", "url")));
+        assertTrue(isRetryable(new HttpException("rate limit", 403, "Forbidden", "url")));
+        assertFalse(isRetryable(new HttpException("unprocessable", 422, "Unprocessable Entity", "url")));
+        assertFalse(isRetryable(new FileNotFoundException()));
+        assertFalse(isRetryable(new IllegalArgumentException()));
+    }
+
+    @Test
+    public void testReserveDelayMillis_whenBudgetIsLarge_thenNoDelay() {
+        scheduler.updateRateLimit(PACING_THRESHOLD + 1, 10000);
+
+        assertEquals(0, scheduler.reserveDelayMillis(0));
+        assertEquals(0, scheduler.reserveDelayMillis(0));
+    }
+
+    @Test
+    public void testReserveDelayMillis_whenBudgetIsLow_thenRequestsArePaced() {
+        scheduler.updateRateLimit(10, 10000);
+
+        assertEquals(0, scheduler.reserveDelayMillis(0));
+        assertEquals(1000, scheduler.reserveDelayMillis(0));
+        assertEquals(2111, scheduler.reserveDelayMillis(0));
+    }
+
+    @Test
+    public void testReserveDelayMillis_whenBudgetIsExhausted_thenWaitForReset() {
+        scheduler.updateRateLimit(0, 10000);
+
+        assertEquals(7500, scheduler.reserveDelayMillis(2500));
+        assertEquals(0, scheduler.reserveDelayMillis(10000));
+    }
+
+    @Test
+    public void testGetBackoffMillis_isCappedByMaxDelay() {
+        GitHubRequestScheduler backoffScheduler = new GitHubRequestScheduler(10, 100, 1000);
+        for (int attempt = 1; attempt < 100; attempt++) {
+            long backoffMillis = backoffScheduler.getBackoffMillis(attempt);
+            assertTrue(backoffMillis >= 0 && backoffMillis <= 1000);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.hazelcast.utils;
+
+import com.sun.net.httpserver.HttpServer;
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.net.InetSocketAddress;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+
+public class HttpCacheTest {
+
+    private static final String ETAG = "\"v1\"";
+    private static final String BODY = "[{\"id\":23}]";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final AtomicInteger fullResponses = new AtomicInteger();
+    private final AtomicInteger notModifiedResponses = new AtomicInteger();
+
+    private final RestClient restClient = new RestClient("Basic none", 1000, 1000, 2);
+
+    private HttpServer server;
+    private String query;
+
+    @Before
+    public void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/api/resources", exchange -> {
+            if (ETAG.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                notModifiedResponses.incrementAndGet();
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+            fullResponses.incrementAndGet();
+            byte[] body = BODY.getBytes(UTF_8);
+            exchange.getResponseHeaders().add("ETag", ETAG);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+
+        query = "http://localhost:" + server.getAddress().getPort() + "/api/resources?resource=42";
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testGetReader_whenFresh_thenServedFromCache() throws Exception {
+        HttpCache httpCache = new HttpCache(temporaryFolder.getRoot().getPath(), Long.MAX_VALUE, Long.MAX_VALUE);
+
+        assertEquals(BODY, read(httpCache));
+        assertEquals(BODY, read(httpCache));
+
+        assertEquals(1, fullResponses.get());
+        assertEquals(0, notModifiedResponses.get());
+    }
+
+    @Test
+    public void testGetReader_whenStale_thenRevalidated() throws Exception {
+        HttpCache httpCache = new HttpCache(temporaryFolder.getRoot().getPath(), -1, Long.MAX_VALUE);
+
+        assertEquals(BODY, read(httpCache));
+        assertEquals(BODY, read(httpCache));
+
+        assertEquals(1, fullResponses.get());
+        assertEquals(1, notModifiedResponses.get());
+    }
+
+    @Test
+    public void testGetReader_whenCacheIsFull_thenEntryIsEvicted() throws Exception {
+        HttpCache httpCache = new HttpCache(temporaryFolder.getRoot().getPath(), Long.MAX_VALUE, 1);
+
+        assertEquals(BODY, read(httpCache));
+        assertEquals(BODY, read(httpCache));
+
+        assertEquals(2, fullResponses.get());
+    }
+
+    private String read(HttpCache httpCache) throws IOException {
+        try (Reader reader = httpCache.getReader(restClient, query)) {
+            return IOUtils.toString(reader);
+        }
+    }
+}
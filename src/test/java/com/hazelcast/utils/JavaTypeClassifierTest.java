@@ -0,0 +1,79 @@
+package com.hazelcast.utils;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+
+import static com.hazelcast.utils.JavaTypeClassifier.classify;
+import static org.junit.Assert.assertEquals;
+
+public class JavaTypeClassifierTest {
+
+    @Test
+    public void testClassify() {
+        assertEquals(JavaType.CLASS, classify("package foo;\n\npublic final class Foo<T> extends Bar {\n}\n", "Foo"));
+        assertEquals(JavaType.INTERFACE, classify("package foo;\n\ninterface Foo {\n}\n", "Foo"));
+        assertEquals(JavaType.ANNOTATION, classify("@Retention(RUNTIME)\npublic @interface Foo {\n}\n", "Foo"));
+        assertEquals(JavaType.ENUM, classify("public enum Foo {\n    ONE,\n    TWO\n}\n", "Foo"));
+    }
+
+    @Test
+    public void testClassify_whenUnknown() {
+        assertEquals(JavaType.UNKNOWN, classify("", "Foo"));
+        assertEquals(JavaType.UNKNOWN, classify("public interface FooBar {\n}\n", "Foo"));
+        assertEquals(JavaType.UNKNOWN, classify("public class Bar {\n    interface Foo {\n    }\n}\n", "Foo"));
+    }
+
+    @Test
+    public void testClassify_ignoresComments() {
+        assertEquals(JavaType.CLASS, classify("// interface Foo\n/* enum Foo */\n/** @interface Foo */\nclass Foo {\n}\n", "Foo"));
+        assertEquals(JavaType.CLASS, classify("public class /* interface */ Foo {\n}\n", "Foo"));
+    }
+
+    @Test
+    public void testClassify_ignoresLiterals() {
+        String source = "@SuppressWarnings(\"interface Foo\")\n@Name('{')\npublic class Foo {\n    String s = \"\\\"}\";\n}\n";
+
+        assertEquals(JavaType.CLASS, classify(source, "Foo"));
+    }
+
+    @Test
+    public void testClassify_withSeveralTopLevelTypes() {
+        String source = "class Bar {\n    enum Foo {\n    }\n}\n\ninterface Foo {\n}\n";
+
+        assertEquals(JavaType.INTERFACE, classify(source, "Foo"));
+    }
+
+    @Test
+    public void testClassify_stopsReadingAfterDeclaration() throws Exception {
+        CountingReader reader = new CountingReader("public interface Foo {\n    void foo();\n}\n");
+
+        assertEquals(JavaType.INTERFACE, classify(reader, "Foo"));
+        assertEquals("public interface Foo ".length(), reader.read);
+    }
+
+    private static final class CountingReader extends Reader {
+
+        private final Reader delegate;
+
+        private int read;
+
+        private CountingReader(String contents) {
+            this.delegate = new StringReader(contents);
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) throws IOException {
+            int count = delegate.read(buffer, offset, 1);
+            read += Math.max(count, 0);
+            return count;
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.hazelcast.utils;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.zip.GZIPOutputStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.Executors.newCachedThreadPool;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class RestClientTest {
+
+    private static final String BODY = "[{\"id\":23}]";
+    private static final int LARGE_BODY_SIZE = 1024 * 1024;
+    private static final int READ_TIMEOUT_MILLIS = 500;
+
+    private final List<Integer> clientPorts = new CopyOnWriteArrayList<>();
+    private final ExecutorService executor = newCachedThreadPool();
+
+    private HttpServer server;
+    private String baseUrl;
+
+    @Before
+    public void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(executor);
+        server.createContext("/plain", exchange -> send(exchange, 200, BODY.getBytes(UTF_8), false));
+        server.createContext("/gzip", exchange -> send(exchange, 200, BODY.getBytes(UTF_8), true));
+        server.createContext("/large", exchange -> send(exchange, 200, new byte[LARGE_BODY_SIZE], false));
+        server.createContext("/error", exchange -> send(exchange, 500, "{\"error\":\"failed\"}".getBytes(UTF_8), false));
+        server.createContext("/slow", exchange -> {
+            try {
+                Thread.sleep(READ_TIMEOUT_MILLIS * 4);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            send(exchange, 200, BODY.getBytes(UTF_8), false);
+        });
+        server.start();
+
+        baseUrl = "http://localhost:" + server.getAddress().getPort();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testGet() throws Exception {
+        RestClient restClient = new RestClient("Basic none", 1000, 1000, 2);
+
+        try (RestResponse response = restClient.get(baseUrl + "/plain")) {
+            assertEquals(200, response.getStatusCode());
+            assertEquals(BODY, IOUtils.toString(response.getInputStream(), UTF_8));
+        }
+    }
+
+    @Test
+    public void testGet_withGzip() throws Exception {
+        RestClient restClient = new RestClient("Basic none", 1000, 1000, 2);
+
+        try (RestResponse response = restClient.get(baseUrl + "/gzip")) {
+            assertEquals("gzip", response.getHeader("Content-Encoding"));
+            assertEquals(BODY, IOUtils.toString(response.getInputStream(), UTF_8));
+        }
+    }
+
+    @Test
+    public void testGet_whenMaxConnectionsInFlight_thenBlocks() throws Exception {
+        RestClient restClient = new RestClient("Basic none", 1000, 1000, 1);
+
+        RestResponse firstResponse = restClient.get(baseUrl + "/plain");
+        Future<RestResponse> secondResponse = executor.submit(() -> restClient.get(baseUrl + "/plain"));
+        try {
+            secondResponse.get(READ_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            fail("The second request should wait for a free connection");
+        } catch (TimeoutException expected) {
+            // the second request waits for the permit of the first one
+        }
+
+        firstResponse.close();
+        try (RestResponse response = secondResponse.get(5, TimeUnit.SECONDS)) {
+            assertEquals(BODY, IOUtils.toString(response.getInputStream(), UTF_8));
+        }
+    }
+
+    @Test
+    public void testClose_whenPartiallyRead_thenConnectionIsReused() throws Exception {
+        RestClient restClient = new RestClient("Basic none", 1000, 1000, 1);
+
+        try (RestResponse response = restClient.get(baseUrl + "/large")) {
+            InputStream inputStream = response.getInputStream();
+            assertTrue(inputStream.read(new byte[16]) > 0);
+        }
+        try (RestResponse response = restClient.get(baseUrl + "/plain")) {
+            assertEquals(BODY, IOUtils.toString(response.getInputStream(), UTF_8));
+        }
+
+        assertEquals(2, clientPorts.size());
+        assertEquals("the drained connection should be reused", clientPorts.get(0), clientPorts.get(1));
+    }
+
+    @Test
+    public void testGet_withErrorResponse_thenConnectionIsReleased() throws Exception {
+        RestClient restClient = new RestClient("Basic none", 1000, 1000, 1);
+
+        try {
+            restClient.get(baseUrl + "/error");
+            fail("Expected an IOException for the HTTP 500 response");
+        } catch (IOException expected) {
+            assertTrue(expected.getMessage().contains("500"));
+        }
+        try (RestResponse response = restClient.get(baseUrl + "/plain")) {
+            assertEquals(BODY, IOUtils.toString(response.getInputStream(), UTF_8));
+        }
+
+        assertEquals(2, clientPorts.size());
+        assertEquals("the drained connection should be reused", clientPorts.get(0), clientPorts.get(1));
+    }
+
+    @Test
+    public void testGet_withReadTimeout_thenConnectionIsReleased() throws Exception {
+        RestClient restClient = new RestClient("Basic none", 1000, READ_TIMEOUT_MILLIS, 1);
+
+        long started = System.nanoTime();
+        try {
+            restClient.get(baseUrl + "/slow");
+            fail("Expected an IOException for the read timeout");
+        } catch (IOException expected) {
+            assertTrue(System.nanoTime() - started < TimeUnit.MILLISECONDS.toNanos(READ_TIMEOUT_MILLIS * 4));
+        }
+
+        Future<RestResponse> response = executor.submit(() -> restClient.get(baseUrl + "/plain"));
+        try (RestResponse restResponse = response.get(5, TimeUnit.SECONDS)) {
+            assertEquals(BODY, IOUtils.toString(restResponse.getInputStream(), UTF_8));
+        }
+    }
+
+    private void send(HttpExchange exchange, int statusCode, byte[] body, boolean gzip) throws IOException {
+        clientPorts.add(exchange.getRemoteAddress().getPort());
+        IOUtils.toByteArray(exchange.getRequestBody());
+        if (gzip) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+                out.write(body);
+            }
+            body = compressed.toByteArray();
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+        }
+        exchange.sendResponseHeaders(statusCode, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}